@@ -3,27 +3,37 @@ import { Link } from 'react-router-dom';
 import { issueService } from '../services/api';
 import './IssueList.css';
 
+const INBOX_PAGE_SIZE = 50;
+
 function IssueList() {
   const [issues, setIssues] = useState([]);
   const [loading, setLoading] = useState(true);
   const [filter, setFilter] = useState('all');
+  // Inbox paging: the cursor of the next page, and how many issues the inbox holds in total
+  const [nextCursor, setNextCursor] = useState(null);
+  const [total, setTotal] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     fetchIssues();
   }, [filter]);
 
+  const inboxName = () => (filter === 'my' ? 'reported' : 'assigned');
+
   const fetchIssues = async () => {
     setLoading(true);
     try {
-      let response;
       if (filter === 'all') {
-        response = await issueService.getAll();
-      } else if (filter === 'my') {
-        response = await issueService.getMyIssues();
-      } else if (filter === 'assigned') {
-        response = await issueService.getAssignedIssues();
+        const response = await issueService.getAll();
+        setIssues(response.data);
+        setNextCursor(null);
+        setTotal(null);
+      } else {
+        const response = await issueService.getInbox(inboxName(), { size: INBOX_PAGE_SIZE });
+        setIssues(response.data.content);
+        setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
+        setTotal(response.data.totalElements);
       }
-      setIssues(response.data);
     } catch (error) {
       console.error('Failed to fetch issues:', error);
     } finally {
@@ -31,6 +41,20 @@ function IssueList() {
     }
   };
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const response = await issueService.getInbox(inboxName(), { size: INBOX_PAGE_SIZE, cursor: nextCursor });
+      setIssues((loaded) => [...loaded, ...response.data.content]);
+      setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
+      setTotal(response.data.totalElements);
+    } catch (error) {
+      console.error('Failed to fetch more issues:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleDelete = async (id) => {
     if (window.confirm('Are you sure you want to delete this issue?')) {
       try {
@@ -126,6 +150,16 @@ function IssueList() {
               </tbody>
             </table>
           </div>
+          {total !== null && (
+            <div className="list-footer">
+              <span>Showing {issues.length} of {total} issues</span>
+              {nextCursor && (
+                <button onClick={loadMore} className="btn btn-secondary" disabled={loadingMore}>
+                  {loadingMore ? 'Loading...' : 'Load more'}
+                </button>
+              )}
+            </div>
+          )}
         </div>
       )}
     </div>
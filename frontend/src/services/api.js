@@ -45,6 +45,7 @@ export const issueService = {
   getByStatus: (status) => api.get(`/issues?status=${status}`),
   getMyIssues: () => api.get('/issues/my-issues'),
   getAssignedIssues: () => api.get('/issues/assigned-to-me'),
+  getInbox: (box, params = {}) => api.get(`/issues/inbox/${box}`, { params }),
   create: (data) => api.post('/issues', data),
   update: (id, data) => api.put(`/issues/${id}`, data),
   delete: (id) => api.delete(`/issues/${id}`),
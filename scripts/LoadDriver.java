@@ -0,0 +1,116 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Minimal closed-loop HTTP load driver: N clients each issue GET requests back to back for a
+ * fixed duration and the latencies are reported as percentiles. Runs as a single-file program:
+ *
+ * <pre>
+ *   java scripts/LoadDriver.java &lt;base-url&gt; &lt;token&gt; &lt;clients&gt; &lt;seconds&gt; &lt;path&gt; [&lt;path&gt;...]
+ * </pre>
+ */
+public class LoadDriver {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("usage: LoadDriver <base-url> <token> <clients> <seconds> <path> [<path>...]");
+            System.exit(2);
+        }
+        String baseUrl = args[0];
+        String token = args[1];
+        int clients = Integer.parseInt(args[2]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[3]));
+        List<String> paths = Arrays.asList(args).subList(4, args.length);
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.min(clients, 64)))
+                .build();
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Samples> samples = new ArrayList<>();
+        Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int c = 0; c < clients; c++) {
+            Samples clientSamples = new Samples();
+            samples.add(clientSamples);
+            int client = c;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int n = 0; System.nanoTime() < deadline; n++) {
+                        String path = paths.get((client + n) % paths.size());
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long start = System.nanoTime();
+                        String outcome;
+                        try {
+                            outcome = String.valueOf(httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+                        } catch (Exception e) {
+                            outcome = e.getClass().getSimpleName();
+                        }
+                        clientSamples.add(System.nanoTime() - start);
+                        outcomes.computeIfAbsent(outcome, k -> new AtomicLong()).incrementAndGet();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        long[] all = samples.stream()
+                .flatMapToLong(Samples::stream)
+                .sorted()
+                .toArray();
+        long total = outcomes.values().stream().mapToLong(AtomicLong::get).sum();
+        System.out.printf("clients=%d duration=%ds requests=%d throughput=%.0f req/s%n",
+                clients, duration.toSeconds(), total, total / (double) duration.toSeconds());
+        System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 1.0));
+        System.out.println("outcomes: " + new TreeMap<>(outcomes));
+        System.exit(0);
+    }
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int count;
+
+        void add(long value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+        }
+
+        LongStream stream() {
+            return Arrays.stream(values, 0, count);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
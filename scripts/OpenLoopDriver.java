@@ -0,0 +1,309 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-loop HTTP load driver for the loadtest profile: requests are started on a fixed schedule
+ * at the target rate whether or not earlier ones have completed, and latency is measured from the
+ * scheduled start, so a stalled server shows up as queueing delay instead of a lower request
+ * rate. Traffic is a weighted mix of the main endpoints, reported per endpoint. Runs as a
+ * single-file program:
+ *
+ * <pre>
+ *   java [-Dusers=50] [-Dpassword=loadtest123] [-Dreport=file.json] scripts/OpenLoopDriver.java \
+ *       &lt;base-url&gt; &lt;requests-per-second&gt; &lt;seconds&gt;
+ * </pre>
+ *
+ * Expects the data generated by the loadtest profile: users {@code user1..userN} sharing one
+ * password, and issue ids 1..total.
+ */
+public class OpenLoopDriver {
+
+    // Kept in sync with LoadTestDataSeeder.WORDS, which also names the component labels
+    private static final String[] WORDS = {"login", "timeout", "crash", "dashboard", "export", "payment", "upload",
+            "session", "search", "notification", "report", "cache", "email", "mobile", "permission", "import"};
+    private static final String[] STATUSES = {"OPEN", "IN_PROGRESS", "RESOLVED", "CLOSED", "REOPENED"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern TOTAL = Pattern.compile("\"totalElements\"\\s*:\\s*(\\d+)");
+    private static final int MAX_IN_FLIGHT = 10_000;
+    private static final String BOUNDARY = "----loadtest-boundary";
+
+    private final String baseUrl;
+    private final String password;
+    private final HttpClient httpClient;
+    private final List<String> tokens = new ArrayList<>();
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int users;
+    private long issueCount;
+    private int totalWeight;
+    private volatile boolean recording;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: OpenLoopDriver <base-url> <requests-per-second> <seconds>");
+            System.exit(2);
+        }
+        OpenLoopDriver driver = new OpenLoopDriver(args[0], Integer.getInteger("users", 50),
+                System.getProperty("password", "loadtest123"));
+        driver.prepare();
+        driver.run(Double.parseDouble(args[1]), Duration.ofSeconds(Long.parseLong(args[2])));
+        String report = System.getProperty("report");
+        if (report != null) {
+            Files.writeString(Path.of(report), driver.json(Double.parseDouble(args[1]), Long.parseLong(args[2])));
+        }
+        System.exit(0);
+    }
+
+    OpenLoopDriver(String baseUrl, int users, String password) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.password = password;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(16))
+                .build();
+
+        endpoint("list", 30, (r, token) -> get("/api/issues/paginated?size=20&page=" + r.nextInt(50), token));
+        endpoint("get", 20, (r, token) -> get("/api/issues/" + randomIssue(r), token));
+        endpoint("query", 10, (r, token) -> get("/api/issues/query?size=20&status=" + STATUSES[r.nextInt(STATUSES.length)]
+                + "&priority=" + PRIORITIES[r.nextInt(PRIORITIES.length)], token));
+        endpoint("labels", 4, (r, token) -> get("/api/issues/query?size=20&labels=component:"
+                + WORDS[r.nextInt(WORDS.length)] + "%20AND%20NOT%20customer:" + (1 + r.nextInt(100)), token));
+        endpoint("search", 8, (r, token) -> get("/api/issues/search?size=20&q=" + WORDS[r.nextInt(WORDS.length)], token));
+        endpoint("inbox", 10, (r, token) -> get("/api/issues/inbox/assigned?size=20", token));
+        endpoint("comments", 7, (r, token) -> get("/api/issues/" + randomIssue(r) + "/comments", token));
+        endpoint("comment", 7, (r, token) -> post("/api/issues/" + randomIssue(r) + "/comments", token,
+                "{\"content\":\"Reproduced with " + WORDS[r.nextInt(WORDS.length)] + " under load\"}"));
+        endpoint("analytics", 2, (r, token) -> get("/api/analytics", token));
+        endpoint("login", 3, (r, token) -> post("/api/auth/login", null,
+                "{\"username\":\"user" + (1 + r.nextInt(users)) + "\",\"password\":\"" + password + "\"}"));
+        endpoint("upload", 3, (r, token) -> upload("/api/issues/" + randomIssue(r) + "/attachments", token, r));
+    }
+
+    /** Logs in the user pool and discovers the size of the dataset. */
+    void prepare() throws Exception {
+        for (int i = 1; i <= users; i++) {
+            HttpResponse<String> response = httpClient.send(post("/api/auth/login", null,
+                    "{\"username\":\"user" + i + "\",\"password\":\"" + password + "\"}"), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = TOKEN.matcher(response.body());
+            if (response.statusCode() != 200 || !matcher.find()) {
+                throw new IllegalStateException("Login failed for user" + i + ": " + response.statusCode() + " " + response.body());
+            }
+            tokens.add(matcher.group(1));
+        }
+        HttpResponse<String> page = httpClient.send(get("/api/issues/paginated?size=1", tokens.get(0)),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOTAL.matcher(page.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Could not read the issue count: " + page.body());
+        }
+        issueCount = Long.parseLong(matcher.group(1));
+        System.out.printf("users=%d issues=%d%n", tokens.size(), issueCount);
+    }
+
+    void run(double rate, Duration duration) throws InterruptedException {
+        Random random = new Random(7);
+        long intervalNanos = (long) (1_000_000_000L / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        recording = true;
+
+        for (long n = 0; ; n++) {
+            long scheduled = start + n * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = pick(random);
+            if (inFlight.get() >= MAX_IN_FLIGHT) {
+                endpoint.outcome("dropped");
+                continue;
+            }
+            HttpRequest request = endpoint.factory.create(random, tokens.get(random.nextInt(tokens.size())));
+            inFlight.incrementAndGet();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        inFlight.decrementAndGet();
+                        if (recording) {
+                            endpoint.record(System.nanoTime() - scheduled,
+                                    error == null ? String.valueOf(response.statusCode()) : error.getClass().getSimpleName());
+                        }
+                        return null;
+                    });
+        }
+
+        // Let stragglers finish, then stop recording so late completions don't skew the results
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        recording = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("target=%.0f req/s duration=%ds in-flight-at-end=%d%n", rate, duration.toSeconds(), inFlight.get());
+        System.out.printf("%-10s %8s %9s %9s %9s %9s %9s  %s%n", "endpoint", "requests", "req/s", "p50 ms", "p90 ms",
+                "p99 ms", "max ms", "outcomes");
+        Endpoint all = new Endpoint("all", 0, null);
+        for (Endpoint endpoint : endpoints.values()) {
+            endpoint.print(seconds);
+            all.merge(endpoint);
+        }
+        all.print(seconds);
+    }
+
+    String json(double rate, long seconds) {
+        StringBuilder json = new StringBuilder("{\"targetRate\":").append(rate).append(",\"seconds\":").append(seconds)
+                .append(",\"issues\":").append(issueCount).append(",\"endpoints\":{");
+        String separator = "";
+        for (Endpoint endpoint : endpoints.values()) {
+            long[] sorted = endpoint.sorted();
+            json.append(separator).append('"').append(endpoint.name).append("\":{\"requests\":").append(sorted.length)
+                    .append(",\"throughput\":").append(String.format("%.2f", sorted.length / (double) seconds))
+                    .append(",\"p50\":").append(jsonNumber(percentile(sorted, 0.50)))
+                    .append(",\"p90\":").append(jsonNumber(percentile(sorted, 0.90)))
+                    .append(",\"p99\":").append(jsonNumber(percentile(sorted, 0.99)))
+                    .append(",\"max\":").append(jsonNumber(percentile(sorted, 1.0)))
+                    .append(",\"outcomes\":{");
+            String outcomeSeparator = "";
+            for (Map.Entry<String, Long> outcome : endpoint.outcomes.entrySet()) {
+                json.append(outcomeSeparator).append('"').append(outcome.getKey()).append("\":").append(outcome.getValue());
+                outcomeSeparator = ",";
+            }
+            json.append("}}");
+            separator = ",";
+        }
+        return json.append("}}\n").toString();
+    }
+
+    private void endpoint(String name, int weight, RequestFactory factory) {
+        endpoints.put(name, new Endpoint(name, weight, factory));
+        totalWeight += weight;
+    }
+
+    private Endpoint pick(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private long randomIssue(Random random) {
+        return 1 + (long) (random.nextDouble() * issueCount);
+    }
+
+    private HttpRequest get(String path, String token) {
+        return builder(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, String json) {
+        return builder(path, token).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest upload(String path, String token, Random random) {
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"loadtest.log\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + ("2024-06-01 10:00:00 WARN " + WORDS[random.nextInt(WORDS.length)] + " slow\n").repeat(200)
+                + "\r\n--" + BOUNDARY + "--\r\n";
+        return builder(path, token).header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8)).build();
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest create(Random random, String token);
+    }
+
+    private static final class Endpoint {
+        final String name;
+        final int weight;
+        final RequestFactory factory;
+        final Map<String, Long> outcomes = new TreeMap<>();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        Endpoint(String name, int weight, RequestFactory factory) {
+            this.name = name;
+            this.weight = weight;
+            this.factory = factory;
+        }
+
+        synchronized void record(long latencyNanos, String outcome) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            outcomes.merge(outcome, 1L, Long::sum);
+        }
+
+        synchronized void outcome(String outcome) {
+            outcomes.merge(outcome, 1L, Long::sum);
+        }
+
+        synchronized void merge(Endpoint other) {
+            for (long latency : other.sorted()) {
+                record(latency, "");
+            }
+            other.outcomes.forEach((outcome, n) -> outcomes.merge(outcome, n, Long::sum));
+            outcomes.remove("");
+        }
+
+        synchronized long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        void print(double seconds) {
+            long[] sorted = sorted();
+            System.out.printf("%-10s %8d %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n", name, sorted.length,
+                    sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), percentile(sorted, 1.0), outcomes);
+        }
+    }
+
+    private static String jsonNumber(double value) {
+        return Double.isNaN(value) ? "null" : String.format("%.3f", value);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,68 @@
+#!/bin/bash
+
+# Compares request handling on platform threads against virtual threads under the same load.
+#
+# Needs a Java 21 runtime, a jar built with `mvn -Pjava21 package`, and a PostgreSQL database
+# reachable through DATABASE_URL / DATABASE_USERNAME / DATABASE_PASSWORD.
+#
+# Adaptive concurrency is switched off in every run: it sheds load on latency, so with it on the
+# runs would differ in how many requests were turned away rather than in how threads handle them.
+#
+# Usage: scripts/compare-thread-modes.sh [clients] [seconds]
+
+set -e
+
+CLIENTS=${1:-400}
+SECONDS_PER_RUN=${2:-30}
+PORT=${PORT:-18080}
+BASE_URL="http://localhost:$PORT"
+JAR=${JAR:-$(ls target/issue-tracker-*.jar | head -1)}
+SCRIPT_DIR=$(cd "$(dirname "$0")" && pwd)
+
+run_mode() {
+    local name=$1
+    local virtual=$2
+    local limit=$3
+
+    echo "=== $name (virtual threads: $virtual, db limit: $limit, adaptive concurrency: false) ==="
+    VIRTUAL_THREADS_ENABLED=$virtual DB_CONCURRENCY_LIMIT_ENABLED=$limit ADAPTIVE_CONCURRENCY_ENABLED=false PORT=$PORT \
+        java -Xmx512m -jar "$JAR" --logging.level.root=WARN --logging.level.com.issuetracker=WARN \
+        --logging.level.org.springframework.security=WARN > "target/thread-mode-$name.log" 2>&1 &
+    local pid=$!
+
+    for i in {1..60}; do
+        if curl -s "$BASE_URL/api/health" > /dev/null; then
+            break
+        fi
+        if [ $i -eq 60 ]; then
+            echo "Application failed to start, see target/thread-mode-$name.log"
+            kill $pid
+            exit 1
+        fi
+        sleep 1
+    done
+
+    curl -s -X POST "$BASE_URL/api/auth/register" -H 'Content-Type: application/json' \
+        -d '{"username":"loadtest","email":"loadtest@example.com","password":"loadtest123","fullName":"Load Test"}' > /dev/null || true
+    local token
+    token=$(curl -s -X POST "$BASE_URL/api/auth/login" -H 'Content-Type: application/json' \
+        -d '{"username":"loadtest","password":"loadtest123"}' | sed -E 's/.*"token":"([^"]+)".*/\1/')
+
+    local issue_id
+    issue_id=$(curl -s -X POST "$BASE_URL/api/issues" -H "Authorization: Bearer $token" \
+        -H 'Content-Type: application/json' -d '{"title":"Load test issue","priority":"HIGH"}' \
+        | sed -E 's/^\{"id":([0-9]+).*/\1/')
+
+    # Warm up, then measure
+    java "$SCRIPT_DIR/LoadDriver.java" "$BASE_URL" "$token" 20 5 "/api/issues/$issue_id" > /dev/null
+    java "$SCRIPT_DIR/LoadDriver.java" "$BASE_URL" "$token" "$CLIENTS" "$SECONDS_PER_RUN" \
+        "/api/issues/paginated?size=20" "/api/issues/$issue_id" "/api/issues/inbox/reported?size=20"
+
+    kill $pid
+    wait $pid 2> /dev/null || true
+    echo
+}
+
+run_mode platform false false
+run_mode virtual true true
+run_mode virtual-unlimited true false
@@ -0,0 +1,48 @@
+#!/bin/bash
+
+# Boots the application on the self-contained loadtest profile (file-based H2, seeded on first
+# start) and drives a mixed, open-loop workload against it with OpenLoopDriver.
+#
+# The first start generates the dataset, which takes a few minutes at the default size. It is kept
+# in target/loadtest and reused by later runs; delete that directory to regenerate it. Dataset
+# size is set with LOADTEST_USERS / LOADTEST_ISSUES / LOADTEST_COMMENTS / LOADTEST_ATTACHMENTS.
+#
+# Usage: scripts/loadtest.sh [requests-per-second] [seconds]
+
+set -e
+
+RATE=${1:-200}
+SECONDS_PER_RUN=${2:-60}
+PORT=${PORT:-18080}
+BASE_URL="http://localhost:$PORT"
+SCRIPT_DIR=$(cd "$(dirname "$0")" && pwd)
+OUT=target/loadtest
+
+if [ -z "$JAR" ]; then
+    mvn -B -q -Ploadtest -DskipTests package
+    JAR=$(ls target/loadtest-build/issue-tracker-*-loadtest.jar | head -1)
+fi
+mkdir -p "$OUT"
+
+PORT=$PORT java ${JAVA_OPTS:--Xmx1g} -jar "$JAR" --spring.profiles.active=loadtest \
+    --logging.level.root=WARN --logging.level.com.issuetracker=INFO \
+    --logging.level.org.springframework.security=WARN > "$OUT/app.log" 2>&1 &
+PID=$!
+trap 'kill $PID 2> /dev/null; wait $PID 2> /dev/null || true' EXIT
+
+echo "Waiting for the application (seeding on first start, see $OUT/app.log)..."
+for i in {1..1800}; do
+    if curl -sf "$BASE_URL/actuator/health/readiness" > /dev/null; then
+        break
+    fi
+    if ! kill -0 $PID 2> /dev/null || [ $i -eq 1800 ]; then
+        echo "Application failed to start, see $OUT/app.log"
+        exit 1
+    fi
+    sleep 1
+done
+
+# Warm up the JIT and caches at a fraction of the rate, then measure
+java "$SCRIPT_DIR/OpenLoopDriver.java" "$BASE_URL" $(( RATE / 4 + 1 )) 15 > /dev/null
+java -Dreport="$OUT/report.json" "$SCRIPT_DIR/OpenLoopDriver.java" "$BASE_URL" "$RATE" "$SECONDS_PER_RUN"
+echo "Report written to $OUT/report.json"
@@ -0,0 +1,73 @@
+package com.issuetracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.issuetracker.dto.IssueFields;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.User;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fixtures shared by the benchmarks, shaped like production rows: a few hundred characters of
+ * description, about a third of issues unassigned.
+ */
+public final class BenchmarkData {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    private BenchmarkData() {
+    }
+
+    public static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5Z1bC1k3uJ0pQmG6zR0qYxW");
+        user.setFullName("User Number " + id);
+        user.setRoles(Set.of("USER"));
+        user.setCreatedAt(BASE);
+        user.setUpdatedAt(BASE);
+        return user;
+    }
+
+    public static List<Issue> issues(int count) {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            users.add(user(id));
+        }
+        Issue.IssueStatus[] statuses = Issue.IssueStatus.values();
+        Issue.IssuePriority[] priorities = Issue.IssuePriority.values();
+
+        List<Issue> issues = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Issue issue = new Issue();
+            issue.setId((long) i + 1);
+            issue.setTitle("Login page returns 500 when the session cookie is stale #" + i);
+            issue.setDescription("Steps to reproduce: sign in, wait for the session to expire, reload the "
+                    + "dashboard. Expected a redirect to the login page; got an error page instead. "
+                    + "Seen in Chrome and Firefox, not in Safari. Logs show a NullPointerException in the "
+                    + "session filter around the time of the request.");
+            issue.setStatus(statuses[i % statuses.length]);
+            issue.setPriority(priorities[i % priorities.length]);
+            issue.setReporter(users.get(i % users.size()));
+            issue.setAssignee(i % 3 == 0 ? null : users.get((i + 1) % users.size()));
+            issue.setCreatedAt(BASE.plusMinutes(i));
+            issue.setUpdatedAt(BASE.plusMinutes(i + 5));
+            issues.add(issue);
+        }
+        return issues;
+    }
+
+    /** Configured like the application's mapper (ISO dates, no timestamps). */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .filters(IssueFields.defaultFilters())
+                .build();
+    }
+}
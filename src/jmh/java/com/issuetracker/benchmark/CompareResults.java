@@ -0,0 +1,76 @@
+package com.issuetracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints the change in score of every benchmark between two JMH JSON result files and exits
+ * with status 1 if any benchmark got slower than the threshold (default 10%) beyond its error.
+ *
+ * <pre>
+ *   CompareResults &lt;baseline.json&gt; &lt;current.json&gt; [threshold-percent]
+ * </pre>
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        boolean regressed = false;
+        System.out.printf("%-90s %14s %14s %8s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue().get("primaryMetric");
+            JsonNode before = baseline.containsKey(entry.getKey()) ? baseline.get(entry.getKey()).get("primaryMetric") : null;
+            String unit = now.get("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %8s  %s%n", entry.getKey(), "-", now.get("score").asDouble(), "new", unit);
+                continue;
+            }
+            double oldScore = before.get("score").asDouble();
+            double newScore = now.get("score").asDouble();
+            double change = (newScore - oldScore) / oldScore;
+            // Throughput modes report ops per time unit, where lower is worse
+            boolean higherIsBetter = unit.startsWith("ops/");
+            double slowdown = higherIsBetter ? -change : change;
+            double noise = (errorOf(before) + errorOf(now)) / oldScore;
+            boolean worse = slowdown > threshold && slowdown > noise;
+            regressed |= worse;
+            System.out.printf("%-90s %14.3f %14.3f %+7.1f%%  %s%s%n", entry.getKey(), oldScore, newScore,
+                    change * 100, unit, worse ? "  REGRESSION" : "");
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param ->
+                        key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double errorOf(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
@@ -0,0 +1,45 @@
+package com.issuetracker.exception;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an error response: building the body alone, and together with the exception (whose
+ * stack trace capture usually dominates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final RuntimeException notFound = new RuntimeException("Issue not found");
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> handleRuntimeException() {
+        return handler.handleRuntimeException(notFound);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> throwAndHandle() {
+        return handler.handleRuntimeException(new RuntimeException("Issue not found"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> handleConflict() {
+        return handler.handleConflict(new ConflictException("Username is already taken"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.issuetracker.monitoring;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One prepared query the way Hibernate issues it (prepare, bind, execute, read every row, close),
+ * against in-memory H2 directly and through {@link ProfilingDataSource} inside a request.
+ * {@code profiled - plain} is the profiling overhead per statement, which must stay under a
+ * microsecond; it grows with the row count because every {@code next()} is counted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfilingDataSourceBenchmark {
+    private static final String QUERY = "SELECT id, title FROM issues WHERE id <= ? ORDER BY id";
+
+    @Param({"1", "20", "100"})
+    private int rows;
+
+    private Connection plain;
+    private Connection profiled;
+
+    @Setup
+    public void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:profiling;DB_CLOSE_DELAY=-1");
+        plain = h2.getConnection();
+        try (Statement statement = plain.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS issues (id BIGINT PRIMARY KEY, title VARCHAR(255))");
+            statement.execute("MERGE INTO issues SELECT x, 'Issue ' || x FROM SYSTEM_RANGE(1, 100)");
+        }
+        // Whether to profile is decided when the connection is borrowed, as it is for a request
+        RequestProfile.begin();
+        profiled = new ProfilingDataSource(h2).getConnection();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        RequestProfile.end();
+        profiled.close();
+        plain.close();
+    }
+
+    @Benchmark
+    public long plain() throws SQLException {
+        return query(plain);
+    }
+
+    @Benchmark
+    public long profiled() throws SQLException {
+        return query(profiled);
+    }
+
+    private long query(Connection connection) throws SQLException {
+        long sum = 0;
+        try (PreparedStatement statement = connection.prepareStatement(QUERY)) {
+            statement.setLong(1, rows);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    sum += resultSet.getLong(1) + resultSet.getString(2).length();
+                }
+            }
+        }
+        return sum;
+    }
+}
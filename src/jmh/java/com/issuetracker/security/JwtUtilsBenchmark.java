@@ -0,0 +1,59 @@
+package com.issuetracker.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work done on every authenticated request (validate + parse) and on every login (generate).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "benchmark-secret-key-for-hmac-sha-signing-at-least-256-bits-long");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86_400_000L);
+        token = jwtUtils.generateJwtToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken("benchmark-user");
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String parseUsername() {
+        return jwtUtils.getUsernameFromJwtToken(token);
+    }
+
+    /** What {@code AuthTokenFilter} does per request. */
+    @Benchmark
+    public String validateThenParse() {
+        return jwtUtils.validateJwtToken(token) ? jwtUtils.getUsernameFromJwtToken(token) : null;
+    }
+}
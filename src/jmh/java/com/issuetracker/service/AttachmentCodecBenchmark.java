@@ -0,0 +1,74 @@
+package com.issuetracker.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compression at rest of an 8 MiB application log with stack traces, the typical text upload.
+ * Divide 8 MiB by the score for MiB/s; the stored size is printed once at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttachmentCodecBenchmark {
+    private static final int CORPUS_SIZE = 8 * 1024 * 1024;
+
+    private final AttachmentCodec codec = new AttachmentCodec();
+    private byte[] corpus;
+    private Path directory;
+    private Path compressed;
+    private Path target;
+
+    @Setup
+    public void setUp() throws IOException {
+        ReflectionTestUtils.setField(codec, "enabled", true);
+        ReflectionTestUtils.setField(codec, "minSize", 1024L);
+        corpus = AttachmentCodecTest.logCorpus(CORPUS_SIZE);
+        directory = Files.createTempDirectory("codec-benchmark");
+        compressed = directory.resolve("corpus.log.gz");
+        target = directory.resolve("target.log.gz");
+        long storedSize = codec.compress(new ByteArrayInputStream(corpus), compressed);
+        System.out.printf("Log corpus: %d KiB -> %d KiB (ratio %.1f)%n",
+                corpus.length / 1024, storedSize / 1024, (double) corpus.length / storedSize);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(compressed);
+        Files.deleteIfExists(target);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long compress() throws IOException {
+        return codec.compress(new ByteArrayInputStream(corpus), target);
+    }
+
+    @Benchmark
+    public long decompress() throws IOException {
+        try (InputStream in = codec.open(compressed, AttachmentCodec.GZIP)) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.issuetracker.service;
+
+import com.issuetracker.benchmark.BenchmarkData;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.PageResponse;
+import com.issuetracker.model.Issue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IssueMappingBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    // Mapping touches none of the collaborators
+    private final IssueService issueService = new IssueService(null, null, null, null, null, null, null, null, null);
+    private Issue issue;
+    private Page<Issue> page;
+
+    @Setup
+    public void setUp() {
+        List<Issue> issues = BenchmarkData.issues(size);
+        issue = issues.get(1);
+        page = new PageImpl<>(issues, PageRequest.of(0, size), size * 10L);
+    }
+
+    @Benchmark
+    public IssueResponse mapToResponse() {
+        return issueService.mapToResponse(issue);
+    }
+
+    @Benchmark
+    public PageResponse<IssueResponse> mapToPageResponse() {
+        return issueService.mapToPageResponse(page);
+    }
+}
@@ -0,0 +1,62 @@
+package com.issuetracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.issuetracker.benchmark.BenchmarkData;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.PageResponse;
+import com.issuetracker.model.Issue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the issue payloads, with the mapper configured as in the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private IssueResponse issue;
+    private PageResponse<IssueResponse> page;
+
+    @Setup
+    public void setUp() {
+        writer = BenchmarkData.objectMapper().writer();
+        IssueService issueService = new IssueService(null, null, null, null, null, null, null, null, null);
+        List<Issue> issues = BenchmarkData.issues(size);
+        issue = issueService.mapToResponse(issues.get(1));
+        page = issueService.mapToPageResponse(new PageImpl<>(issues, PageRequest.of(0, size), size * 10L));
+    }
+
+    @Benchmark
+    public byte[] issueResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(issue);
+    }
+
+    @Benchmark
+    public byte[] pageResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,276 @@
+package com.issuetracker.loadtest;
+
+import com.issuetracker.service.IssueActivityRepairJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bulk-generates the load-test dataset with batched JDBC inserts, bypassing JPA. The data is
+ * deterministic for a given {@code loadtest.seed.random-seed}, so runs against a fresh database
+ * are comparable. Seeding is skipped when issues already exist; delete the database directory to
+ * regenerate.
+ *
+ * <p>Users are {@code user1..userN}, all with the same password. Ids start at 1 and are
+ * contiguous, which the load driver relies on to pick random issues.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDataSeeder.class);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int CHUNK_SIZE = 20_000;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    // Kept in sync with the search terms in scripts/OpenLoopDriver.java
+    static final String[] WORDS = {"login", "timeout", "crash", "dashboard", "export", "payment", "upload",
+            "session", "search", "notification", "report", "cache", "email", "mobile", "permission", "import"};
+    private static final String[] STATUSES = {"OPEN", "OPEN", "OPEN", "IN_PROGRESS", "IN_PROGRESS", "RESOLVED",
+            "RESOLVED", "CLOSED", "CLOSED", "REOPENED"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "MEDIUM", "HIGH", "CRITICAL"};
+    // Label names are component:<word>, customer:1..CUSTOMERS and version:1..VERSIONS, in that id order;
+    // kept in sync with scripts/OpenLoopDriver.java
+    static final int CUSTOMERS = 100;
+    static final int VERSIONS = 20;
+
+    // H2 equivalents of the indexes in db/migration/V2__query_indexes.sql and later. H2 does not scan an
+    // index backwards, so the descending orders used by the API are declared explicitly.
+    private static final String[] INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_issues_created ON issues (created_at DESC, id DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_issues_updated ON issues (updated_at DESC, id DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_issues_last_activity ON issues (last_activity_at DESC, id DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_issues_status_created ON issues (status, created_at DESC, id DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_issues_priority_created ON issues (priority, created_at DESC, id DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_issues_reporter_created ON issues (reporter_id, created_at DESC, id DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_issues_assignee_created ON issues (assignee_id, created_at DESC, id DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_issues_resolved_at ON issues (resolved_at)",
+            "CREATE INDEX IF NOT EXISTS idx_comments_issue_created ON comments (issue_id, created_at DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_attachments_issue_uploaded ON attachments (issue_id, uploaded_at DESC)",
+            "CREATE INDEX IF NOT EXISTS idx_issue_labels_label ON issue_labels (label_id, issue_id)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final IssueActivityRepairJob activityRepairJob;
+
+    @Value("${loadtest.seed.users:1000}")
+    private int users;
+
+    @Value("${loadtest.seed.issues:1000000}")
+    private int issues;
+
+    @Value("${loadtest.seed.comments:500000}")
+    private int comments;
+
+    @Value("${loadtest.seed.attachments:10000}")
+    private int attachments;
+
+    @Value("${loadtest.seed.password:loadtest123}")
+    private String password;
+
+    @Value("${loadtest.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${file.upload.dir:uploads}")
+    private String uploadDir;
+
+    public LoadTestDataSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+                              IssueActivityRepairJob activityRepairJob) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.activityRepairJob = activityRepairJob;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM issues", Long.class);
+        boolean seeded = existing == null || existing == 0;
+        if (!seeded) {
+            logger.info("Reusing existing load-test dataset with {} issues", existing);
+        } else {
+            long start = System.nanoTime();
+            Random random = new Random(randomSeed);
+            seedUsers();
+            seedIssues(random);
+            seedComments(random);
+            seedAttachments(random);
+            int labeled = seedLabels(random);
+            logger.info("Seeded {} users, {} issues, {} comments, {} attachments, {} issue labels in {} s", users,
+                    issues, comments, attachments, labeled, (System.nanoTime() - start) / 1_000_000_000);
+        }
+
+        // Built after loading, which is much faster than maintaining them row by row
+        for (String index : INDEXES) {
+            jdbcTemplate.execute(index);
+        }
+        if (seeded) {
+            // Issues are inserted with zero counters; the repair job fills them in, and its
+            // timing on a full table shows up in the log
+            activityRepairJob.repairAll();
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void seedUsers() {
+        // One bcrypt hash for everyone; hashing a million passwords would dominate seeding
+        String hash = passwordEncoder.encode(password);
+        Timestamp created = Timestamp.valueOf(NOW.minusYears(3));
+        insertInChunks("INSERT INTO users (username, email, password, full_name, active, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, TRUE, ?, ?)", users, (ps, i) -> {
+            long id = i + 1;
+            ps.setString(1, "user" + id);
+            ps.setString(2, "user" + id + "@example.com");
+            ps.setString(3, hash);
+            ps.setString(4, "Load Test User " + id);
+            ps.setTimestamp(5, created);
+            ps.setTimestamp(6, created);
+        });
+        insertInChunks("INSERT INTO user_roles (user_id, role) VALUES (?, 'USER')", users,
+                (ps, i) -> ps.setLong(1, i + 1));
+    }
+
+    private void seedIssues(Random random) {
+        long spanMinutes = 2L * 365 * 24 * 60;
+        insertInChunks("INSERT INTO issues (title, description, status, priority, reporter_id, assignee_id, "
+                + "resolved_at, created_at, updated_at, last_activity_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                issues, (ps, i) -> {
+            // Increasing creation times, like real traffic
+            LocalDateTime created = NOW.minusMinutes(spanMinutes - spanMinutes * i / issues);
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            String a = WORDS[random.nextInt(WORDS.length)];
+            String b = WORDS[random.nextInt(WORDS.length)];
+            ps.setString(1, "Problem with " + a + " when using " + b + " #" + (i + 1));
+            ps.setString(2, "Steps: open the " + a + " page, trigger " + b + ". Expected the " + a
+                    + " to complete; instead it fails intermittently with an error. Seen on build "
+                    + random.nextInt(1000) + ".");
+            ps.setString(3, status);
+            ps.setString(4, PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            ps.setLong(5, 1 + random.nextInt(users));
+            if (random.nextInt(3) == 0) {
+                ps.setNull(6, java.sql.Types.BIGINT);
+            } else {
+                ps.setLong(6, 1 + random.nextInt(users));
+            }
+            LocalDateTime updated = created.plusMinutes(random.nextInt(7 * 24 * 60));
+            ps.setTimestamp(7, "RESOLVED".equals(status) ? Timestamp.valueOf(updated) : null);
+            ps.setTimestamp(8, Timestamp.valueOf(created));
+            ps.setTimestamp(9, Timestamp.valueOf(updated));
+            ps.setTimestamp(10, Timestamp.valueOf(updated));
+        });
+    }
+
+    private void seedComments(Random random) {
+        insertInChunks("INSERT INTO comments (content, issue_id, author_id, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?)", comments, (ps, i) -> {
+            Timestamp created = Timestamp.valueOf(NOW.minusMinutes(random.nextInt(365 * 24 * 60)));
+            ps.setString(1, "Also seeing this with " + WORDS[random.nextInt(WORDS.length)] + ", attaching logs.");
+            ps.setLong(2, 1 + random.nextInt(issues));
+            ps.setLong(3, 1 + random.nextInt(users));
+            ps.setTimestamp(4, created);
+            ps.setTimestamp(5, created);
+        });
+    }
+
+    private void seedAttachments(Random random) throws IOException {
+        // Every attachment row points at the same small file, enough to exercise downloads
+        Path directory = Paths.get(uploadDir);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("loadtest-sample.log");
+        byte[] content = "2024-06-01 10:00:00 ERROR request failed\n".repeat(100).getBytes(StandardCharsets.UTF_8);
+        Files.write(file, content);
+
+        insertInChunks("INSERT INTO attachments (filename, original_filename, content_type, file_size, stored_size, "
+                + "file_path, issue_id, uploaded_by, uploaded_at) VALUES (?, ?, 'text/plain', ?, ?, ?, ?, ?, ?)",
+                attachments, (ps, i) -> {
+            ps.setString(1, file.getFileName().toString());
+            ps.setString(2, "server-" + (i + 1) + ".log");
+            ps.setLong(3, content.length);
+            ps.setLong(4, content.length);
+            ps.setString(5, file.toString());
+            ps.setLong(6, 1 + random.nextInt(issues));
+            ps.setLong(7, 1 + random.nextInt(users));
+            ps.setTimestamp(8, Timestamp.valueOf(NOW.minusMinutes(random.nextInt(365 * 24 * 60))));
+        });
+    }
+
+    // Zero to three distinct labels per issue; returns the number of issue_labels rows
+    private int seedLabels(Random random) {
+        List<String> names = new ArrayList<>();
+        for (String word : WORDS) {
+            names.add("component:" + word);
+        }
+        for (int i = 1; i <= CUSTOMERS; i++) {
+            names.add("customer:" + i);
+        }
+        for (int i = 1; i <= VERSIONS; i++) {
+            names.add("version:" + i);
+        }
+        Timestamp created = Timestamp.valueOf(NOW.minusYears(3));
+        insertInChunks("INSERT INTO labels (name, created_at) VALUES (?, ?)", names.size(), (ps, i) -> {
+            ps.setString(1, names.get(i));
+            ps.setTimestamp(2, created);
+        });
+
+        int[] issueIds = new int[issues * 3];
+        int[] labelIds = new int[issues * 3];
+        int rows = 0;
+        for (int issue = 1; issue <= issues; issue++) {
+            int first = rows;
+            for (int n = random.nextInt(4); n > 0; n--) {
+                int label = 1 + random.nextInt(names.size());
+                boolean duplicate = false;
+                for (int j = first; j < rows; j++) {
+                    duplicate |= labelIds[j] == label;
+                }
+                if (!duplicate) {
+                    issueIds[rows] = issue;
+                    labelIds[rows++] = label;
+                }
+            }
+        }
+        insertInChunks("INSERT INTO issue_labels (issue_id, label_id) VALUES (?, ?)", rows, (ps, i) -> {
+            ps.setLong(1, issueIds[i]);
+            ps.setLong(2, labelIds[i]);
+        });
+        return rows;
+    }
+
+    private void insertInChunks(String sql, int count, RowSetter setter) {
+        List<Integer> rows = new ArrayList<>(CHUNK_SIZE);
+        for (int chunkStart = 0; chunkStart < count; chunkStart += CHUNK_SIZE) {
+            rows.clear();
+            for (int i = chunkStart; i < Math.min(count, chunkStart + CHUNK_SIZE); i++) {
+                rows.add(i);
+            }
+            jdbcTemplate.batchUpdate(sql, rows, BATCH_SIZE, setter::set);
+            if ((chunkStart / CHUNK_SIZE) % 25 == 24) {
+                logger.info("{}: {} of {} rows", sql.substring(12, sql.indexOf(' ', 12)), chunkStart + CHUNK_SIZE, count);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, int row) throws SQLException;
+    }
+}
@@ -0,0 +1,318 @@
+package com.issuetracker.cache;
+
+import com.issuetracker.event.RemoteEntityChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Keeps the second-level cache consistent across instances with PostgreSQL LISTEN/NOTIFY.
+ *
+ * <p>Every insert, update or delete of a cached entity or collection sends
+ * {@code pg_notify(channel, "<node>|<kind>|<name>|<id>")} on the writing connection, so the
+ * notification is delivered exactly when (and only if) the transaction commits. Each instance
+ * listens on a dedicated connection outside the pool and evicts the entry, and invalidates the
+ * cached query results reading its table, when another instance changed it. After (re)connecting the listener evicts everything,
+ * since notifications sent while it was away are lost. Inactive unless the database is PostgreSQL.
+ *
+ * <p>Bulk {@code UPDATE} statements skip the entity listeners; whoever runs one on a cached
+ * entity announces it with {@link #publishUpdate}, or {@link #evictUpdated} for a single row.
+ * Other in-memory state derived from the database follows along through the
+ * {@link RemoteEntityChangedEvent}s published for each notification applied.
+ */
+@Component
+public class CacheInvalidationBroadcaster implements SmartLifecycle, PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBroadcaster.class);
+
+    static final String ENTITY = "entity";
+    static final String COLLECTION = "collection";
+    static final String ALL = "*";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final SessionFactoryImplementor sessionFactory;
+    private final EntityManager entityManager;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean active;
+    private final String channel;
+    private final long reconnectDelayMillis;
+
+    private volatile boolean running;
+    private volatile Connection listenerConnection;
+    private Thread listenerThread;
+
+    public CacheInvalidationBroadcaster(EntityManagerFactory entityManagerFactory,
+                                        EntityManager entityManager,
+                                        DataSourceProperties dataSourceProperties,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${l2-cache.enabled:true}") boolean cacheEnabled,
+                                        @Value("${l2-cache.invalidation.enabled:true}") boolean invalidationEnabled,
+                                        @Value("${l2-cache.invalidation.channel:l2_cache_invalidation}") String channel,
+                                        @Value("${l2-cache.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMillis) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.entityManager = entityManager;
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.active = cacheEnabled && invalidationEnabled
+                && dataSourceProperties.determineUrl() != null
+                && dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:");
+        this.channel = channel;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    @Override
+    public void start() {
+        if (!active) {
+            return;
+        }
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_INSERT, this);
+        listeners.appendListeners(EventType.POST_UPDATE, this);
+        listeners.appendListeners(EventType.POST_DELETE, this);
+        listeners.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        listeners.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+
+        running = true;
+        listenerThread = new Thread(this::listen, "l2-cache-invalidation");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Connection connection = listenerConnection;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.debug("Closing the cache invalidation listener failed", e);
+            }
+        }
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publishEntity(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publishEntity(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publishEntity(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        publishCollection(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        publishCollection(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        publishCollection(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Tells the other instances that a bulk update changed the row {@code id} of
+     * {@code entityType}, or any number of its rows if {@code id} is null. Must run inside the
+     * transaction that made the change.
+     */
+    public void publishUpdate(Class<?> entityType, Object id) {
+        if (active) {
+            notify(entityManager.unwrap(Session.class), ENTITY, entityType.getName(), id != null ? id : ALL);
+        }
+    }
+
+    /**
+     * Evicts the row {@code id} of {@code entityType} after a statement Hibernate doesn't track
+     * changed it in place (see {@code IssueRepository.IN_PLACE_SPACE}): here right away and again
+     * after commit, so a concurrent load of the old row can't stay cached, and on the other
+     * instances through {@link #publishUpdate}. Must run inside the transaction that made the change.
+     */
+    public void evictUpdated(Class<?> entityType, Object id) {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(entityType, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evictEntityData(entityType, id);
+                }
+            });
+        }
+        publishUpdate(entityType, id);
+    }
+
+    private void publishEntity(EventSource session, EntityPersister persister, Object id) {
+        if (persister.canWriteToCache()) {
+            notify(session, ENTITY, persister.getEntityName(), id);
+        }
+    }
+
+    private void publishCollection(AbstractCollectionEvent event) {
+        Object ownerId = event.getAffectedOwnerIdOrNull();
+        if (ownerId != null && event.getCollection().getRole() != null
+                && sessionFactory.getMappingMetamodel().getCollectionDescriptor(event.getCollection().getRole()).hasCache()) {
+            notify(event.getSession(), COLLECTION, event.getCollection().getRole(), ownerId);
+        }
+    }
+
+    private void notify(Session session, String kind, String name, Object id) {
+        String payload = nodeId + "|" + kind + "|" + name + "|" + id;
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        });
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                listenerConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                // Anything may have changed while we were not listening
+                evictAll();
+                logger.info("Listening for second-level cache invalidations on channel {}", channel);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Cache invalidation listener disconnected, evicting everything and retrying in {} ms: {}",
+                        reconnectDelayMillis, e.getMessage());
+                evictAll();
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                listenerConnection = null;
+            }
+        }
+    }
+
+    /**
+     * Applies one notification payload. Package-private for tests.
+     */
+    void handle(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4 || parts[0].equals(nodeId)) {
+            return;
+        }
+        Cache cache = sessionFactory.getCache();
+        Long id = ALL.equals(parts[3]) ? null : Long.valueOf(parts[3]);
+        String[] spaces;
+        if (ENTITY.equals(parts[1])) {
+            if (id == null) {
+                cache.evictEntityData(parts[2]);
+            } else {
+                cache.evictEntityData(parts[2], id);
+            }
+            spaces = sessionFactory.getMappingMetamodel().getEntityDescriptor(parts[2]).getPropertySpaces();
+        } else if (COLLECTION.equals(parts[1])) {
+            cache.evictCollectionData(parts[2], id);
+            spaces = sessionFactory.getMappingMetamodel().getCollectionDescriptor(parts[2]).getCollectionSpaces();
+        } else {
+            return;
+        }
+        invalidateQuerySpaces(spaces);
+        eventPublisher.publishEvent(new RemoteEntityChangedEvent(parts[2], id));
+    }
+
+    /**
+     * Cached query results may include or exclude the changed row: marks its tables as updated
+     * now, as a local write does, which stales only the results of queries reading them.
+     */
+    private void invalidateQuerySpaces(String[] spaces) {
+        // The timestamps cache wants a session, for statistics only; it never takes a connection
+        try (Session session = sessionFactory.openSession()) {
+            sessionFactory.getCache().getTimestampsCache()
+                    .invalidate(spaces, session.unwrap(SharedSessionContractImplementor.class));
+        }
+    }
+
+    private void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+        eventPublisher.publishEvent(new RemoteEntityChangedEvent(null, null));
+    }
+}
@@ -0,0 +1,73 @@
+package com.issuetracker.cache;
+
+import com.issuetracker.dto.IssueFacets;
+import com.issuetracker.event.IssueChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Facet counts per normalized issue filter.
+ *
+ * <p>Any issue write can move counts of any filter, so it drops every entry and bumps the
+ * generation; as in {@link InboxCache}, callers read the generation before aggregating and a
+ * result computed across a write is not stored. Entries also expire after a TTL, which bounds
+ * staleness for writes made on other nodes.
+ */
+@Component
+public class FacetCache {
+
+    @Value("${issues.facets.cache.ttl:30s}")
+    private Duration ttl;
+
+    @Value("${issues.facets.cache.max-entries:1000}")
+    private int maxEntries;
+
+    private long generation;
+
+    private final Map<String, CachedFacets> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedFacets> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized IssueFacets get(String key) {
+        CachedFacets cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (System.nanoTime() - cached.cachedAt > ttl.toNanos()) {
+            entries.remove(key);
+            return null;
+        }
+        return cached.facets;
+    }
+
+    public synchronized void put(long generation, String key, IssueFacets facets) {
+        if (this.generation == generation) {
+            entries.put(key, new CachedFacets(facets, System.nanoTime()));
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        clear();
+    }
+
+    private record CachedFacets(IssueFacets facets, long cachedAt) {
+    }
+}
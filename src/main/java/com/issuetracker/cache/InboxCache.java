@@ -0,0 +1,132 @@
+package com.issuetracker.cache;
+
+import com.issuetracker.dto.InboxResponse;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.event.AttachmentChangedEvent;
+import com.issuetracker.event.CommentChangedEvent;
+import com.issuetracker.event.IssueChangedEvent;
+import com.issuetracker.event.IssueChangedEvent.ChangeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user cache of inbox pages ("reported by me" / "assigned to me").
+ *
+ * <p>Every cached user carries a generation number. Callers read the generation before hitting
+ * the database and hand it back on {@link #put}; if the user was invalidated in between, the
+ * page is dropped instead of caching a result that predates the write. Entries also expire after
+ * a TTL, which bounds staleness for writes made on other nodes.
+ *
+ * <p>Issue changes evict the reporter and assignees. Comments and attachments change an issue's
+ * counts and last activity without naming those users, so they evict every user with a cached
+ * page listing the issue.
+ */
+@Component
+public class InboxCache {
+    private static final int MAX_ENTRIES_PER_USER = 32;
+
+    @Value("${inbox.cache.ttl:60s}")
+    private Duration ttl;
+
+    @Value("${inbox.cache.max-users:10000}")
+    private int maxUsers;
+
+    private long generationCounter;
+
+    private final Map<Long, UserEntries> users = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UserEntries> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    public synchronized long generation(Long userId) {
+        return users.computeIfAbsent(userId, id -> new UserEntries(++generationCounter)).generation;
+    }
+
+    public synchronized InboxResponse get(Long userId, String key) {
+        UserEntries entries = users.get(userId);
+        if (entries == null) {
+            return null;
+        }
+        CachedPage page = entries.pages.get(key);
+        if (page == null) {
+            return null;
+        }
+        if (System.nanoTime() - page.cachedAt > ttl.toNanos()) {
+            entries.pages.remove(key);
+            return null;
+        }
+        return page.response;
+    }
+
+    public synchronized void put(Long userId, long generation, String key, InboxResponse response) {
+        UserEntries entries = users.get(userId);
+        if (entries == null || entries.generation != generation) {
+            return;
+        }
+        if (entries.pages.size() >= MAX_ENTRIES_PER_USER && !entries.pages.containsKey(key)) {
+            entries.pages.clear();
+            entries.issueIds.clear();
+        }
+        entries.pages.put(key, new CachedPage(response, System.nanoTime()));
+        for (IssueResponse issue : response.getContent()) {
+            entries.issueIds.add(issue.getId());
+        }
+    }
+
+    public synchronized void evict(Long userId) {
+        if (userId != null) {
+            users.remove(userId);
+        }
+    }
+
+    /**
+     * Evicts every user with a cached page listing the issue.
+     */
+    public synchronized void evictListing(Long issueId) {
+        users.values().removeIf(entries -> entries.issueIds.contains(issueId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        evict(event.getReporterId());
+        evict(event.getAssigneeId());
+        evict(event.getPreviousAssigneeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        // An edit leaves the issue's comment count and last activity alone
+        if (event.getType() != ChangeType.UPDATED) {
+            evictListing(event.getIssueId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttachmentChanged(AttachmentChangedEvent event) {
+        evictListing(event.getIssueId());
+    }
+
+    private static class UserEntries {
+        private final long generation;
+        private final Map<String, CachedPage> pages = new HashMap<>();
+        // Issues listed on the pages; may keep ids of expired ones, which only costs an eviction
+        private final Set<Long> issueIds = new HashSet<>();
+
+        UserEntries(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    private record CachedPage(InboxResponse response, long cachedAt) {
+    }
+}
@@ -0,0 +1,259 @@
+package com.issuetracker.cache;
+
+import com.issuetracker.event.AttachmentChangedEvent;
+import com.issuetracker.event.CommentChangedEvent;
+import com.issuetracker.event.IssueChangedEvent;
+import com.issuetracker.event.IssueChangedEvent.ChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully serialized JSON bodies of hot reads, stored raw and gzip-compressed so a hit is written
+ * out without loading entities or running Jackson. Keys name the resource ({@code issue:42},
+ * {@code issues:...} for first list pages, {@code comments:42:...}); entries are dropped when an
+ * issue, comment or attachment write commits, and expire after a TTL that bounds staleness for
+ * writes made on other instances.
+ *
+ * <p>The cache holds at most {@code response-cache.max-size} bytes of bodies, evicting the least
+ * recently used. Like {@link InboxCache}, callers read the {@link #generation()} before loading
+ * and pass it to {@link #put}; a body loaded across an invalidation is served but not stored.
+ */
+@Component
+public class ResponseBodyCache {
+    public static final String GZIP = "gzip";
+    public static final String ISSUE_PREFIX = "issue:";
+    public static final String ISSUE_LIST_PREFIX = "issues:";
+    public static final String COMMENTS_PREFIX = "comments:";
+
+    // Rough per-entry overhead of the map node, key and arrays
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final long ttlNanos;
+    private final int minCompressSize;
+
+    private final Map<String, CachedBody> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter servedRaw;
+    private final Counter servedGzip;
+    private final Counter evicted;
+    private final Counter invalidated;
+
+    public ResponseBodyCache(@Value("${response-cache.enabled:true}") boolean enabled,
+                             @Value("${response-cache.max-size:32MB}") DataSize maxSize,
+                             @Value("${response-cache.ttl:60s}") Duration ttl,
+                             @Value("${response-cache.min-compress-size:1KB}") DataSize minCompressSize,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBytes = maxSize.toBytes();
+        // A single huge list page must not flush everything else
+        this.maxEntryBytes = maxBytes / 16;
+        this.ttlNanos = ttl.toNanos();
+        this.minCompressSize = (int) minCompressSize.toBytes();
+
+        this.hits = Counter.builder("response.cache.requests")
+                .description("Cacheable reads, by whether the body came from the cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("response.cache.requests")
+                .description("Cacheable reads, by whether the body came from the cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.servedRaw = Counter.builder("response.cache.served.bytes")
+                .description("Response bytes written from the cache")
+                .baseUnit("bytes")
+                .tag("encoding", "identity")
+                .register(meterRegistry);
+        this.servedGzip = Counter.builder("response.cache.served.bytes")
+                .description("Response bytes written from the cache")
+                .baseUnit("bytes")
+                .tag("encoding", GZIP)
+                .register(meterRegistry);
+        this.evicted = Counter.builder("response.cache.removals")
+                .description("Entries removed from the cache, by cause")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        this.invalidated = Counter.builder("response.cache.removals")
+                .description("Entries removed from the cache, by cause")
+                .tag("cause", "invalidation")
+                .register(meterRegistry);
+        Gauge.builder("response.cache.size", this, ResponseBodyCache::totalBytes)
+                .description("Bytes of cached bodies, raw and compressed")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("response.cache.entries", this, ResponseBodyCache::entryCount)
+                .description("Cached response bodies")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public CachedBody get(String key) {
+        CachedBody body;
+        synchronized (this) {
+            body = entries.get(key);
+            if (body != null && System.nanoTime() - body.cachedAt > ttlNanos) {
+                remove(key);
+                body = null;
+            }
+        }
+        (body != null ? hits : misses).increment();
+        return body;
+    }
+
+    /**
+     * Compresses {@code json} and stores it unless the cache was invalidated since
+     * {@code generation} was read. Returns the body either way so the caller can serve it.
+     */
+    public CachedBody put(String key, long generation, String contentType, byte[] json) {
+        CachedBody body = new CachedBody(json, json.length >= minCompressSize ? gzip(json) : null, contentType,
+                System.nanoTime());
+        long size = body.size() + key.length() + ENTRY_OVERHEAD;
+        if (size > maxEntryBytes) {
+            return body;
+        }
+        synchronized (this) {
+            if (this.generation != generation) {
+                return body;
+            }
+            remove(key);
+            entries.put(key, body);
+            totalBytes += size;
+            Iterator<Map.Entry<String, CachedBody>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, CachedBody> entry = eldest.next();
+                totalBytes -= entry.getValue().size() + entry.getKey().length() + ENTRY_OVERHEAD;
+                eldest.remove();
+                evicted.increment();
+            }
+        }
+        return body;
+    }
+
+    public void recordServed(int bytes, boolean gzip) {
+        (gzip ? servedGzip : servedRaw).increment(bytes);
+    }
+
+    /**
+     * Removes {@code key} exactly, plus every key starting with one of {@code prefixes}.
+     */
+    public synchronized void invalidate(String key, String... prefixes) {
+        generation++;
+        if (key != null && remove(key)) {
+            invalidated.increment();
+        }
+        if (prefixes.length == 0) {
+            return;
+        }
+        Iterator<Map.Entry<String, CachedBody>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CachedBody> entry = iterator.next();
+            for (String prefix : prefixes) {
+                if (entry.getKey().startsWith(prefix)) {
+                    totalBytes -= entry.getValue().size() + entry.getKey().length() + ENTRY_OVERHEAD;
+                    iterator.remove();
+                    invalidated.increment();
+                    break;
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        if (event.getType() == ChangeType.CREATED) {
+            invalidate(null, ISSUE_LIST_PREFIX);
+        } else if (event.getType() == ChangeType.UPDATED) {
+            invalidate(ISSUE_PREFIX + event.getIssueId(), ISSUE_LIST_PREFIX);
+        } else {
+            // Deleted or restored: the issue and its comments disappear or come back
+            invalidate(ISSUE_PREFIX + event.getIssueId(), ISSUE_LIST_PREFIX,
+                    COMMENTS_PREFIX + event.getIssueId() + ":");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        if (event.getType() == ChangeType.UPDATED) {
+            invalidate(null, COMMENTS_PREFIX + event.getIssueId() + ":");
+        } else {
+            // New and deleted comments also move the issue's comment count and last activity
+            invalidate(ISSUE_PREFIX + event.getIssueId(), ISSUE_LIST_PREFIX,
+                    COMMENTS_PREFIX + event.getIssueId() + ":");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttachmentChanged(AttachmentChangedEvent event) {
+        invalidate(ISSUE_PREFIX + event.getIssueId(), ISSUE_LIST_PREFIX);
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    synchronized int entryCount() {
+        return entries.size();
+    }
+
+    private boolean remove(String key) {
+        CachedBody removed = entries.remove(key);
+        if (removed == null) {
+            return false;
+        }
+        totalBytes -= removed.size() + key.length() + ENTRY_OVERHEAD;
+        return true;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        // Compressed once and served many times, so spend the CPU on ratio
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = out.toByteArray();
+        return compressed.length < json.length ? compressed : null;
+    }
+
+    /**
+     * A cached body; {@code gzip} is null when the body is too small to be worth compressing.
+     */
+    public record CachedBody(byte[] raw, byte[] gzip, String contentType, long cachedAt) {
+        long size() {
+            return raw.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
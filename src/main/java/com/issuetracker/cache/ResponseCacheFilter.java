@@ -0,0 +1,144 @@
+package com.issuetracker.cache;
+
+import com.issuetracker.cache.ResponseBodyCache.CachedBody;
+import com.issuetracker.controller.AcceptEncoding;
+import com.issuetracker.datasource.ReplicaReads;
+import com.issuetracker.dto.IssueFields;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the single-issue read, the first page of the issue list and the first page of an
+ * issue's comments from {@link ResponseBodyCache}. On a miss the controller runs as usual and
+ * its JSON body is captured for the next request. Runs after the security filters, so only
+ * authenticated requests see cached bodies; the cached reads are the same for every user.
+ */
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    private static final Pattern ISSUE = Pattern.compile("/api/issues/(\\d+)");
+    private static final Pattern COMMENTS = Pattern.compile("/api/issues/(\\d+)/comments");
+    private static final Set<String> LIST_PARAMETERS = Set.of("page", "size", "sortBy", "sortDir", "fields");
+    private static final Set<String> COMMENT_PARAMETERS = Set.of("page", "size");
+
+    private final ResponseBodyCache cache;
+
+    public ResponseCacheFilter(ResponseBodyCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !cache.isEnabled() || !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = cacheKey(request);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean gzip = AcceptEncoding.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        CachedBody cached = cache.get(key);
+        if (cached != null) {
+            write(response, cached, gzip);
+            return;
+        }
+
+        long generation = cache.generation();
+        long replicaReads = ReplicaReads.count();
+        ContentCachingResponseWrapper capture = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, capture);
+
+        String contentType = capture.getContentType();
+        if (capture.getStatus() != HttpServletResponse.SC_OK || capture.getHeader(HttpHeaders.CONTENT_ENCODING) != null
+                || contentType == null || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                // A replica may not have seen a write whose eviction this body would outlive
+                || ReplicaReads.since(replicaReads)) {
+            capture.copyBodyToResponse();
+            return;
+        }
+        CachedBody body = cache.put(key, generation, contentType, capture.getContentAsByteArray());
+        capture.resetBuffer();
+        write(response, body, gzip);
+    }
+
+    private void write(HttpServletResponse response, CachedBody body, boolean acceptsGzip) throws IOException {
+        boolean gzip = acceptsGzip && body.gzip() != null;
+        byte[] bytes = gzip ? body.gzip() : body.raw();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(body.contentType());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, ResponseBodyCache.GZIP);
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+        cache.recordServed(bytes.length, gzip);
+    }
+
+    /**
+     * Returns the cache key for a cacheable read, or null. Only the default first page is cached,
+     * and any parameter the key does not cover makes the request uncacheable.
+     */
+    static String cacheKey(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        Map<String, String[]> parameters = request.getParameterMap();
+
+        Matcher issue = ISSUE.matcher(path);
+        if (issue.matches()) {
+            return parameters.isEmpty() ? ResponseBodyCache.ISSUE_PREFIX + issue.group(1) : null;
+        }
+        if (path.equals("/api/issues/paginated")) {
+            if (!LIST_PARAMETERS.containsAll(parameters.keySet()) || !firstPage(request)) {
+                return null;
+            }
+            String key = ResponseBodyCache.ISSUE_LIST_PREFIX + parameter(request, "size", "20") + ":"
+                    + parameter(request, "sortBy", "createdAt") + ":" + parameter(request, "sortDir", "desc");
+            String fields = request.getParameter("fields");
+            if (fields == null) {
+                return key;
+            }
+            try {
+                // Normalized, so equal field sets share an entry; "all fields" stays the plain key
+                IssueFields parsed = IssueFields.parse(fields);
+                return parsed != null ? key + ":" + parsed : key;
+            } catch (RuntimeException e) {
+                // Left to the controller to reject
+                return null;
+            }
+        }
+        Matcher comments = COMMENTS.matcher(path);
+        if (comments.matches()) {
+            if (!COMMENT_PARAMETERS.containsAll(parameters.keySet()) || !firstPage(request)) {
+                return null;
+            }
+            return ResponseBodyCache.COMMENTS_PREFIX + comments.group(1) + ":" + parameter(request, "size", "10");
+        }
+        return null;
+    }
+
+    private static boolean firstPage(HttpServletRequest request) {
+        return "0".equals(parameter(request, "page", "0"));
+    }
+
+    private static String parameter(HttpServletRequest request, String name, String defaultValue) {
+        String value = request.getParameter(name);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,155 @@
+package com.issuetracker.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.Label;
+import com.issuetracker.model.User;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache on Caffeine (through JCache) for users, their roles, issues, their
+ * labels and labels by id, plus the query cache used by {@code UserRepository.findByUsername}.
+ * Every region is created here with an explicit size and TTL; Hibernate refuses to start if an
+ * entity names a region that is not configured. Entries are kept consistent across instances by
+ * {@link CacheInvalidationBroadcaster}; the TTL is the backstop if a notification is lost. Only
+ * reads from the primary fill the cache: see {@code ReplicaAwareJpaDialect}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Value("${l2-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${l2-cache.users.max-entries:10000}")
+    private long userEntries;
+
+    @Value("${l2-cache.users.ttl:10m}")
+    private Duration userTtl;
+
+    @Value("${l2-cache.issues.max-entries:50000}")
+    private long issueEntries;
+
+    @Value("${l2-cache.issues.ttl:10m}")
+    private Duration issueTtl;
+
+    @Value("${l2-cache.labels.max-entries:10000}")
+    private long labelEntries;
+
+    @Value("${l2-cache.queries.max-entries:10000}")
+    private long queryEntries;
+
+    @Value("${l2-cache.queries.ttl:10m}")
+    private Duration queryTtl;
+
+    // Its own manager per application context, so test contexts in one JVM don't share regions
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("issue-tracker-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, User.CACHE_REGION, userEntries, userTtl);
+        createRegion(cacheManager, User.ROLES_CACHE_REGION, userEntries, userTtl);
+        createRegion(cacheManager, Issue.CACHE_REGION, issueEntries, issueTtl);
+        createRegion(cacheManager, Issue.LABELS_CACHE_REGION, issueEntries, issueTtl);
+        createRegion(cacheManager, Label.CACHE_REGION, labelEntries, issueTtl);
+        createRegion(cacheManager, User.BY_USERNAME_CACHE_REGION, queryEntries, queryTtl);
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queryEntries, queryTtl);
+        // One entry per table; must outlive every query result that depends on it
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 1000, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, new StoreModeRespectingRegionFactory());
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // cache.gets/puts/removals per region; Hibernate's own per-region statistics come from hibernate-micrometer
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> secondLevelCacheManager.getCacheNames().forEach(name ->
+                JCacheMetrics.monitor(registry, secondLevelCacheManager.getCache(name)));
+    }
+
+    /**
+     * The JCache region factory, except that query results are not stored by sessions that may
+     * only read the cache, such as those reading from a replica. Hibernate 6.3 checks the cache
+     * mode before storing entities but not before storing a query result it looked up first.
+     */
+    private static final class StoreModeRespectingRegionFactory extends JCacheRegionFactory {
+
+        @Override
+        protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                      SessionFactoryImplementor sessionFactory) {
+            StorageAccess storage = super.createQueryResultsRegionStorageAccess(regionName, sessionFactory);
+            return new StorageAccess() {
+                @Override
+                public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+                    return storage.getFromCache(key, session);
+                }
+
+                @Override
+                public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+                    if (session.getCacheMode().isPutEnabled()) {
+                        storage.putIntoCache(key, value, session);
+                    }
+                }
+
+                @Override
+                public boolean contains(Object key) {
+                    return storage.contains(key);
+                }
+
+                @Override
+                public void evictData() {
+                    storage.evictData();
+                }
+
+                @Override
+                public void evictData(Object key) {
+                    storage.evictData(key);
+                }
+
+                @Override
+                public void release() {
+                    storage.release();
+                }
+            };
+        }
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maxEntries, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
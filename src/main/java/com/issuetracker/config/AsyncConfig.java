@@ -0,0 +1,33 @@
+package com.issuetracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${file.upload.thumbnail.pool-size:2}")
+    private int thumbnailPoolSize;
+
+    @Value("${file.upload.thumbnail.queue-capacity:100}")
+    private int thumbnailQueueCapacity;
+
+    /**
+     * Bounded pool for image thumbnail generation. The queue is capped so a burst of uploads
+     * is rejected (and left without thumbnails) instead of running on request threads.
+     */
+    @Bean(name = "thumbnailExecutor")
+    public ThreadPoolTaskExecutor thumbnailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(thumbnailPoolSize);
+        executor.setMaxPoolSize(thumbnailPoolSize);
+        executor.setQueueCapacity(thumbnailQueueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
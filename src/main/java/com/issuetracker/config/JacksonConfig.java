@@ -0,0 +1,19 @@
+package com.issuetracker.config;
+
+import com.issuetracker.dto.IssueFields;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * IssueResponse names a Jackson filter so responses can be cut down to the requested fields
+     * (see IssueFieldsAdvice); Jackson refuses to write it unless some filter is registered.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer issueFieldsFilter() {
+        return builder -> builder.filters(IssueFields.defaultFilters());
+    }
+}
@@ -1,12 +1,16 @@
 package com.issuetracker.controller;
 
+import com.issuetracker.dto.AttachmentDownload;
 import com.issuetracker.dto.AttachmentResponse;
 import com.issuetracker.service.AttachmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -15,7 +19,9 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api")
@@ -40,15 +46,49 @@ public class AttachmentController {
         return ResponseEntity.ok(attachmentService.getAttachmentsByIssue(issueId));
     }
 
+    @GetMapping("/issues/{issueId}/attachments.zip")
+    @Operation(summary = "Download all attachments", description = "Streams all attachments of an issue as a ZIP archive")
+    public void downloadAllAttachments(
+            @Parameter(description = "Issue ID") @PathVariable Long issueId,
+            HttpServletResponse response) throws IOException {
+        attachmentService.writeIssueArchive(issueId, () -> {
+            response.setContentType("application/zip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"issue-" + issueId + "-attachments.zip\"");
+            return response.getOutputStream();
+        });
+    }
+
     @GetMapping("/attachments/{attachmentId}/download")
     @Operation(summary = "Download attachment", description = "Downloads a file attachment")
     public ResponseEntity<Resource> downloadAttachment(
-            @Parameter(description = "Attachment ID") @PathVariable Long attachmentId) throws IOException {
-        Resource resource = attachmentService.downloadFile(attachmentId);
+            @Parameter(description = "Attachment ID") @PathVariable Long attachmentId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws IOException {
+        AttachmentDownload download = attachmentService.downloadFile(attachmentId, AcceptEncoding.acceptsGzip(acceptEncoding));
 
-        return ResponseEntity.ok()
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
+                .contentLength(download.getContentLength())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(download.getFilename(), StandardCharsets.UTF_8).build().toString());
+        if (download.getContentEncoding() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, download.getContentEncoding());
+        }
+        return response.body(download.getResource());
+    }
+
+    @GetMapping("/attachments/{attachmentId}/thumbnail")
+    @Operation(summary = "Get thumbnail", description = "Serves the generated thumbnail or preview of an image attachment")
+    public ResponseEntity<Resource> getThumbnail(
+            @Parameter(description = "Attachment ID") @PathVariable Long attachmentId,
+            @Parameter(description = "Variant (thumbnail/preview)") @RequestParam(defaultValue = "thumbnail") String variant) throws IOException {
+        Resource resource = attachmentService.getThumbnail(attachmentId, "preview".equalsIgnoreCase(variant));
+
+        // Attachments are immutable, so their derivatives can be cached for as long as the browser likes
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
                 .body(resource);
     }
 
@@ -3,9 +3,11 @@ package com.issuetracker.controller;
 import com.issuetracker.dto.AuthResponse;
 import com.issuetracker.dto.LoginRequest;
 import com.issuetracker.dto.RegisterRequest;
+import com.issuetracker.security.LoginThrottle;
 import com.issuetracker.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,16 +19,23 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Authentication", description = "Authentication endpoints")
 public class AuthController {
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping("/register")
     @Operation(summary = "Register new user", description = "Creates a new user account and returns authentication token")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request,
+                                                 HttpServletRequest servletRequest) {
+        loginThrottle.acquireRegistration(servletRequest.getRemoteAddr());
         return ResponseEntity.ok(authService.register(request));
     }
 
     @PostMapping("/login")
     @Operation(summary = "Login", description = "Authenticates a user and returns a JWT token")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest servletRequest) {
+        loginThrottle.acquireLogin(request.getUsername(), servletRequest.getRemoteAddr());
+        AuthResponse response = authService.login(request);
+        loginThrottle.loginSucceeded(request.getUsername(), servletRequest.getRemoteAddr());
+        return ResponseEntity.ok(response);
     }
 }
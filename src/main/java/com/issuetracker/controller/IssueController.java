@@ -1,5 +1,11 @@
 package com.issuetracker.controller;
 
+import com.issuetracker.dto.FacetedPageResponse;
+import com.issuetracker.dto.InboxResponse;
+import com.issuetracker.dto.IssueBatchRequest;
+import com.issuetracker.dto.IssueBatchResponse;
+import com.issuetracker.dto.IssueFields;
+import com.issuetracker.dto.IssueQueryRequest;
 import com.issuetracker.dto.IssueRequest;
 import com.issuetracker.dto.IssueResponse;
 import com.issuetracker.dto.PageResponse;
@@ -10,6 +16,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +28,9 @@ import java.util.List;
 @RequiredArgsConstructor
 @Tag(name = "Issues", description = "Issue management endpoints")
 public class IssueController {
+    private static final String FIELDS_DESCRIPTION =
+            "Comma-separated fields to return, e.g. title,status,priority (id is always included); all when absent";
+
     private final IssueService issueService;
 
     @PostMapping
@@ -39,18 +49,36 @@ public class IssueController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get issue by ID", description = "Retrieves a single issue by its ID")
-    public ResponseEntity<IssueResponse> getIssue(@Parameter(description = "Issue ID") @PathVariable Long id) {
+    public ResponseEntity<IssueResponse> getIssue(
+            @Parameter(description = "Issue ID") @PathVariable Long id,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        // Serialization only (IssueFieldsAdvice): the issue comes from the second-level cache
+        IssueFields.parse(fields);
         return ResponseEntity.ok(issueService.getIssue(id));
     }
 
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get issues by ID", description = "Retrieves up to 1000 issues in the order given; ids without an issue are listed under missing")
+    public ResponseEntity<IssueBatchResponse> getIssuesById(
+            @Parameter(description = "Comma-separated issue IDs") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(issueService.getIssues(ids));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get issues by ID (POST)", description = "Same as GET /api/issues?ids=..., for id lists too long for a URL")
+    public ResponseEntity<IssueBatchResponse> getIssuesByIdBatch(@RequestBody IssueBatchRequest request) {
+        return ResponseEntity.ok(issueService.getIssues(request.getIds()));
+    }
+
     @GetMapping
     @Operation(summary = "Get all issues", description = "Retrieves all issues with optional status filter")
     public ResponseEntity<List<IssueResponse>> getAllIssues(
-            @Parameter(description = "Filter by status") @RequestParam(required = false) IssueStatus status) {
+            @Parameter(description = "Filter by status") @RequestParam(required = false) IssueStatus status,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
         if (status != null) {
-            return ResponseEntity.ok(issueService.getIssuesByStatus(status));
+            return ResponseEntity.ok(issueService.getIssuesByStatus(status, IssueFields.parse(fields)));
         }
-        return ResponseEntity.ok(issueService.getAllIssues());
+        return ResponseEntity.ok(issueService.getAllIssues(IssueFields.parse(fields)));
     }
 
     @GetMapping("/paginated")
@@ -58,18 +86,28 @@ public class IssueController {
     public ResponseEntity<PageResponse<IssueResponse>> getAllIssuesPaginated(
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
-            @Parameter(description = "Sort by field") @RequestParam(defaultValue = "createdAt") String sortBy,
-            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir) {
-        return ResponseEntity.ok(issueService.getAllIssuesPaginated(page, size, sortBy, sortDir));
+            @Parameter(description = "Sort by field (createdAt, updatedAt, status, priority, id)") @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(issueService.getAllIssuesPaginated(page, size, sortBy, sortDir,
+                IssueFields.parse(fields)));
+    }
+
+    @GetMapping("/query")
+    @Operation(summary = "Query issues", description = "Filters issues by any combination of status, priority, assignee, reporter, creation date range, text and a label expression (e.g. backend AND NOT wontfix), with pagination and sorting on indexed fields; facets=true adds counts per status, priority, assignee and reporter")
+    public ResponseEntity<FacetedPageResponse<IssueResponse>> queryIssues(@ParameterObject IssueQueryRequest query) {
+        return ResponseEntity.ok(issueService.queryIssues(query));
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search issues", description = "Search issues by title or description")
-    public ResponseEntity<PageResponse<IssueResponse>> searchIssues(
+    public ResponseEntity<FacetedPageResponse<IssueResponse>> searchIssues(
             @Parameter(description = "Search term") @RequestParam String q,
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(issueService.searchIssues(q, page, size));
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include counts per status, priority, assignee and reporter") @RequestParam(defaultValue = "false") boolean facets,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(issueService.searchIssues(q, page, size, facets, IssueFields.parse(fields)));
     }
 
     @GetMapping("/my-issues")
@@ -84,10 +122,35 @@ public class IssueController {
         return ResponseEntity.ok(issueService.getAssignedIssues());
     }
 
+    @GetMapping("/inbox/reported")
+    @Operation(summary = "Reported inbox", description = "Keyset-paginated issues reported by the current user with per-status counts")
+    public ResponseEntity<InboxResponse> getReportedInbox(
+            @Parameter(description = "Filter by status") @RequestParam(required = false) IssueStatus status,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(issueService.getInbox(false, status, cursor, size));
+    }
+
+    @GetMapping("/inbox/assigned")
+    @Operation(summary = "Assigned inbox", description = "Keyset-paginated issues assigned to the current user with per-status counts")
+    public ResponseEntity<InboxResponse> getAssignedInbox(
+            @Parameter(description = "Filter by status") @RequestParam(required = false) IssueStatus status,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(issueService.getInbox(true, status, cursor, size));
+    }
+
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete an issue", description = "Deletes an issue by ID")
+    @Operation(summary = "Delete an issue",
+            description = "Deletes an issue by ID; it can be restored during the grace period")
     public ResponseEntity<Void> deleteIssue(@Parameter(description = "Issue ID") @PathVariable Long id) {
         issueService.deleteIssue(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/{id}/restore")
+    @Operation(summary = "Restore a deleted issue", description = "Undoes a delete within the grace period")
+    public ResponseEntity<IssueResponse> restoreIssue(@Parameter(description = "Issue ID") @PathVariable Long id) {
+        return ResponseEntity.ok(issueService.restoreIssue(id));
+    }
 }
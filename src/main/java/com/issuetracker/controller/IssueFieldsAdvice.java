@@ -0,0 +1,32 @@
+package com.issuetracker.controller;
+
+import com.issuetracker.dto.IssueFields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies {@code fields=} to the JSON of the issue endpoints. The services use the same parameter
+ * to select only the matching columns, so the fields left out here were mostly never loaded.
+ */
+@ControllerAdvice(assignableTypes = IssueController.class)
+public class IssueFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        IssueFields fields = IssueFields.parse(servletRequest.getServletRequest().getParameter("fields"));
+        if (fields != null) {
+            bodyContainer.setFilters(fields.filters());
+        }
+    }
+}
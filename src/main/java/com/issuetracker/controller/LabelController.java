@@ -0,0 +1,28 @@
+package com.issuetracker.controller;
+
+import com.issuetracker.dto.LabelResponse;
+import com.issuetracker.service.LabelService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/labels")
+@RequiredArgsConstructor
+@Tag(name = "Labels", description = "Issue labels")
+public class LabelController {
+
+    private final LabelService labelService;
+
+    @GetMapping
+    @Operation(summary = "Get all labels", description = "Lists every label with the number of issues carrying it; labels are created by setting them on an issue")
+    public ResponseEntity<List<LabelResponse>> getLabels() {
+        return ResponseEntity.ok(labelService.getLabels());
+    }
+}
@@ -0,0 +1,41 @@
+package com.issuetracker.controller;
+
+import com.issuetracker.dto.UserResponse;
+import com.issuetracker.service.WatcherService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/issues/{issueId}/watchers")
+@RequiredArgsConstructor
+@Tag(name = "Watchers", description = "Following issues through notification digests")
+public class WatcherController {
+    private final WatcherService watcherService;
+
+    @GetMapping
+    @Operation(summary = "Get watchers", description = "Lists the users watching an issue, by username")
+    public ResponseEntity<List<UserResponse>> getWatchers(
+            @Parameter(description = "Issue ID") @PathVariable Long issueId) {
+        return ResponseEntity.ok(watcherService.getWatchers(issueId));
+    }
+
+    @PostMapping
+    @Operation(summary = "Watch an issue", description = "The current user gets the issue's changes in their notification digests; watching twice is harmless")
+    public ResponseEntity<Void> watch(@Parameter(description = "Issue ID") @PathVariable Long issueId) {
+        watcherService.watch(issueId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Unwatch an issue", description = "Stops notifications about the issue for the current user, also as its reporter or assignee")
+    public ResponseEntity<Void> unwatch(@Parameter(description = "Issue ID") @PathVariable Long issueId) {
+        watcherService.unwatch(issueId);
+        return ResponseEntity.noContent().build();
+    }
+}
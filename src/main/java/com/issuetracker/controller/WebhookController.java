@@ -0,0 +1,67 @@
+package com.issuetracker.controller;
+
+import com.issuetracker.dto.PageResponse;
+import com.issuetracker.dto.WebhookDeliveryResponse;
+import com.issuetracker.dto.WebhookRequest;
+import com.issuetracker.dto.WebhookResponse;
+import com.issuetracker.service.WebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/webhooks")
+@RequiredArgsConstructor
+@Tag(name = "Webhooks", description = "Outbound notifications of issue and comment changes")
+public class WebhookController {
+    private final WebhookService webhookService;
+
+    @PostMapping
+    @Operation(summary = "Register a webhook", description = "Registers a URL receiving signed POSTs of issue and comment events; the response holds the signing secret, which is not shown again")
+    public ResponseEntity<WebhookResponse> createWebhook(@RequestBody WebhookRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(webhookService.createWebhook(request));
+    }
+
+    @GetMapping
+    @Operation(summary = "Get my webhooks", description = "Lists the current user's webhooks with their pending and dead-lettered delivery counts")
+    public ResponseEntity<List<WebhookResponse>> getWebhooks() {
+        return ResponseEntity.ok(webhookService.getWebhooks());
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update a webhook", description = "Changes the given fields of a webhook; set active to false to pause deliveries")
+    public ResponseEntity<WebhookResponse> updateWebhook(
+            @Parameter(description = "Webhook ID") @PathVariable Long id,
+            @RequestBody WebhookRequest request) {
+        return ResponseEntity.ok(webhookService.updateWebhook(id, request));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a webhook", description = "Deletes a webhook and its undelivered deliveries")
+    public ResponseEntity<Void> deleteWebhook(@Parameter(description = "Webhook ID") @PathVariable Long id) {
+        webhookService.deleteWebhook(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/dead-letters")
+    @Operation(summary = "Get dead letters", description = "Deliveries given up after the maximum number of attempts, newest first")
+    public ResponseEntity<PageResponse<WebhookDeliveryResponse>> getDeadLetters(
+            @Parameter(description = "Webhook ID") @PathVariable Long id,
+            @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(webhookService.getDeadLetters(id, page, size));
+    }
+
+    @PostMapping("/{id}/dead-letters/redeliver")
+    @Operation(summary = "Redeliver dead letters", description = "Retries every dead-lettered delivery of the webhook")
+    public ResponseEntity<WebhookResponse> redeliverDeadLetters(
+            @Parameter(description = "Webhook ID") @PathVariable Long id) {
+        return ResponseEntity.ok(webhookService.redeliverDeadLetters(id));
+    }
+}
@@ -0,0 +1,69 @@
+package com.issuetracker.datasource;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last committed a write so their reads stay on the primary until
+ * the replicas have had time to catch up. Anonymous requests are not tracked.
+ *
+ * <p>Tracked in memory, per instance: with several instances behind a load balancer, a user's
+ * read that lands on another instance than their write may be served from a replica that has not
+ * seen it yet. Running more than one instance with replicas therefore needs sticky sessions, e.g.
+ * balancing on the client address or the {@code Authorization} header.
+ */
+public class ReadYourWritesTracker {
+    private static final int MAX_TRACKED_USERS = 100_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite() {
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        if (lastWrites.size() >= MAX_TRACKED_USERS) {
+            evictExpired();
+        }
+        lastWrites.put(user, System.nanoTime());
+    }
+
+    public boolean recentlyWrote() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(user);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite > windowNanos) {
+            lastWrites.remove(user, lastWrite);
+            return false;
+        }
+        return true;
+    }
+
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite > windowNanos);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
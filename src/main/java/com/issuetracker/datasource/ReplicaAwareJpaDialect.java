@@ -0,0 +1,35 @@
+package com.issuetracker.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Begins read-only transactions that {@link ReplicaRoutingDataSource} will send to a replica with
+ * {@link CacheStoreMode#BYPASS}: they read Hibernate's entity and query caches but don't fill them, so a
+ * row evicted after a write can't come back from a replica that hasn't replayed the write yet.
+ * Decided here rather than when the replica is picked, since Hibernate settles whether to cache a
+ * query result before its statement takes the connection.
+ */
+class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    ReplicaAwareJpaDialect(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (definition.isReadOnly() && !readYourWrites.recentlyWrote() && lagMonitor.isAnyHealthy()) {
+            entityManager.setProperty(ReplicaRoutingDataSource.CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        }
+        return transactionData;
+    }
+}
@@ -0,0 +1,121 @@
+package com.issuetracker.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls every replica for its replication lag. A replica is only used while it is streaming from
+ * the primary and has replayed everything it received, or its last replayed transaction is within
+ * the allowed lag. Replicas start out unhealthy, so reads stay on the primary until the first
+ * check has passed.
+ *
+ * <p>A check result ages: the replica may have fallen behind by as much as the time since it was
+ * measured, so that time counts towards its lag. Should checks stop running, replicas drop out of
+ * rotation within {@code datasource.replicas.max-lag}.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // Seconds behind the primary; 0 when fully caught up, NULL when nothing was replayed yet.
+    // Having replayed all it received only means caught up while the WAL receiver is streaming
+    // and has heard from the primary lately: it pings a silent primary after half of
+    // wal_receiver_timeout, so no message for the whole timeout means the link is gone even if
+    // the receiver has not noticed yet. Otherwise the lag is the age of the last replayed change.
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+                    + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+                    + "AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming' "
+                    + "AND (current_setting('wal_receiver_timeout') = '0' "
+                    + "OR last_msg_receipt_time > now() - current_setting('wal_receiver_timeout')::interval)) THEN 0 "
+                    + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private final Map<String, DataSource> replicas;
+    private final double maxLagSeconds;
+    private final ReadYourWritesTracker readYourWrites;
+    private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, Duration maxLag,
+                             ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.readYourWrites = readYourWrites;
+        for (String replica : this.replicas.keySet()) {
+            Gauge.builder("datasource.replica.lag", this, monitor -> monitor.measuredLag(replica))
+                    .description("Replication lag of the replica, NaN while unknown")
+                    .baseUnit("seconds")
+                    .tag("pool", replica)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", this, monitor -> monitor.isHealthy(replica) ? 1 : 0)
+                    .description("Whether read-only transactions are routed to the replica")
+                    .tag("pool", replica)
+                    .register(meterRegistry);
+        }
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public boolean isHealthy(String replica) {
+        Sample sample = samples.get(replica);
+        return sample != null
+                && sample.lagSeconds() + (System.nanoTime() - sample.checkedAt()) / 1e9 <= maxLagSeconds;
+    }
+
+    public boolean isAnyHealthy() {
+        return replicas.keySet().stream().anyMatch(this::isHealthy);
+    }
+
+    private double measuredLag(String replica) {
+        Sample sample = samples.get(replica);
+        return sample != null ? sample.lagSeconds() : Double.NaN;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval-ms:5000}")
+    public void check() {
+        replicas.forEach((name, dataSource) -> {
+            Double lag = queryLag(name, dataSource);
+            boolean wasHealthy = isHealthy(name);
+            if (lag == null) {
+                samples.remove(name);
+            } else {
+                samples.put(name, new Sample(lag, System.nanoTime()));
+            }
+            if (!wasHealthy && isHealthy(name)) {
+                logger.info("Replica {} is back in rotation (lag {}s)", name, lag);
+            } else if (wasHealthy && !isHealthy(name)) {
+                logger.warn("Replica {} taken out of rotation (lag {}s, max {}s)", name, lag, maxLagSeconds);
+            }
+        });
+        readYourWrites.evictExpired();
+    }
+
+    private Double queryLag(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            double lag = resultSet.getDouble(1);
+            return resultSet.wasNull() ? null : Math.max(0, lag);
+        } catch (Exception e) {
+            logger.debug("Lag check failed for replica {}", name, e);
+            return null;
+        }
+    }
+
+    private record Sample(double lagSeconds, long checkedAt) {
+    }
+}
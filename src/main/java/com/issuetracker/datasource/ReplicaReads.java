@@ -0,0 +1,31 @@
+package com.issuetracker.datasource;
+
+/**
+ * Counts the connections the current thread took from a replica. A replica may be up to
+ * {@code datasource.replicas.max-lag} behind, so what it returns must not go into a cache: an
+ * eviction made after a write on the primary would be undone by the next replica read for the
+ * cache's whole TTL. Caches filled outside a transaction read {@link #count()} before loading and
+ * store only if {@link #since} says no replica was read in between; Hibernate's cache is kept
+ * out of it by {@link ReplicaRoutingDataSource} itself.
+ */
+public final class ReplicaReads {
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private ReplicaReads() {
+    }
+
+    public static long count() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Whether the current thread read from a replica after {@code count} was taken.
+     */
+    public static boolean since(long count) {
+        return count() != count;
+    }
+
+    static void record() {
+        COUNT.get()[0]++;
+    }
+}
@@ -0,0 +1,140 @@
+package com.issuetracker.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource when {@code datasource.replicas.urls} is set. The
+ * primary pool is configured from {@code spring.datasource.*} as before; each replica gets its
+ * own pool with the same settings, marked read-only. All pools report Hikari metrics tagged
+ * with their pool name ({@code primary}, {@code replica-1}, ...).
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.urls")
+public class ReplicaRoutingConfig implements DisposableBean {
+
+    @Value("${datasource.replicas.urls}")
+    private String replicaUrls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replicas.max-lag:10s}")
+    private Duration maxLag;
+
+    @Value("${datasource.replicas.read-your-writes-window:5s}")
+    private Duration readYourWritesWindow;
+
+    // The pools are hidden behind the routing proxy, so they are closed here rather than as beans
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    // Replaced after initialization, as the transaction manager takes its dialect from the EntityManagerFactory
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialect(ObjectProvider<ReplicaLagMonitor> lagMonitor,
+                                                           ObjectProvider<ReadYourWritesTracker> readYourWrites) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JpaTransactionManager transactionManager) {
+                    transactionManager.setJpaDialect(
+                            new ReplicaAwareJpaDialect(lagMonitor.getObject(), readYourWrites.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(readYourWritesWindow);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties, Environment environment,
+                                               ReadYourWritesTracker readYourWritesTracker,
+                                               MeterRegistry meterRegistry) {
+        List<String> urls = Arrays.stream(replicaUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource pool = createPool(properties, environment, meterRegistry, name);
+            pool.setJdbcUrl(urls.get(i));
+            pool.setUsername(replicaUsername);
+            pool.setPassword(replicaPassword);
+            pool.setReadOnly(true);
+            replicas.put(name, pool);
+        }
+        return new ReplicaLagMonitor(replicas, maxLag, readYourWritesTracker, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ReplicaLagMonitor replicaLagMonitor, ReadYourWritesTracker readYourWritesTracker,
+                                 MeterRegistry meterRegistry) {
+        HikariDataSource primary = createPool(properties, environment, meterRegistry, ReplicaRoutingDataSource.PRIMARY);
+
+        Map<String, DataSource> replicas = replicaLagMonitor.getReplicas();
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primary);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                new ArrayList<>(replicas.keySet()), replicaLagMonitor, readYourWritesTracker);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        // Defaults are given explicitly so the proxy does not open a connection at startup
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(routing);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource createPool(DataSourceProperties properties, Environment environment,
+                                        MeterRegistry meterRegistry, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pools.add(pool);
+        return pool;
+    }
+}
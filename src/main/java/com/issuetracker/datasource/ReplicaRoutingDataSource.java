@@ -0,0 +1,83 @@
+package com.issuetracker.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ *
+ * <p>Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager opens the connection before the read-only flag is bound to the thread,
+ * so the lookup key is only meaningful once the first statement actually needs a connection.
+ *
+ * <p>Nothing read from a replica may be cached, as a replica can be behind an eviction made on
+ * the primary: reads are counted in {@link ReplicaReads}, and Hibernate sessions reading from a
+ * replica don't fill the second-level cache (see {@link ReplicaAwareJpaDialect}).
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    // JPA name of the session cache store mode; BYPASS still reads the cache but never fills it
+    static final String CACHE_STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    private final List<String> replicas;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(List<String> replicas, ReplicaLagMonitor lagMonitor,
+                                    ReadYourWritesTracker readYourWrites) {
+        this.replicas = List.copyOf(replicas);
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit();
+            return PRIMARY;
+        }
+        if (readYourWrites.recentlyWrote()) {
+            return PRIMARY;
+        }
+        // Round-robin, skipping replicas that are lagging or unreachable
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            String replica = replicas.get((start + i) % replicas.size());
+            if (lagMonitor.isHealthy(replica)) {
+                readFromReplica();
+                return replica;
+            }
+        }
+        return PRIMARY;
+    }
+
+    private static void readFromReplica() {
+        ReplicaReads.record();
+        // Usually already set when the transaction began, unless the replica only just became healthy
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                holder.getEntityManager().setProperty(CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+            }
+        }
+    }
+
+    private void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.recordWrite();
+            }
+        });
+    }
+}
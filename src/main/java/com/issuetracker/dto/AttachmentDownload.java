@@ -0,0 +1,16 @@
+package com.issuetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentDownload {
+    private Resource resource;
+    private String filename;
+    private String contentEncoding;
+    private long contentLength;
+}
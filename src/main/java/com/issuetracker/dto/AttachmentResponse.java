@@ -16,6 +16,8 @@ public class AttachmentResponse {
     private String contentType;
     private Long fileSize;
     private String downloadUrl;
+    private String thumbnailUrl;
+    private String previewUrl;
     private LocalDateTime uploadedAt;
     private UserSummary uploadedBy;
 
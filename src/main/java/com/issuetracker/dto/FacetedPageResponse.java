@@ -0,0 +1,23 @@
+package com.issuetracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class FacetedPageResponse<T> extends PageResponse<T> {
+    // Only present when the facets were asked for
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private IssueFacets facets;
+
+    public FacetedPageResponse(PageResponse<T> page, IssueFacets facets) {
+        super(page.getContent(), page.getPageNumber(), page.getPageSize(), page.getTotalElements(),
+                page.getTotalPages(), page.isFirst(), page.isLast());
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,19 @@
+package com.issuetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxResponse {
+    private List<IssueResponse> content;
+    private Map<String, Long> statusCounts;
+    private long totalElements;
+    private String nextCursor;
+    private boolean hasMore;
+}
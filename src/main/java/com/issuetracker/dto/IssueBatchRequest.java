@@ -0,0 +1,10 @@
+package com.issuetracker.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class IssueBatchRequest {
+    private List<Long> ids;
+}
@@ -0,0 +1,17 @@
+package com.issuetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueBatchResponse {
+    // In the order the ids were given, each issue once
+    private List<IssueResponse> issues;
+    // Requested ids with no issue, including deleted ones
+    private List<Long> missing;
+}
@@ -0,0 +1,31 @@
+package com.issuetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueFacets {
+    private long total;
+    // Counts scaled up from a sample of the matching issues
+    private boolean approximate;
+    private Map<String, Long> status;
+    private Map<String, Long> priority;
+    // Most frequent first; the entry with a null id counts unassigned issues
+    private List<UserCount> assignee;
+    private List<UserCount> reporter;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserCount {
+        private Long id;
+        private String username;
+        private long count;
+    }
+}
@@ -0,0 +1,80 @@
+package com.issuetracker.dto;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link IssueResponse} properties asked for with {@code fields=}, e.g.
+ * {@code fields=title,status,priority}. The id is always included.
+ */
+public final class IssueFields {
+    public static final String FILTER = "issueFields";
+
+    // In IssueResponse declaration order, which is also the canonical order
+    private static final List<String> ALL = List.of("id", "title", "description", "status", "priority", "reporter",
+            "assignee", "resolvedAt", "createdAt", "updatedAt", "commentCount", "attachmentCount", "lastActivityAt",
+            "labels");
+
+    private final Set<String> names;
+
+    private IssueFields(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parses a comma-separated field list; null or blank means every field, and returns null.
+     */
+    public static IssueFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+        for (String name : requested) {
+            if (!ALL.contains(name)) {
+                throw new RuntimeException("Unknown field '" + name + "'. Available fields: " + ALL);
+            }
+        }
+        requested.add("id");
+        Set<String> names = new LinkedHashSet<>();
+        ALL.stream().filter(requested::contains).forEach(names::add);
+        return new IssueFields(Collections.unmodifiableSet(names));
+    }
+
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+
+    public Set<String> names() {
+        return names;
+    }
+
+    /**
+     * Serializes only these fields of every {@link IssueResponse} in the body.
+     */
+    public FilterProvider filters() {
+        return new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(names));
+    }
+
+    /**
+     * For mappers that serialize {@link IssueResponse} without a field list: writes everything.
+     */
+    public static FilterProvider defaultFilters() {
+        return new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", names);
+    }
+}
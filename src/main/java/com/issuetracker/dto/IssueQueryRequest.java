@@ -0,0 +1,47 @@
+package com.issuetracker.dto;
+
+import com.issuetracker.model.Issue.IssuePriority;
+import com.issuetracker.model.Issue.IssueStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class IssueQueryRequest {
+    private List<IssueStatus> status;
+
+    private List<IssuePriority> priority;
+
+    private Long assigneeId;
+
+    private Boolean unassigned;
+
+    private Long reporterId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    private String q;
+
+    // Label expression, e.g. "backend AND (regression OR customer:acme) AND NOT wontfix"
+    private String labels;
+
+    private int page = 0;
+
+    private int size = 20;
+
+    private String sortBy = "createdAt";
+
+    private String sortDir = "desc";
+
+    // Adds status, priority, assignee and reporter counts over all matching issues
+    private boolean facets = false;
+
+    // Comma-separated IssueResponse fields to return, e.g. "title,status,priority"; all when absent
+    private String fields;
+}
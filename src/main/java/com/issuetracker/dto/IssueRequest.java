@@ -5,6 +5,8 @@ import com.issuetracker.model.Issue.IssueStatus;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class IssueRequest {
     @NotBlank(message = "Title is required")
@@ -17,4 +19,7 @@ public class IssueRequest {
     private IssuePriority priority;
 
     private Long assigneeId;
+
+    // Replaces the issue's labels; null leaves them unchanged on update. Unknown names are created.
+    private List<String> labels;
 }
@@ -1,5 +1,6 @@
 package com.issuetracker.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.issuetracker.model.Issue.IssuePriority;
 import com.issuetracker.model.Issue.IssueStatus;
 import lombok.AllArgsConstructor;
@@ -7,10 +8,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(IssueFields.FILTER)
 public class IssueResponse {
     private Long id;
     private String title;
@@ -22,6 +25,10 @@ public class IssueResponse {
     private LocalDateTime resolvedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Integer commentCount;
+    private Integer attachmentCount;
+    private LocalDateTime lastActivityAt;
+    private List<String> labels;
 
     @Data
     @NoArgsConstructor
@@ -0,0 +1,19 @@
+package com.issuetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookDeliveryResponse {
+    private Long id;
+    private Long eventId;
+    private String type;
+    private Integer attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+}
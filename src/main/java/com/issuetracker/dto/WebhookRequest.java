@@ -0,0 +1,25 @@
+package com.issuetracker.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Registers or changes a webhook. On update, fields left null keep their value.
+ */
+@Data
+public class WebhookRequest {
+    // http or https URL receiving the POSTs
+    private String url;
+
+    // Event types to receive, e.g. "issue.created"; all types if empty on registration
+    private List<String> events;
+
+    // Events per POST at most, 1 to 100; 1 if unset
+    private Integer batchSize;
+
+    private Boolean active;
+
+    // Signing key of at least 16 characters; generated on registration if unset
+    private String secret;
+}
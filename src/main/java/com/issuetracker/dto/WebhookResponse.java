@@ -0,0 +1,27 @@
+package com.issuetracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookResponse {
+    private Long id;
+    private String url;
+    private List<String> events;
+    private Integer batchSize;
+    private Boolean active;
+    private LocalDateTime createdAt;
+    private long pendingDeliveries;
+    private long deadDeliveries;
+
+    // Only returned when the webhook is registered or its secret changed
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String secret;
+}
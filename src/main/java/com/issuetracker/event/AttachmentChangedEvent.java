@@ -0,0 +1,19 @@
+package com.issuetracker.event;
+
+import com.issuetracker.event.IssueChangedEvent.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by {@code AttachmentService} inside the writing transaction whenever an attachment is
+ * uploaded or deleted.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AttachmentChangedEvent {
+    private final Long issueId;
+    private final Long attachmentId;
+    private final ChangeType type;
+}
@@ -0,0 +1,19 @@
+package com.issuetracker.event;
+
+import com.issuetracker.event.IssueChangedEvent.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by {@code CommentService} inside the writing transaction whenever a comment is
+ * created, updated or deleted.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CommentChangedEvent {
+    private final Long issueId;
+    private final Long commentId;
+    private final ChangeType type;
+}
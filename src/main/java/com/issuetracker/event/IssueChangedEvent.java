@@ -0,0 +1,32 @@
+package com.issuetracker.event;
+
+import com.issuetracker.model.Issue.IssueStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by {@code IssueService} inside the writing transaction whenever an issue is
+ * created, updated, deleted or restored. Carries the people and status before and after the change so
+ * listeners can invalidate per-user state without reloading the issue.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class IssueChangedEvent {
+    private final Long issueId;
+    private final ChangeType type;
+    private final Long reporterId;
+    private final Long assigneeId;
+    private final Long previousAssigneeId;
+    private final IssueStatus status;
+    private final IssueStatus previousStatus;
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // A soft-deleted issue brought back; not a new issue to webhooks or watchers
+        RESTORED
+    }
+}
@@ -0,0 +1,19 @@
+package com.issuetracker.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by {@code CacheInvalidationBroadcaster}, on its listener thread, when another instance
+ * changed a cached entity or collection. {@code name} is the entity name or collection role and
+ * {@code id} the entity or owner id; {@code id} is null when any number of rows may have changed,
+ * and both are null when notifications were lost and anything may have changed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RemoteEntityChangedEvent {
+    private final String name;
+    private final Long id;
+}
@@ -0,0 +1,10 @@
+package com.issuetracker.exception;
+
+/**
+ * The request conflicts with existing data, e.g. a duplicate unique value; answered with 409.
+ */
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.issuetracker.exception;
+
+/**
+ * Thrown when a bounded internal resource is saturated; answered with 503 and {@code Retry-After}.
+ */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.issuetracker.exception;
+
+import lombok.Getter;
+
+/**
+ * Rejects a request that exceeded a rate limit; answered with 429 and {@code Retry-After}.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,565 @@
+package com.issuetracker.index;
+
+import com.issuetracker.event.IssueChangedEvent;
+import com.issuetracker.event.RemoteEntityChangedEvent;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.Issue.IssuePriority;
+import com.issuetracker.model.Issue.IssueStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory index of live issues: one compressed (Roaring) bitmap of issue ids per label, per
+ * status and per priority. A {@link LabelExpression} combined with status and priority filters
+ * is answered by bitmap algebra, and only the ids of the requested page go to the database.
+ * A million issues with a few labels each take a few megabytes.
+ *
+ * <p>Built at startup from a streaming scan of {@code issues} and {@code issue_labels}, in the
+ * background; until then {@link #isReady()} is false and callers use SQL. Afterwards the ids of
+ * issues changed through {@code IssueService}, or by other instances as announced on the cache
+ * invalidation channel, are collected after commit and re-read in batches by a single background
+ * thread, so writers neither wait for the index nor hold a connection for it. Queries may see a
+ * change a moment late. Writes made around both (manual SQL) are picked up by the next restart.
+ *
+ * <p>Bitmaps hold 32-bit ids; if an issue id ever outgrows that the index switches itself off.
+ */
+@Component
+public class IssueBitmapIndex {
+    private static final Logger logger = LoggerFactory.getLogger(IssueBitmapIndex.class);
+
+    private static final String ISSUE_LABELS_ROLE = Issue.class.getName() + ".labels";
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate scanTransaction;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Null until the first rebuild; guarded by lock
+    private Bitmaps bitmaps;
+
+    // Set while a rebuild scans, which keeps refreshes from applying to bitmaps about to be
+    // replaced; bumped by every swap. Both guarded by lock
+    private boolean rebuilding;
+    private long generation;
+
+    // Ids of changed issues not yet re-read. Only the refresher thread reads them, one batch at a
+    // time, so an older read of an issue never overwrites a newer one
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final ExecutorService refresher;
+
+    private final Lock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    public IssueBitmapIndex(DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${label-index.enabled:true}") boolean enabled,
+                            @Value("${label-index.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // Read-write so the scan runs on the primary, and both tables come from one snapshot
+        this.scanTransaction = new TransactionTemplate(transactionManager);
+        this.scanTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.enabled = enabled;
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "label-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("label.index.issues", this, index -> index.measure(b -> b.live.getLongCardinality()))
+                .description("Live issues in the label index")
+                .register(meterRegistry);
+        Gauge.builder("label.index.labels", this, index -> index.measure(b -> b.labels.size()))
+                .description("Distinct labels in the label index")
+                .register(meterRegistry);
+        Gauge.builder("label.index.size", this, index -> index.measure(Bitmaps::sizeInBytes))
+                .description("Memory held by the label index bitmaps")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return bitmaps != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of the ids of live issues matching all of {@code expression} (may be null),
+     * {@code statuses} and {@code priorities} (null or empty for any), in id order, plus the total.
+     * Returns null if the index is not ready.
+     */
+    public IdPage query(LabelExpression expression, Collection<IssueStatus> statuses,
+                        Collection<IssuePriority> priorities, int page, int size, boolean descending) {
+        lock.readLock().lock();
+        try {
+            if (bitmaps == null) {
+                return null;
+            }
+            RoaringBitmap matches = expression != null
+                    ? RoaringBitmap.and(bitmaps.live, evaluate(expression))
+                    : bitmaps.live.clone();
+            if (statuses != null && !statuses.isEmpty()) {
+                matches.and(union(statuses.stream().map(bitmaps.statuses::get).toList()));
+            }
+            if (priorities != null && !priorities.isEmpty()) {
+                matches.and(union(priorities.stream().map(bitmaps.priorities::get).toList()));
+            }
+
+            long total = matches.getLongCardinality();
+            long offset = (long) page * size;
+            List<Long> ids = new ArrayList<>(size);
+            for (long rank = offset; rank < Math.min(total, offset + size); rank++) {
+                int position = (int) (descending ? total - 1 - rank : rank);
+                ids.add((long) matches.select(position));
+            }
+            return new IdPage(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live issues per label, or null if the index is not ready.
+     */
+    public Map<String, Long> labelCounts() {
+        lock.readLock().lock();
+        try {
+            if (bitmaps == null) {
+                return null;
+            }
+            Map<String, Long> counts = new HashMap<>();
+            bitmaps.labels.forEach((name, bitmap) -> counts.put(name, bitmap.getLongCardinality()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestRebuild();
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueChanged(IssueChangedEvent event) {
+        refresh(event.getIssueId());
+    }
+
+    @EventListener
+    public void onRemoteChange(RemoteEntityChangedEvent event) {
+        if (!isReady()) {
+            // The startup rebuild has not swapped in yet and will see the change
+            return;
+        }
+        if (event.getName() == null) {
+            requestRebuild();
+        } else if (event.getName().equals(Issue.class.getName()) || event.getName().equals(ISSUE_LABELS_ROLE)) {
+            if (event.getId() != null) {
+                refresh(event.getId());
+            } else {
+                requestRebuild();
+            }
+        }
+    }
+
+    /**
+     * Starts a rebuild in the background, unless one is already waiting to start.
+     */
+    public void requestRebuild() {
+        if (!enabled || !rebuildRequested.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuildLock.lock();
+                try {
+                    rebuildRequested.set(false);
+                    rebuild();
+                } finally {
+                    rebuildLock.unlock();
+                }
+            } catch (RuntimeException e) {
+                logger.error("Rebuilding the label index failed; label filters fall back to SQL", e);
+            }
+        }, "label-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Rebuilds the index from the database and swaps it in. Queries keep using the previous
+     * index while the scan runs; changes committed meanwhile are re-read after the swap.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                rebuilding = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            long started = System.nanoTime();
+            Bitmaps rebuilt;
+            try {
+                rebuilt = scanTransaction.execute(status -> scan());
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    rebuilding = false;
+                    generation++;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                disable();
+                scheduleRefresh();
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                bitmaps = rebuilt;
+                rebuilding = false;
+                generation++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            scheduleRefresh();
+            logger.info("Label index built in {} ms: {} issues, {} labels, {} bytes",
+                    (System.nanoTime() - started) / 1_000_000, rebuilt.live.getLongCardinality(),
+                    rebuilt.labels.size(), rebuilt.sizeInBytes());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Queues one issue to have its status, priority and labels re-read and its bits updated in
+     * the background; a deleted or missing issue is removed.
+     */
+    public void refresh(Long issueId) {
+        if (!enabled || issueId == null) {
+            return;
+        }
+        pending.add(issueId);
+        scheduleRefresh();
+    }
+
+    /**
+     * Waits until the changes queued so far are applied, or are waiting for a running rebuild.
+     */
+    void awaitRefresh() {
+        try {
+            do {
+                refresher.submit(() -> { }).get();
+            } while (!pending.isEmpty() && !isRebuilding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the label index", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void scheduleRefresh() {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.execute(this::drain);
+        }
+    }
+
+    // Runs on the refresher thread
+
+    private void drain() {
+        refreshScheduled.set(false);
+        List<Long> batch;
+        while (!(batch = takeBatch()).isEmpty()) {
+            long readGeneration;
+            lock.readLock().lock();
+            try {
+                readGeneration = generation;
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            Map<Long, Map<String, Object>> rows;
+            Map<Long, List<String>> labels;
+            try {
+                rows = read(batch);
+                labels = readLabels(rows.keySet());
+            } catch (RuntimeException e) {
+                // Reading again later could still apply out of order with a newer change; rebuild instead
+                logger.error("Refreshing the label index failed; rebuilding it", e);
+                requestRebuild();
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (rebuilding || generation != readGeneration) {
+                    // Read against bitmaps that were replaced meanwhile; the rebuild wakes us again
+                    pending.addAll(batch);
+                    continue;
+                }
+                if (bitmaps == null) {
+                    continue;
+                }
+                for (Long issueId : batch) {
+                    int id = issueId.intValue();
+                    bitmaps.remove(id);
+                    Map<String, Object> row = rows.get(issueId);
+                    if (row != null) {
+                        bitmaps.add(id, IssueStatus.valueOf((String) row.get("status")),
+                                IssuePriority.valueOf((String) row.get("priority")));
+                        labels.getOrDefault(issueId, List.of()).forEach(name -> bitmaps.addLabel(id, name));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes and returns up to a batch of pending ids, or nothing while a rebuild scans: the swap
+     * would drop what is applied now, so the ids wait for it. With no index and no rebuild the ids
+     * are dropped, since the next rebuild reads them anyway.
+     */
+    private List<Long> takeBatch() {
+        List<Long> batch = new ArrayList<>();
+        boolean tooLarge = false;
+        // Taken under the lock, so a rebuild starting now scans after these changes committed
+        lock.readLock().lock();
+        try {
+            if (rebuilding) {
+                return batch;
+            }
+            boolean ready = bitmaps != null;
+            Iterator<Long> ids = pending.iterator();
+            while (ids.hasNext() && (!ready || batch.size() < REFRESH_BATCH_SIZE)) {
+                Long id = ids.next();
+                ids.remove();
+                if (ready) {
+                    batch.add(id);
+                    tooLarge |= id > Integer.MAX_VALUE;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (tooLarge) {
+            disable();
+            batch.clear();
+        }
+        return batch;
+    }
+
+    private Map<Long, Map<String, Object>> read(List<Long> ids) {
+        Map<Long, Map<String, Object>> rows = new HashMap<>();
+        jdbcTemplate.queryForList("SELECT id, status, priority FROM issues WHERE deleted_at IS NULL AND id IN ("
+                + placeholders(ids.size()) + ")", ids.toArray())
+                .forEach(row -> rows.put(((Number) row.get("id")).longValue(), row));
+        return rows;
+    }
+
+    private Map<Long, List<String>> readLabels(Set<Long> ids) {
+        Map<Long, List<String>> labels = new HashMap<>();
+        if (ids.isEmpty()) {
+            return labels;
+        }
+        jdbcTemplate.query("SELECT il.issue_id, l.name FROM issue_labels il JOIN labels l ON l.id = il.label_id"
+                + " WHERE il.issue_id IN (" + placeholders(ids.size()) + ")", rs -> {
+            labels.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getString(2));
+        }, ids.toArray());
+        return labels;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private boolean isRebuilding() {
+        lock.readLock().lock();
+        try {
+            return rebuilding;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Bitmaps scan() {
+        Map<Long, String> labelNames = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM labels", rs -> {
+            labelNames.put(rs.getLong(1), rs.getString(2));
+        });
+
+        Bitmaps scanned = new Bitmaps();
+        jdbcTemplate.query("SELECT id, status, priority FROM issues WHERE deleted_at IS NULL", rs -> {
+            scanned.add(toInt(rs.getLong(1)), IssueStatus.valueOf(rs.getString(2)),
+                    IssuePriority.valueOf(rs.getString(3)));
+        });
+        jdbcTemplate.query("SELECT issue_id, label_id FROM issue_labels", rs -> {
+            String name = labelNames.get(rs.getLong(2));
+            if (name != null) {
+                scanned.addLabel(toInt(rs.getLong(1)), name);
+            }
+        });
+        // Rows of deleted issues were picked up by the join table scan
+        scanned.labels.values().forEach(bitmap -> bitmap.and(scanned.live));
+        scanned.optimize();
+        return scanned;
+    }
+
+    private RoaringBitmap evaluate(LabelExpression expression) {
+        if (expression instanceof LabelExpression.Term term) {
+            RoaringBitmap bitmap = bitmaps.labels.get(term.name());
+            return bitmap != null ? bitmap : new RoaringBitmap();
+        }
+        if (expression instanceof LabelExpression.Not not) {
+            return RoaringBitmap.andNot(bitmaps.live, evaluate(not.operand()));
+        }
+        if (expression instanceof LabelExpression.And and) {
+            return RoaringBitmap.and(evaluate(and.left()), evaluate(and.right()));
+        }
+        LabelExpression.Or or = (LabelExpression.Or) expression;
+        return RoaringBitmap.or(evaluate(or.left()), evaluate(or.right()));
+    }
+
+    private static RoaringBitmap union(List<RoaringBitmap> bitmaps) {
+        return RoaringBitmap.or(bitmaps.iterator());
+    }
+
+    private void disable() {
+        lock.writeLock().lock();
+        try {
+            if (bitmaps != null) {
+                logger.error("Label index switched off; label filters fall back to SQL");
+            }
+            bitmaps = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private double measure(ToDoubleFunction<Bitmaps> metric) {
+        lock.readLock().lock();
+        try {
+            return bitmaps != null ? metric.applyAsDouble(bitmaps) : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int toInt(long id) {
+        if (id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Issue id " + id + " does not fit the label index");
+        }
+        return (int) id;
+    }
+
+    public record IdPage(List<Long> ids, long total) {
+    }
+
+    private static final class Bitmaps {
+        private final RoaringBitmap live = new RoaringBitmap();
+        private final Map<String, RoaringBitmap> labels = new HashMap<>();
+        private final Map<IssueStatus, RoaringBitmap> statuses = new EnumMap<>(IssueStatus.class);
+        private final Map<IssuePriority, RoaringBitmap> priorities = new EnumMap<>(IssuePriority.class);
+
+        private Bitmaps() {
+            for (IssueStatus status : IssueStatus.values()) {
+                statuses.put(status, new RoaringBitmap());
+            }
+            for (IssuePriority priority : IssuePriority.values()) {
+                priorities.put(priority, new RoaringBitmap());
+            }
+        }
+
+        private void add(int id, IssueStatus status, IssuePriority priority) {
+            live.add(id);
+            statuses.get(status).add(id);
+            priorities.get(priority).add(id);
+        }
+
+        private void addLabel(int id, String name) {
+            labels.computeIfAbsent(name, n -> new RoaringBitmap()).add(id);
+        }
+
+        // Walks every label bitmap; a refresh is rare enough next to queries for that not to matter
+        private void remove(int id) {
+            live.remove(id);
+            statuses.values().forEach(bitmap -> bitmap.remove(id));
+            priorities.values().forEach(bitmap -> bitmap.remove(id));
+            labels.values().forEach(bitmap -> bitmap.remove(id));
+        }
+
+        private void optimize() {
+            live.runOptimize();
+            statuses.values().forEach(RoaringBitmap::runOptimize);
+            priorities.values().forEach(RoaringBitmap::runOptimize);
+            labels.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        private long sizeInBytes() {
+            long bytes = live.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : statuses.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : priorities.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : labels.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        }
+    }
+}
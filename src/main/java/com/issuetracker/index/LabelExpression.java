@@ -0,0 +1,65 @@
+package com.issuetracker.index;
+
+import java.util.Locale;
+
+/**
+ * A parsed label filter such as {@code backend AND (regression OR customer:acme) AND NOT wontfix}.
+ * {@code NOT} binds tighter than {@code AND}, which binds tighter than {@code OR}; keywords are
+ * case-insensitive and label names are normalized with {@link #labelName}. {@link #toString()}
+ * gives a canonical, fully parenthesized form.
+ */
+public sealed interface LabelExpression {
+
+    int MAX_TERMS = 32;
+
+    record Term(String name) implements LabelExpression {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    record Not(LabelExpression operand) implements LabelExpression {
+        @Override
+        public String toString() {
+            return "NOT " + operand;
+        }
+    }
+
+    record And(LabelExpression left, LabelExpression right) implements LabelExpression {
+        @Override
+        public String toString() {
+            return "(" + left + " AND " + right + ")";
+        }
+    }
+
+    record Or(LabelExpression left, LabelExpression right) implements LabelExpression {
+        @Override
+        public String toString() {
+            return "(" + left + " OR " + right + ")";
+        }
+    }
+
+    /**
+     * Parses {@code text}, or returns null if it is blank. Throws on a syntax error.
+     */
+    static LabelExpression parse(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return new LabelExpressionParser(text).parse();
+    }
+
+    /**
+     * Normalizes a label name to lower case and checks it: up to 100 letters, digits and
+     * {@code _ . : / -}, starting with a letter or digit, and not a keyword.
+     */
+    static String labelName(String raw) {
+        String name = raw == null ? "" : raw.trim().toLowerCase(Locale.ROOT);
+        if (!LabelExpressionParser.NAME.matcher(name).matches()
+                || LabelExpressionParser.KEYWORDS.contains(name)) {
+            throw new RuntimeException("Invalid label '" + raw + "': use up to 100 letters, digits and _ . : / -");
+        }
+        return name;
+    }
+}
@@ -0,0 +1,91 @@
+package com.issuetracker.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recursive-descent parser behind {@link LabelExpression#parse}.
+ */
+final class LabelExpressionParser {
+    static final Pattern NAME = Pattern.compile("[a-z0-9][a-z0-9_.:/-]{0,99}");
+    private static final Pattern TOKEN = Pattern.compile("\\(|\\)|[^\\s()]+");
+    static final Set<String> KEYWORDS = Set.of("and", "or", "not");
+
+    private final String text;
+    private final List<String> tokens = new ArrayList<>();
+    private int position;
+    private int terms;
+
+    LabelExpressionParser(String text) {
+        this.text = text;
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+        }
+    }
+
+    LabelExpression parse() {
+        LabelExpression expression = or();
+        if (position < tokens.size()) {
+            throw error("unexpected '" + tokens.get(position) + "'");
+        }
+        return expression;
+    }
+
+    private LabelExpression or() {
+        LabelExpression left = and();
+        while (accept("OR")) {
+            left = new LabelExpression.Or(left, and());
+        }
+        return left;
+    }
+
+    private LabelExpression and() {
+        LabelExpression left = unary();
+        while (accept("AND")) {
+            left = new LabelExpression.And(left, unary());
+        }
+        return left;
+    }
+
+    private LabelExpression unary() {
+        if (accept("NOT")) {
+            return new LabelExpression.Not(unary());
+        }
+        if (accept("(")) {
+            LabelExpression inner = or();
+            if (!accept(")")) {
+                throw error("missing ')'");
+            }
+            return inner;
+        }
+        if (position >= tokens.size()) {
+            throw error("expected a label");
+        }
+        String token = tokens.get(position);
+        if (token.equals(")") || KEYWORDS.contains(token.toLowerCase(Locale.ROOT))) {
+            throw error("expected a label before '" + token + "'");
+        }
+        if (++terms > LabelExpression.MAX_TERMS) {
+            throw error("more than " + LabelExpression.MAX_TERMS + " labels");
+        }
+        position++;
+        return new LabelExpression.Term(LabelExpression.labelName(token));
+    }
+
+    private boolean accept(String token) {
+        if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private RuntimeException error(String problem) {
+        return new RuntimeException("Invalid label expression '" + text + "': " + problem);
+    }
+}
@@ -30,12 +30,26 @@ public class Attachment {
     @Column(nullable = false)
     private String contentType;
 
+    // Logical (uncompressed) size as uploaded
     @Column(nullable = false)
     private Long fileSize;
 
+    // Size on disk; differs from fileSize when storageEncoding is set
+    @Column
+    private Long storedSize;
+
+    @Column
+    private String storageEncoding;
+
     @Column(nullable = false)
     private String filePath;
 
+    @Column
+    private String thumbnailPath;
+
+    @Column
+    private String previewPath;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "issue_id", nullable = false)
     private Issue issue;
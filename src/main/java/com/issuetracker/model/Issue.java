@@ -3,20 +3,34 @@ package com.issuetracker.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "issues")
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Issue.CACHE_REGION)
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Issue {
+    public static final String CACHE_REGION = "issues";
+    public static final String LABELS_CACHE_REGION = "issues.labels";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -55,6 +69,42 @@ public class Issue {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // The counters are only ever changed in the database (see IssueActivityRecorder), so an
+    // entity loaded before a concurrent comment can't write back a stale count
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer commentCount = 0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer attachmentCount = 0;
+
+    // Last edit, comment or upload; bumped in place for comments and uploads
+    @Column(nullable = false)
+    private LocalDateTime lastActivityAt;
+
+    // Tombstone set by IssueService#deleteIssue; the row is hidden from every query and purged
+    // by IssuePurger after the grace period. Only written with bulk updates, like the counters.
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    // Also held in memory by IssueBitmapIndex, which answers label filters without this join
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "issue_labels",
+            joinColumns = @JoinColumn(name = "issue_id"),
+            inverseJoinColumns = @JoinColumn(name = "label_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Issue.LABELS_CACHE_REGION)
+    @BatchSize(size = 50)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Label> labels = new HashSet<>();
+
+    @PrePersist
+    @PreUpdate
+    void touchLastActivity() {
+        lastActivityAt = LocalDateTime.now();
+    }
+
     public enum IssueStatus {
         OPEN,
         IN_PROGRESS,
@@ -0,0 +1,36 @@
+package com.issuetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "labels", uniqueConstraints = @UniqueConstraint(name = "uk_labels_name", columnNames = "name"))
+@EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Label.CACHE_REGION)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Label {
+    public static final String CACHE_REGION = "labels";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Normalized by LabelService: lower case, no spaces
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,64 @@
+package com.issuetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * One outbox event for one watcher, waiting to go out in their next digest.
+ */
+@Entity
+@Table(name = "notifications")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recipient_id", nullable = false)
+    private User recipient;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    private OutboxEvent event;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationStatus status = NotificationStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // While pending: when the digest holding it is due at the earliest
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // While its digest is being sent: when other instances may claim it again
+    @Column
+    private LocalDateTime claimedUntil;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // When it was sent, or given up on
+    @Column
+    private LocalDateTime sentAt;
+
+    public enum NotificationStatus {
+        PENDING,
+        SENT,
+        // Gave up after notifications.max-attempts
+        FAILED
+    }
+}
@@ -0,0 +1,47 @@
+package com.issuetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * An issue or comment change in the outbox, written by the transaction making the change and
+ * consumed in the background by the webhook dispatcher and the notification digester.
+ */
+@Entity
+@Table(name = "outbox_events")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // e.g. "issue.updated"
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    // JSON object, sent to webhooks as the event's data
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Set once deliveries to the subscribed webhooks have been created, or at once if there are none
+    @Column
+    private LocalDateTime relayedAt;
+
+    // Set once notifications to the issue's watchers have been created, or at once if notifications are off
+    @Column
+    private LocalDateTime notifiedAt;
+}
@@ -0,0 +1,43 @@
+package com.issuetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A user following an issue: they get its changes in their notification digests. Reporters and
+ * assignees become watchers automatically.
+ */
+@Entity
+@Table(name = "issue_watchers")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Watcher {
+
+    @EmbeddedId
+    private WatcherId id;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WatcherId implements Serializable {
+        @Column(name = "issue_id", nullable = false)
+        private Long issueId;
+
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+    }
+}
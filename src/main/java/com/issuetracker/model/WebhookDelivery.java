@@ -0,0 +1,62 @@
+package com.issuetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * One event on its way to one webhook.
+ */
+@Entity
+@Table(name = "webhook_deliveries")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "webhook_id", nullable = false)
+    private Webhook webhook;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    private OutboxEvent event;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DeliveryStatus status = DeliveryStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // While pending: when it is due, or until when a dispatcher has claimed it
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime deliveredAt;
+
+    public enum DeliveryStatus {
+        PENDING,
+        DELIVERED,
+        // Gave up after webhooks.max-attempts; kept until redelivered or the webhook is deleted
+        DEAD
+    }
+}
@@ -0,0 +1,56 @@
+package com.issuetracker.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.ServletContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Bytes of in-flight multipart uploads that Tomcat has spooled to disk. Uploads are parsed into
+ * temporary {@code upload_*.tmp} files before the controller sees them, so a growing spool means
+ * uploads are arriving faster than they are being stored.
+ */
+@Component
+public class MultipartSpoolMetrics implements MeterBinder {
+    private final Path spoolDirectory;
+
+    public MultipartSpoolMetrics(@Value("${spring.servlet.multipart.location:}") String location,
+                                 ServletContext servletContext) {
+        if (StringUtils.hasText(location)) {
+            this.spoolDirectory = Path.of(location);
+        } else {
+            Object tempDir = servletContext.getAttribute(ServletContext.TEMPDIR);
+            this.spoolDirectory = tempDir instanceof File file ? file.toPath() : null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.server.multipart.spool.size", this, MultipartSpoolMetrics::spooledBytes)
+                .description("Bytes of multipart uploads currently spooled to disk")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private double spooledBytes() {
+        if (spoolDirectory == null || !Files.isDirectory(spoolDirectory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("upload_"))
+                    .mapToLong(file -> file.toFile().length())
+                    .sum();
+        } catch (IOException e) {
+            return Double.NaN;
+        }
+    }
+}
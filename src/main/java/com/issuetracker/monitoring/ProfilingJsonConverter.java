@@ -0,0 +1,36 @@
+package com.issuetracker.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that measures serialization for the current {@link RequestProfile}. The body
+ * is written straight to the response, so the time includes writing it out; the
+ * {@code Server-Timing} header is added by {@link RequestProfilingFilter} when the response
+ * commits, with the serialization up to that point.
+ */
+public class ProfilingJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    public ProfilingJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        RequestProfile profile = RequestProfile.current();
+        if (profile == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        profile.serializing();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            profile.serialized();
+        }
+    }
+}
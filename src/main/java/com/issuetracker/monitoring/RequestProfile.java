@@ -0,0 +1,130 @@
+package com.issuetracker.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * What one API request spent its time on: SQL statements, rows, database time, authentication
+ * and response serialization. Bound to the request thread by {@link RequestProfilingFilter} and
+ * filled in by {@link CountingStatementInspector}, {@link ProfilingDataSource}, the JWT filter
+ * and {@link ProfilingJsonConverter}. Only the request thread touches it, so nothing is
+ * synchronized; work done elsewhere (async thumbnails, scheduled jobs) is not attributed.
+ */
+public final class RequestProfile {
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, SqlStats> sqlStats = new HashMap<>();
+    private int statements;
+    private int executions;
+    private long rows;
+    private long dbNanos;
+    private long authNanos;
+    private long serializeNanos;
+    // When the serialization still running started, 0 if none is
+    private long serializeStartedAt;
+
+    private RequestProfile() {
+    }
+
+    static RequestProfile begin() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    public static void recordAuth(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.authNanos += nanos;
+        }
+    }
+
+    void statementPrepared() {
+        statements++;
+    }
+
+    SqlStats sql(String sql) {
+        return sqlStats.computeIfAbsent(sql, key -> new SqlStats());
+    }
+
+    void executed(SqlStats stats, long nanos) {
+        executions++;
+        dbNanos += nanos;
+        stats.executions++;
+        stats.nanos += nanos;
+    }
+
+    void rowFetched(SqlStats stats) {
+        rows++;
+        stats.rows++;
+    }
+
+    void serializing() {
+        serializeStartedAt = System.nanoTime();
+    }
+
+    void serialized() {
+        serializeNanos += System.nanoTime() - serializeStartedAt;
+        serializeStartedAt = 0;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getExecutions() {
+        return executions;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public long getAuthNanos() {
+        return authNanos;
+    }
+
+    /**
+     * Time spent serializing, including so far of a body still being written; the response is
+     * committed mid-write once the body outgrows the response buffer.
+     */
+    public long getSerializeNanos() {
+        return serializeStartedAt != 0 ? serializeNanos + System.nanoTime() - serializeStartedAt : serializeNanos;
+    }
+
+    Map<String, SqlStats> getSqlStats() {
+        return sqlStats;
+    }
+
+    /**
+     * Value for the {@code Server-Timing} header, e.g.
+     * {@code db;dur=12.5;desc="4 statements, 37 rows", auth;dur=0.8, serialize;dur=1.2}.
+     */
+    public String serverTiming() {
+        return String.format("db;dur=%.1f;desc=\"%d statements, %d rows\", auth;dur=%.1f, serialize;dur=%.1f",
+                dbNanos / 1e6, executions, rows, authNanos / 1e6, getSerializeNanos() / 1e6);
+    }
+
+    static final class SqlStats {
+        int executions;
+        long nanos;
+        long rows;
+    }
+}
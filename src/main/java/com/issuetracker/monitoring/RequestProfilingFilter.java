@@ -0,0 +1,145 @@
+package com.issuetracker.monitoring;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Profiles every API request: SQL statements, rows and database time, authentication and
+ * serialization. The totals are sent back in a {@code Server-Timing} header as the response
+ * commits, the statement executions are recorded per endpoint as
+ * {@code http.server.requests.statements}, and requests over the duration or statement threshold
+ * are logged as one JSON record with their SQL grouped by fingerprint. Runs ahead of the security
+ * filters so authentication is included.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestProfilingFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RequestProfilingFilter.class);
+    private static final int LOGGED_FINGERPRINTS = 10;
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final boolean serverTiming;
+    private final long slowNanos;
+    private final int slowStatements;
+
+    public RequestProfilingFilter(MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                                  @Value("${monitoring.server-timing.enabled:true}") boolean serverTiming,
+                                  @Value("${monitoring.slow-request.duration:500ms}") Duration slowDuration,
+                                  @Value("${monitoring.slow-request.statements:50}") int slowStatements) {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.serverTiming = serverTiming;
+        this.slowNanos = slowDuration.toNanos();
+        this.slowStatements = slowStatements;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestProfile profile = RequestProfile.begin();
+        HttpServletResponse profiledResponse = !serverTiming ? response : new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                setHeader("Server-Timing", profile.serverTiming());
+            }
+        };
+        try {
+            filterChain.doFilter(request, profiledResponse);
+            if (serverTiming && !response.isCommitted()) {
+                response.setHeader("Server-Timing", profile.serverTiming());
+            }
+        } finally {
+            RequestProfile.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("http.server.requests.statements")
+                    .description("SQL statements issued per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(profile.getExecutions());
+
+            long elapsed = profile.elapsedNanos();
+            if (elapsed >= slowNanos || profile.getExecutions() >= slowStatements) {
+                logSlowRequest(request, response, uri, profile, elapsed);
+            }
+        }
+    }
+
+    private void logSlowRequest(HttpServletRequest request, HttpServletResponse response, String uri,
+                                RequestProfile profile, long elapsedNanos) {
+        Map<String, long[]> byFingerprint = new HashMap<>();
+        profile.getSqlStats().forEach((sql, stats) -> {
+            long[] totals = byFingerprint.computeIfAbsent(SqlFingerprint.of(sql), key -> new long[3]);
+            totals[0] += stats.executions;
+            totals[1] += stats.nanos;
+            totals[2] += stats.rows;
+        });
+        List<Map<String, Object>> sql = byFingerprint.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[1]).reversed())
+                .limit(LOGGED_FINGERPRINTS)
+                .map(entry -> {
+                    Map<String, Object> fingerprint = new LinkedHashMap<>();
+                    fingerprint.put("fingerprint", entry.getKey());
+                    fingerprint.put("executions", entry.getValue()[0]);
+                    fingerprint.put("dbMs", millis(entry.getValue()[1]));
+                    fingerprint.put("rows", entry.getValue()[2]);
+                    return fingerprint;
+                })
+                .toList();
+
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("event", "slow_request");
+        record.put("method", request.getMethod());
+        record.put("uri", uri);
+        record.put("path", request.getRequestURI());
+        record.put("status", response.getStatus());
+        record.put("durationMs", millis(elapsedNanos));
+        record.put("dbMs", millis(profile.getDbNanos()));
+        record.put("authMs", millis(profile.getAuthNanos()));
+        record.put("serializeMs", millis(profile.getSerializeNanos()));
+        record.put("statements", profile.getExecutions());
+        record.put("rows", profile.getRows());
+        record.put("distinctSql", byFingerprint.size());
+        record.put("sql", sql);
+        try {
+            logger.warn(objectMapper.writeValueAsString(record));
+        } catch (JsonProcessingException e) {
+            logger.warn("Slow request {} {} ({} ms, {} statements)", request.getMethod(), request.getRequestURI(),
+                    millis(elapsedNanos), profile.getExecutions());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
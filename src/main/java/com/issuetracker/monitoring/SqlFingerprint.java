@@ -0,0 +1,26 @@
+package com.issuetracker.monitoring;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces SQL to its shape so statements that differ only in literals, IN-list length or
+ * whitespace group together in slow-request logs. Only used when a record is logged, never on
+ * the statement path.
+ */
+final class SqlFingerprint {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlFingerprint() {
+    }
+
+    static String of(String sql) {
+        String fingerprint = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        fingerprint = STRING_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = PARAMETER_LIST.matcher(fingerprint).replaceAll("(?...)");
+        return fingerprint;
+    }
+}
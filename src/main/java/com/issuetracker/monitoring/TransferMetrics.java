@@ -0,0 +1,45 @@
+package com.issuetracker.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attachment bytes moved in and out of the service; graph with {@code rate()} for throughput.
+ */
+@Component
+public class TransferMetrics {
+    private final Counter uploaded;
+    private final Counter downloaded;
+    private final Counter archived;
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        this.uploaded = Counter.builder("attachments.transfer.bytes")
+                .description("Attachment bytes received or sent")
+                .baseUnit("bytes")
+                .tag("direction", "upload")
+                .register(meterRegistry);
+        this.downloaded = Counter.builder("attachments.transfer.bytes")
+                .description("Attachment bytes received or sent")
+                .baseUnit("bytes")
+                .tag("direction", "download")
+                .register(meterRegistry);
+        this.archived = Counter.builder("attachments.transfer.bytes")
+                .description("Attachment bytes received or sent")
+                .baseUnit("bytes")
+                .tag("direction", "archive")
+                .register(meterRegistry);
+    }
+
+    public void recordUpload(long bytes) {
+        uploaded.increment(bytes);
+    }
+
+    public void recordDownload(long bytes) {
+        downloaded.increment(bytes);
+    }
+
+    public void recordArchive(long bytes) {
+        archived.increment(bytes);
+    }
+}
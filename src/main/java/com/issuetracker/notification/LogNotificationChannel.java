@@ -0,0 +1,26 @@
+package com.issuetracker.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes digests to the log instead of sending them; the default, for development and for
+ * deployments without a mail server.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.channel", havingValue = "log", matchIfMissing = true)
+public class LogNotificationChannel implements NotificationChannel {
+    private static final Logger logger = LoggerFactory.getLogger(LogNotificationChannel.class);
+
+    @Override
+    public List<NotificationDigest> send(List<NotificationDigest> digests) {
+        for (NotificationDigest digest : digests) {
+            logger.info("Notification digest for {}: {}\n{}", digest.getEmail(), digest.getSubject(), digest.getText());
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,16 @@
+package com.issuetracker.notification;
+
+import java.util.List;
+
+/**
+ * How digests reach their recipients, chosen by {@code notifications.channel}. A channel gets a
+ * whole batch at once so it can send it over one connection.
+ */
+public interface NotificationChannel {
+
+    /**
+     * Sends the digests and returns the ones that could not be sent, to be retried later. Throws
+     * if none could, e.g. because the server is unreachable.
+     */
+    List<NotificationDigest> send(List<NotificationDigest> digests);
+}
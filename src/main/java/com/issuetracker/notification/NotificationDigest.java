@@ -0,0 +1,19 @@
+package com.issuetracker.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Everything one recipient is told in one go: the changes to the issues they watch since their
+ * previous digest.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class NotificationDigest {
+    private final Long recipientId;
+    private final String email;
+    private final String subject;
+    private final String text;
+}
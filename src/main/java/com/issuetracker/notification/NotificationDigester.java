@@ -0,0 +1,454 @@
+package com.issuetracker.notification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.Notification;
+import com.issuetracker.model.Notification.NotificationStatus;
+import com.issuetracker.model.OutboxEvent;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.NotificationRepository;
+import com.issuetracker.repository.OutboxEventRepository;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.repository.WatcherRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns outbox events into notification digests. Every {@code notifications.poll-interval-ms}:
+ * <ol>
+ *   <li>new outbox events become one {@code notifications} row per watcher of their issue, except
+ *       the user who made the change, due {@code notifications.digest-window} later. Reporters and
+ *       assignees are made watchers here, so the writing transaction never touches
+ *       {@code issue_watchers};</li>
+ *   <li>recipients with a notification due get their pending ones in a single digest, up to
+ *       {@code notifications.batch-size} recipients per {@link NotificationChannel} call. Ones
+ *       still in their window come along; ones whose digest failed wait for their retry.</li>
+ * </ol>
+ * A digest that could not be sent is retried after {@code notifications.retry-delay}, doubling
+ * per attempt, and given up on after {@code notifications.max-attempts}.
+ *
+ * <p>A digest's notifications are claimed for {@code notifications.claim-timeout} in one
+ * transaction, sent with none open, and their outcome recorded in another, so a slow mail server
+ * holds neither a connection nor row locks. Instances skip notifications claimed by another, so
+ * they never send the same digest at the same time. Sending is at least once: a digest whose
+ * outcome could not be recorded is sent again once its claim expires.
+ */
+@Component
+public class NotificationDigester {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDigester.class);
+
+    // Events fanned out per transaction, and old rows removed per cleanup statement
+    private static final int FAN_OUT_BATCH_SIZE = 500;
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+    // Items listed in one digest; the rest follow in the next one
+    private static final int MAX_DIGEST_ITEMS = 100;
+    // Digest batches per poll, so one poll can't hold the scheduler thread indefinitely
+    private static final int MAX_BATCHES_PER_POLL = 20;
+
+    private final OutboxEventRepository eventRepository;
+    private final NotificationRepository notificationRepository;
+    private final WatcherRepository watcherRepository;
+    private final IssueRepository issueRepository;
+    private final UserRepository userRepository;
+    private final NotificationChannel channel;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration digestWindow;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration claimTimeout;
+    private final Duration retention;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public NotificationDigester(OutboxEventRepository eventRepository,
+                                NotificationRepository notificationRepository,
+                                WatcherRepository watcherRepository,
+                                IssueRepository issueRepository,
+                                UserRepository userRepository,
+                                NotificationChannel channel,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${notifications.enabled:true}") boolean enabled,
+                                @Value("${notifications.digest-window:10m}") Duration digestWindow,
+                                @Value("${notifications.batch-size:50}") int batchSize,
+                                @Value("${notifications.max-attempts:5}") int maxAttempts,
+                                @Value("${notifications.retry-delay:1m}") Duration retryDelay,
+                                @Value("${notifications.claim-timeout:5m}") Duration claimTimeout,
+                                @Value("${notifications.retention:7d}") Duration retention) {
+        this.eventRepository = eventRepository;
+        this.notificationRepository = notificationRepository;
+        this.watcherRepository = watcherRepository;
+        this.issueRepository = issueRepository;
+        this.userRepository = userRepository;
+        this.channel = channel;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.digestWindow = digestWindow;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.claimTimeout = claimTimeout;
+        this.retention = retention;
+
+        this.sent = digestCounter(meterRegistry, "sent");
+        this.retried = digestCounter(meterRegistry, "retried");
+        this.failed = digestCounter(meterRegistry, "failed");
+    }
+
+    private static Counter digestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("notifications.digests")
+                .description("Notification digests by outcome of an attempt")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.poll-interval-ms:5000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            fanOut();
+            sendDue();
+        } catch (RuntimeException e) {
+            logger.warn("Notification digest failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.cleanup-interval-ms:3600000}")
+    public void cleanUp() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    notificationRepository.deleteFinishedBefore(cutoff, CLEANUP_BATCH_SIZE));
+            total += deleted != null ? deleted : 0;
+            if (deleted == null || deleted < CLEANUP_BATCH_SIZE) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Removed {} sent or failed notifications", total);
+        }
+    }
+
+    private void fanOut() {
+        while (true) {
+            Integer notified = transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = eventRepository.findUnnotified(PageRequest.of(0, FAN_OUT_BATCH_SIZE));
+                if (events.isEmpty()) {
+                    return 0;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                List<JsonNode> payloads = events.stream().map(this::parse).toList();
+                autoWatch(events, payloads, now);
+
+                Set<Long> issueIds = payloads.stream()
+                        .map(node -> node.path("issueId").asLong())
+                        .collect(Collectors.toSet());
+                Map<Long, List<Long>> watchers = new HashMap<>();
+                for (Object[] row : watcherRepository.findUserIdsByIssueIds(issueIds)) {
+                    watchers.computeIfAbsent((Long) row[0], issueId -> new ArrayList<>()).add((Long) row[1]);
+                }
+
+                List<Notification> notifications = new ArrayList<>();
+                for (int i = 0; i < events.size(); i++) {
+                    JsonNode node = payloads.get(i);
+                    Long actorId = longOrNull(node, "actorId");
+                    for (Long userId : watchers.getOrDefault(node.path("issueId").asLong(), List.of())) {
+                        if (userId.equals(actorId)) {
+                            continue;
+                        }
+                        Notification notification = new Notification();
+                        notification.setRecipient(userRepository.getReferenceById(userId));
+                        notification.setEvent(events.get(i));
+                        notification.setNextAttemptAt(now.plus(digestWindow));
+                        notifications.add(notification);
+                    }
+                    events.get(i).setNotifiedAt(now);
+                }
+                notificationRepository.saveAll(notifications);
+                return events.size();
+            });
+            if (notified == null || notified < FAN_OUT_BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+
+    // Reporters watch what they create and assignees what they are given
+    private void autoWatch(List<OutboxEvent> events, List<JsonNode> payloads, LocalDateTime now) {
+        Set<List<Long>> added = new HashSet<>();
+        for (int i = 0; i < events.size(); i++) {
+            JsonNode node = payloads.get(i);
+            Long issueId = node.path("issueId").asLong();
+            Long assigneeId = longOrNull(node, "assigneeId");
+            List<Long> userIds = new ArrayList<>();
+            switch (events.get(i).getType()) {
+                case "issue.created" -> {
+                    userIds.add(longOrNull(node, "reporterId"));
+                    userIds.add(assigneeId);
+                }
+                case "issue.updated" -> {
+                    if (assigneeId != null && !assigneeId.equals(longOrNull(node, "previousAssigneeId"))) {
+                        userIds.add(assigneeId);
+                    }
+                }
+                default -> {
+                }
+            }
+            for (Long userId : userIds) {
+                if (userId != null && added.add(List.of(issueId, userId))) {
+                    watcherRepository.insertIfAbsent(issueId, userId, now);
+                }
+            }
+        }
+    }
+
+    private void sendDue() {
+        for (int i = 0; i < MAX_BATCHES_PER_POLL; i++) {
+            Batch batch = transactionTemplate.execute(status -> claimBatch());
+            if (batch == null || batch.digests().isEmpty()) {
+                return;
+            }
+            send(batch);
+            if (batch.due() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claims the pending notifications of up to a batch of recipients with one due, and builds
+     * their digests.
+     */
+    private Batch claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> due = notificationRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return new Batch(0, List.of(), Map.of());
+        }
+        Set<Long> recipientIds = due.stream()
+                .map(notification -> notification.getRecipient().getId())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, List<Notification>> pending = new LinkedHashMap<>();
+        for (Notification notification : notificationRepository.findPendingByRecipientIds(recipientIds, now)) {
+            List<Notification> items = pending.computeIfAbsent(notification.getRecipient().getId(),
+                    recipientId -> new ArrayList<>());
+            if (items.size() < MAX_DIGEST_ITEMS) {
+                items.add(notification);
+            }
+        }
+
+        Map<Long, OutboxEvent> events = eventRepository.findAllById(pending.values().stream()
+                        .flatMap(List::stream)
+                        .map(notification -> notification.getEvent().getId())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(OutboxEvent::getId, Function.identity()));
+        Map<Long, JsonNode> data = events.values().stream()
+                .collect(Collectors.toMap(OutboxEvent::getId, this::parse));
+
+        Set<Long> userIds = new HashSet<>(pending.keySet());
+        Set<Long> issueIds = new HashSet<>();
+        for (JsonNode node : data.values()) {
+            issueIds.add(node.path("issueId").asLong());
+            addIfPresent(userIds, longOrNull(node, "actorId"));
+            addIfPresent(userIds, longOrNull(node, "assigneeId"));
+        }
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        // Deleted issues are not found and show without their title
+        Map<Long, String> titles = issueRepository.findAllById(issueIds).stream()
+                .collect(Collectors.toMap(Issue::getId, Issue::getTitle));
+
+        List<NotificationDigest> digests = new ArrayList<>();
+        for (Map.Entry<Long, List<Notification>> entry : pending.entrySet()) {
+            digests.add(digest(users.get(entry.getKey()), entry.getValue(), events, data, users, titles));
+        }
+
+        Map<Long, Claim> claims = new LinkedHashMap<>();
+        pending.forEach((recipientId, notifications) -> claims.put(recipientId, new Claim(
+                notifications.stream().map(Notification::getId).toList(),
+                notifications.stream().mapToInt(Notification::getAttempts).max().orElse(0))));
+        notificationRepository.claim(claims.values().stream().flatMap(claim -> claim.ids().stream()).toList(),
+                now.plus(claimTimeout));
+        return new Batch(due.size(), digests, claims);
+    }
+
+    // Runs with no transaction open; the outcome is recorded in a transaction of its own
+    private void send(Batch batch) {
+        List<NotificationDigest> failedDigests;
+        try {
+            failedDigests = channel.send(batch.digests());
+        } catch (RuntimeException e) {
+            logger.warn("Sending {} notification digests failed: {}", batch.digests().size(), e.getMessage());
+            failedDigests = batch.digests();
+        }
+
+        Set<Long> failedRecipients = failedDigests.stream()
+                .map(NotificationDigest::getRecipientId)
+                .collect(Collectors.toSet());
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> sentIds = new ArrayList<>();
+            for (Map.Entry<Long, Claim> entry : batch.claims().entrySet()) {
+                List<Long> ids = entry.getValue().ids();
+                if (!failedRecipients.contains(entry.getKey())) {
+                    sentIds.addAll(ids);
+                    continue;
+                }
+                int attempts = entry.getValue().attempts() + 1;
+                if (attempts >= maxAttempts) {
+                    notificationRepository.recordFailure(ids, NotificationStatus.FAILED, now, now);
+                    logger.warn("Giving up on a notification digest for user {} after {} attempts",
+                            entry.getKey(), attempts);
+                } else {
+                    notificationRepository.recordFailure(ids, NotificationStatus.PENDING,
+                            now.plus(backoff(attempts)), null);
+                }
+            }
+            if (!sentIds.isEmpty()) {
+                notificationRepository.markSent(sentIds, now);
+            }
+        });
+
+        // Counted once the outcome is recorded, as a digest whose outcome was lost is sent again
+        for (Map.Entry<Long, Claim> entry : batch.claims().entrySet()) {
+            if (!failedRecipients.contains(entry.getKey())) {
+                sent.increment();
+            } else if (entry.getValue().attempts() + 1 >= maxAttempts) {
+                failed.increment();
+            } else {
+                retried.increment();
+            }
+        }
+    }
+
+    private NotificationDigest digest(User recipient, List<Notification> notifications, Map<Long, OutboxEvent> events,
+                                      Map<Long, JsonNode> data, Map<Long, User> users, Map<Long, String> titles) {
+        // Items grouped by issue, issues in the order of their first change
+        Map<Long, List<String>> items = new LinkedHashMap<>();
+        for (Notification notification : notifications) {
+            Long eventId = notification.getEvent().getId();
+            JsonNode node = data.get(eventId);
+            items.computeIfAbsent(node.path("issueId").asLong(), issueId -> new ArrayList<>())
+                    .add(describe(events.get(eventId).getType(), node, recipient, users));
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Long, List<String>> entry : items.entrySet()) {
+            text.append('#').append(entry.getKey()).append(' ')
+                    .append(titles.getOrDefault(entry.getKey(), "(deleted)")).append('\n');
+            for (String item : entry.getValue()) {
+                text.append("  - ").append(item).append('\n');
+            }
+            text.append('\n');
+        }
+        String subject = plural(notifications.size(), "update") + " on "
+                + plural(items.size(), "issue") + " you watch";
+        return new NotificationDigest(recipient.getId(), recipient.getEmail(), subject, text.toString().stripTrailing());
+    }
+
+    private static String describe(String type, JsonNode node, User recipient, Map<Long, User> users) {
+        String by = " by " + username(longOrNull(node, "actorId"), users);
+        Long assigneeId = longOrNull(node, "assigneeId");
+        String assignee = recipient.getId().equals(assigneeId) ? "you" : username(assigneeId, users);
+        return switch (type) {
+            case "issue.created" -> "created" + by + (assigneeId != null ? ", assigned to " + assignee : "");
+            case "issue.updated" -> {
+                List<String> changes = new ArrayList<>();
+                String status = node.path("status").asText(null);
+                String previousStatus = node.path("previousStatus").asText(null);
+                if (status != null && !status.equals(previousStatus)) {
+                    changes.add("status " + previousStatus + " -> " + status);
+                }
+                if (assigneeId != null && !assigneeId.equals(longOrNull(node, "previousAssigneeId"))) {
+                    changes.add("assigned to " + assignee);
+                } else if (assigneeId == null && longOrNull(node, "previousAssigneeId") != null) {
+                    changes.add("unassigned");
+                }
+                yield (changes.isEmpty() ? "updated" : String.join(", ", changes)) + by;
+            }
+            case "issue.deleted" -> "deleted" + by;
+            case "issue.restored" -> "restored" + by;
+            case "comment.created" -> "new comment" + by;
+            case "comment.updated" -> "comment edited" + by;
+            case "comment.deleted" -> "comment deleted" + by;
+            default -> type + by;
+        };
+    }
+
+    private static String username(Long userId, Map<Long, User> users) {
+        User user = userId != null ? users.get(userId) : null;
+        return user != null ? user.getUsername() : "someone";
+    }
+
+    private static String plural(int count, String noun) {
+        return count + " " + noun + (count == 1 ? "" : "s");
+    }
+
+    private Duration backoff(int attempts) {
+        return retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+    }
+
+    private JsonNode parse(OutboxEvent event) {
+        try {
+            return objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox event " + event.getId(), e);
+        }
+    }
+
+    private static Long longOrNull(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        return value.isNumber() ? value.asLong() : null;
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    // Digests built from claimed notifications, with what is needed to record their outcome
+    private record Batch(int due, List<NotificationDigest> digests, Map<Long, Claim> claims) {
+    }
+
+    private record Claim(List<Long> ids, int attempts) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.issuetracker.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Sends digests as plain-text mail through {@code notifications.smtp}. A batch goes over a single
+ * SMTP connection; a recipient the server rejects fails only their own digest.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.channel", havingValue = "smtp")
+public class SmtpNotificationChannel implements NotificationChannel {
+
+    private final JavaMailSenderImpl mailSender;
+    private final String from;
+
+    public SmtpNotificationChannel(@Value("${notifications.smtp.host:localhost}") String host,
+                                   @Value("${notifications.smtp.port:25}") int port,
+                                   @Value("${notifications.smtp.username:}") String username,
+                                   @Value("${notifications.smtp.password:}") String password,
+                                   @Value("${notifications.smtp.starttls:false}") boolean starttls,
+                                   @Value("${notifications.smtp.timeout:10s}") Duration timeout,
+                                   @Value("${notifications.from:issue-tracker@localhost}") String from) {
+        this.mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(host);
+        mailSender.setPort(port);
+        mailSender.setDefaultEncoding("UTF-8");
+        Properties properties = mailSender.getJavaMailProperties();
+        if (!username.isEmpty()) {
+            mailSender.setUsername(username);
+            mailSender.setPassword(password);
+            properties.put("mail.smtp.auth", "true");
+        }
+        properties.put("mail.smtp.starttls.enable", String.valueOf(starttls));
+        properties.put("mail.smtp.starttls.required", String.valueOf(starttls));
+        // Without these a hanging server would hold the digester forever
+        String millis = String.valueOf(timeout.toMillis());
+        properties.put("mail.smtp.connectiontimeout", millis);
+        properties.put("mail.smtp.timeout", millis);
+        properties.put("mail.smtp.writetimeout", millis);
+        this.from = from;
+    }
+
+    @Override
+    public List<NotificationDigest> send(List<NotificationDigest> digests) {
+        if (digests.isEmpty()) {
+            return List.of();
+        }
+        Map<SimpleMailMessage, NotificationDigest> messages = new IdentityHashMap<>();
+        for (NotificationDigest digest : digests) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(from);
+            message.setTo(digest.getEmail());
+            message.setSubject(digest.getSubject());
+            message.setText(digest.getText());
+            messages.put(message, digest);
+        }
+        try {
+            mailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+            return List.of();
+        } catch (MailSendException e) {
+            // Per-message failures; without them, e.g. when connecting failed, the whole batch did
+            List<NotificationDigest> failed = new ArrayList<>();
+            for (Object message : e.getFailedMessages().keySet()) {
+                NotificationDigest digest = messages.get(message);
+                if (digest != null) {
+                    failed.add(digest);
+                }
+            }
+            if (failed.isEmpty() || failed.size() == digests.size()) {
+                throw e;
+            }
+            return failed;
+        }
+    }
+}
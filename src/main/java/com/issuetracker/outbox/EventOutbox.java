@@ -0,0 +1,177 @@
+package com.issuetracker.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuetracker.event.CommentChangedEvent;
+import com.issuetracker.event.IssueChangedEvent;
+import com.issuetracker.event.IssueChangedEvent.ChangeType;
+import com.issuetracker.model.OutboxEvent;
+import com.issuetracker.notification.NotificationDigester;
+import com.issuetracker.repository.OutboxEventRepository;
+import com.issuetracker.security.UserDetailsImpl;
+import com.issuetracker.webhook.WebhookDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes issue and comment changes to the outbox. The listeners run synchronously inside the
+ * transaction of {@code IssueService} or {@code CommentService}, so an event is recorded if and
+ * only if its change commits, and recording it costs that transaction one insert. Everything else
+ * happens later, off the request path: {@link WebhookDispatcher} relays events to webhooks and
+ * {@link NotificationDigester} turns them into notifications for the issue's watchers. A consumer
+ * with nothing to do for an event finds it already marked as processed; nothing is written at all
+ * while no active webhook subscribes to the type and notifications are off.
+ *
+ * <p>Events carry ids, the acting user and the status and assignee change, not the issue itself;
+ * receivers fetch what they need, e.g. through {@code GET /api/issues?ids=}.
+ */
+@Component
+public class EventOutbox {
+    private static final Logger logger = LoggerFactory.getLogger(EventOutbox.class);
+
+    public static final List<String> EVENT_TYPES = List.of(
+            "issue.created", "issue.updated", "issue.deleted", "issue.restored",
+            "comment.created", "comment.updated", "comment.deleted");
+
+    // Old events removed per cleanup statement
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+
+    private final OutboxEventRepository eventRepository;
+    private final WebhookDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean notificationsEnabled;
+    private final Duration retention;
+
+    public EventOutbox(OutboxEventRepository eventRepository,
+                       WebhookDispatcher dispatcher,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${notifications.enabled:true}") boolean notificationsEnabled,
+                       @Value("${outbox.retention:1d}") Duration retention) {
+        this.eventRepository = eventRepository;
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationsEnabled = notificationsEnabled;
+        this.retention = retention;
+    }
+
+    @EventListener
+    public void onIssueChanged(IssueChangedEvent event) {
+        String type = type("issue", event.getType());
+        if (!isWanted(type)) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("issueId", event.getIssueId());
+        data.put("actorId", currentUserId());
+        data.put("status", event.getStatus());
+        data.put("previousStatus", event.getPreviousStatus());
+        data.put("assigneeId", event.getAssigneeId());
+        data.put("previousAssigneeId", event.getPreviousAssigneeId());
+        data.put("reporterId", event.getReporterId());
+        record(type, data);
+    }
+
+    @EventListener
+    public void onCommentChanged(CommentChangedEvent event) {
+        String type = type("comment", event.getType());
+        if (!isWanted(type)) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("issueId", event.getIssueId());
+        data.put("actorId", currentUserId());
+        data.put("commentId", event.getCommentId());
+        record(type, data);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval-ms:3600000}")
+    public void cleanUp() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    eventRepository.deleteProcessedBefore(cutoff, CLEANUP_BATCH_SIZE));
+            total += deleted != null ? deleted : 0;
+            if (deleted == null || deleted < CLEANUP_BATCH_SIZE) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Removed {} processed outbox events", total);
+        }
+    }
+
+    private boolean isWanted(String type) {
+        return notificationsEnabled || dispatcher.isSubscribed(type);
+    }
+
+    private void record(String type, Map<String, Object> data) {
+        boolean relay = dispatcher.isSubscribed(type);
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox event", e);
+        }
+        event.setRelayedAt(relay ? null : now);
+        event.setNotifiedAt(notificationsEnabled ? null : now);
+        eventRepository.save(event);
+
+        // Deliver right after the commit instead of on the next poll; digests wait for their
+        // window anyway
+        if (relay && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.wakeUp();
+                }
+            });
+        }
+    }
+
+    /**
+     * The event types in a webhook's comma-separated {@code events} column.
+     */
+    public static Set<String> parseTypes(String events) {
+        return Arrays.stream(events.split(","))
+                .map(String::trim)
+                .filter(type -> !type.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails
+                ? userDetails.getId() : null;
+    }
+
+    private static String type(String entity, ChangeType change) {
+        return entity + "." + change.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,12 +1,27 @@
 package com.issuetracker.repository;
 
 import com.issuetracker.model.Attachment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
 public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
     List<Attachment> findByIssueIdOrderByUploadedAtDesc(Long issueId);
+
+    // Purge batches, keyset-ordered by id
+    List<Attachment> findByIssueIdAndIdGreaterThanOrderByIdAsc(Long issueId, Long afterId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Attachment a SET a.thumbnailPath = :thumbnailPath, a.previewPath = :previewPath WHERE a.id = :id")
+    int updateDerivatives(@Param("id") Long id,
+                          @Param("thumbnailPath") String thumbnailPath,
+                          @Param("previewPath") String previewPath);
 }
@@ -4,10 +4,19 @@ import com.issuetracker.model.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     Page<Comment> findByIssueIdOrderByCreatedAtDesc(Long issueId, Pageable pageable);
     long countByIssueId(Long issueId);
+
+    // Purge batches: the next ids of an issue's comments after afterId, in id order
+    @Query("SELECT c.id FROM Comment c WHERE c.issue.id = :issueId AND c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsByIssueIdAfter(@Param("issueId") Long issueId, @Param("afterId") Long afterId,
+                                     Pageable pageable);
 }
@@ -3,10 +3,15 @@ package com.issuetracker.repository;
 import com.issuetracker.model.Issue;
 import com.issuetracker.model.Issue.IssueStatus;
 import com.issuetracker.model.Issue.IssuePriority;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,7 +19,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface IssueRepository extends JpaRepository<Issue, Long> {
+public interface IssueRepository extends JpaRepository<Issue, Long>, JpaSpecificationExecutor<Issue> {
     // Paginated queries
     Page<Issue> findAll(Pageable pageable);
     Page<Issue> findByStatus(IssueStatus status, Pageable pageable);
@@ -22,6 +27,29 @@ public interface IssueRepository extends JpaRepository<Issue, Long> {
     Page<Issue> findByReporterId(Long reporterId, Pageable pageable);
     Page<Issue> findByAssigneeId(Long assigneeId, Pageable pageable);
     
+    // Inbox queries: keyset-paginated on (createdAt, id), newest first
+    @Query("SELECT i FROM Issue i JOIN FETCH i.reporter LEFT JOIN FETCH i.assignee " +
+           "WHERE i.reporter.id = :userId AND (:status IS NULL OR i.status = :status) " +
+           "AND (i.createdAt < :createdAt OR (i.createdAt = :createdAt AND i.id < :id)) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Issue> findReportedInboxPage(@Param("userId") Long userId, @Param("status") IssueStatus status,
+                                      @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                      Pageable pageable);
+
+    @Query("SELECT i FROM Issue i JOIN FETCH i.reporter LEFT JOIN FETCH i.assignee " +
+           "WHERE i.assignee.id = :userId AND (:status IS NULL OR i.status = :status) " +
+           "AND (i.createdAt < :createdAt OR (i.createdAt = :createdAt AND i.id < :id)) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Issue> findAssignedInboxPage(@Param("userId") Long userId, @Param("status") IssueStatus status,
+                                      @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                      Pageable pageable);
+
+    @Query("SELECT i.status, COUNT(i) FROM Issue i WHERE i.reporter.id = :userId GROUP BY i.status")
+    List<Object[]> countByStatusForReporter(@Param("userId") Long userId);
+
+    @Query("SELECT i.status, COUNT(i) FROM Issue i WHERE i.assignee.id = :userId GROUP BY i.status")
+    List<Object[]> countByStatusForAssignee(@Param("userId") Long userId);
+
     // Search functionality
     @Query("SELECT i FROM Issue i WHERE " +
            "LOWER(i.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -45,4 +73,77 @@ public interface IssueRepository extends JpaRepository<Issue, Long> {
     
     @Query("SELECT AVG(TIMESTAMPDIFF(HOUR, i.createdAt, i.resolvedAt)) FROM Issue i WHERE i.status = 'RESOLVED' AND i.resolvedAt IS NOT NULL")
     Double getAverageResolutionTimeInHours();
+
+    /**
+     * Query space for native statements that change single issue rows in place. No entity is
+     * mapped to it, so Hibernate invalidates nothing for them, where the {@code issues} space
+     * (or bulk HQL on Issue) would empty the whole Issue cache region on every comment. Callers
+     * evict the one row with {@link com.issuetracker.cache.CacheInvalidationBroadcaster#evictUpdated}.
+     */
+    String IN_PLACE_SPACE = "issues_in_place";
+
+    // Activity counters, changed in place so concurrent comments and uploads never lose an update
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = IN_PLACE_SPACE))
+    @Query(value = "UPDATE issues SET comment_count = comment_count + 1, last_activity_at = :at WHERE id = :id",
+           nativeQuery = true)
+    int incrementCommentCount(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = IN_PLACE_SPACE))
+    @Query(value = "UPDATE issues SET comment_count = comment_count - 1 WHERE id = :id AND comment_count > 0",
+           nativeQuery = true)
+    int decrementCommentCount(@Param("id") Long id);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = IN_PLACE_SPACE))
+    @Query(value = "UPDATE issues SET attachment_count = attachment_count + 1, last_activity_at = :at WHERE id = :id",
+           nativeQuery = true)
+    int incrementAttachmentCount(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = IN_PLACE_SPACE))
+    @Query(value = "UPDATE issues SET attachment_count = attachment_count - 1 WHERE id = :id AND attachment_count > 0",
+           nativeQuery = true)
+    int decrementAttachmentCount(@Param("id") Long id);
+
+    // Recounts one id range, touching only the rows whose counters drifted
+    @Modifying
+    @Query("UPDATE Issue i SET " +
+           "i.commentCount = (SELECT COUNT(c) FROM Comment c WHERE c.issue.id = i.id), " +
+           "i.attachmentCount = (SELECT COUNT(a) FROM Attachment a WHERE a.issue.id = i.id) " +
+           "WHERE i.id BETWEEN :fromId AND :toId AND (" +
+           "i.commentCount <> (SELECT COUNT(c) FROM Comment c WHERE c.issue.id = i.id) OR " +
+           "i.attachmentCount <> (SELECT COUNT(a) FROM Attachment a WHERE a.issue.id = i.id))")
+    int repairActivityCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT MIN(i.id), MAX(i.id) FROM Issue i")
+    List<Object[]> findIdRange();
+
+    // Soft delete. Tombstoned rows are invisible to JPQL (see Issue's @SQLRestriction), so
+    // restoring and purging them needs native SQL. A purged row was evicted when it was
+    // tombstoned and can't have been loaded since, so the purge invalidates nothing either.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = IN_PLACE_SPACE))
+    @Query(value = "UPDATE issues SET deleted_at = :at WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int markDeleted(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = IN_PLACE_SPACE))
+    @Query(value = "UPDATE issues SET deleted_at = NULL WHERE id = :id AND deleted_at >= :notBefore",
+           nativeQuery = true)
+    int restoreDeleted(@Param("id") Long id, @Param("notBefore") LocalDateTime notBefore);
+
+    @Query(value = "SELECT id FROM issues WHERE deleted_at < :cutoff ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findDeletedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = IN_PLACE_SPACE))
+    @Query(value = "DELETE FROM issues WHERE id = :id AND deleted_at < :cutoff", nativeQuery = true)
+    int purgeDeleted(@Param("id") Long id, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = IN_PLACE_SPACE))
+    @Query(value = "DELETE FROM issue_labels WHERE issue_id = :id", nativeQuery = true)
+    int purgeLabels(@Param("id") Long id);
 }
@@ -0,0 +1,176 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.index.LabelExpression;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.Issue.IssuePriority;
+import com.issuetracker.model.Issue.IssueStatus;
+import com.issuetracker.model.Label;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Building blocks for {@link IssueRepository#findAll(Specification, org.springframework.data.domain.Pageable)}.
+ * Every factory returns {@code null} when its criterion is absent, which {@link Specification#and}
+ * treats as "no restriction", so callers can chain them unconditionally.
+ */
+public final class IssueSpecifications {
+
+    private IssueSpecifications() {
+    }
+
+    /**
+     * Join-fetches reporter and assignee for the page query. Skipped for the count query,
+     * where a fetch join is not allowed and not needed.
+     */
+    public static Specification<Issue> fetchUsers() {
+        return (root, query, cb) -> {
+            Class<?> resultType = query.getResultType();
+            if (resultType != Long.class && resultType != long.class) {
+                root.fetch("reporter", JoinType.INNER);
+                root.fetch("assignee", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Issue> statusIn(Collection<IssueStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Issue> priorityIn(Collection<IssuePriority> priorities) {
+        if (priorities == null || priorities.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("priority").in(priorities);
+    }
+
+    public static Specification<Issue> assignedTo(Long assigneeId) {
+        if (assigneeId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("assignee").get("id"), assigneeId);
+    }
+
+    public static Specification<Issue> unassigned(Boolean unassigned) {
+        if (!Boolean.TRUE.equals(unassigned)) {
+            return null;
+        }
+        return (root, query, cb) -> cb.isNull(root.get("assignee"));
+    }
+
+    public static Specification<Issue> reportedBy(Long reporterId) {
+        if (reporterId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("reporter").get("id"), reporterId);
+    }
+
+    public static Specification<Issue> createdBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThan(root.get("createdAt"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(root.get("createdAt"), from), cb.lessThan(root.get("createdAt"), to));
+        };
+    }
+
+    public static Specification<Issue> matchesText(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + text.trim().toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("title")), pattern, '\\'),
+                cb.like(cb.lower(root.get("description")), pattern, '\\'));
+    }
+
+    /**
+     * Same match as {@link IssueRepository#searchIssues}, for aggregating over its results.
+     */
+    public static Specification<Issue> searchTerm(String term) {
+        String pattern = "%" + term.toLowerCase(Locale.ROOT) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("title")), pattern),
+                cb.like(cb.lower(root.get("description")), pattern));
+    }
+
+    /**
+     * About {@code fraction} of the ids in {@code [minId, maxId]}, as {@code slices} evenly spread
+     * ranges: a sample the database reads through the primary key instead of visiting every
+     * matching row, spread out so that old and new issues are both in it.
+     */
+    public static Specification<Issue> idSample(long minId, long maxId, double fraction, int slices) {
+        long span = maxId - minId + 1;
+        long sampledSpan = (long) Math.ceil(span * fraction);
+        if (sampledSpan >= span) {
+            return null;
+        }
+        int count = (int) Math.min(slices, Math.max(1, sampledSpan));
+        long width = Math.max(1, sampledSpan / count);
+        long stride = span / count;
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate[] ranges = new Predicate[count];
+            for (int i = 0; i < count; i++) {
+                long from = minId + i * stride;
+                ranges[i] = cb.between(id, from, from + width - 1);
+            }
+            return cb.or(ranges);
+        };
+    }
+
+    public static Specification<Issue> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * SQL form of a label expression, one {@code EXISTS} per label. Used when the query also
+     * filters on something {@code IssueBitmapIndex} does not hold, or the index is not built yet.
+     */
+    public static Specification<Issue> labelsMatch(LabelExpression expression) {
+        if (expression == null) {
+            return null;
+        }
+        return (root, query, cb) -> toPredicate(expression, root, query, cb);
+    }
+
+    private static Predicate toPredicate(LabelExpression expression, Root<Issue> root, CriteriaQuery<?> query,
+                                         CriteriaBuilder cb) {
+        if (expression instanceof LabelExpression.Term term) {
+            Subquery<Long> labeled = query.subquery(Long.class);
+            Root<Issue> issue = labeled.correlate(root);
+            Join<Issue, Label> label = issue.join("labels");
+            labeled.select(label.get("id")).where(cb.equal(label.get("name"), term.name()));
+            return cb.exists(labeled);
+        }
+        if (expression instanceof LabelExpression.Not not) {
+            return cb.not(toPredicate(not.operand(), root, query, cb));
+        }
+        if (expression instanceof LabelExpression.And and) {
+            return cb.and(toPredicate(and.left(), root, query, cb), toPredicate(and.right(), root, query, cb));
+        }
+        LabelExpression.Or or = (LabelExpression.Or) expression;
+        return cb.or(toPredicate(or.left(), root, query, cb), toPredicate(or.right(), root, query, cb));
+    }
+}
@@ -0,0 +1,26 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.Label;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LabelRepository extends JpaRepository<Label, Long> {
+    Optional<Label> findByName(String name);
+    List<Label> findByNameIn(Collection<String> names);
+    List<Label> findAllByOrderByNameAsc();
+
+    // Live issues per label, for when the label index is not built yet
+    @Query("SELECT l.name, COUNT(i) FROM Issue i JOIN i.labels l GROUP BY l.name")
+    List<Object[]> countIssuesByLabel();
+
+    // Label names of several issues in one query, for mapping outside a transaction
+    @Query("SELECT i.id, l.name FROM Issue i JOIN i.labels l WHERE i.id IN :issueIds")
+    List<Object[]> findNamesByIssueIds(@Param("issueIds") Collection<Long> issueIds);
+}
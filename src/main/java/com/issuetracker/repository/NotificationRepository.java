@@ -0,0 +1,63 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.Notification;
+import com.issuetracker.model.Notification.NotificationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    // Due notifications not claimed by a digest being sent, earliest first; rows another instance
+    // is claiming right now are skipped, not waited for
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.status = 'PENDING' AND n.nextAttemptAt <= :now " +
+           "AND (n.claimedUntil IS NULL OR n.claimedUntil <= :now) ORDER BY n.nextAttemptAt, n.id")
+    List<Notification> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // What else a digest takes along: never-tried notifications still in their window, but not
+    // failed ones still backing off, nor ones in another digest being sent
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id IN :recipientIds AND n.status = 'PENDING' " +
+           "AND (n.nextAttemptAt <= :now OR n.attempts = 0) AND (n.claimedUntil IS NULL OR n.claimedUntil <= :now) " +
+           "ORDER BY n.recipient.id, n.id")
+    List<Notification> findPendingByRecipientIds(@Param("recipientIds") Collection<Long> recipientIds,
+                                                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.claimedUntil = :until WHERE n.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'SENT', n.attempts = n.attempts + 1, n.sentAt = :at, " +
+           "n.claimedUntil = NULL WHERE n.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.attempts = n.attempts + 1, n.nextAttemptAt = :nextAttemptAt, " +
+           "n.sentAt = :sentAt, n.claimedUntil = NULL WHERE n.id IN :ids")
+    int recordFailure(@Param("ids") Collection<Long> ids, @Param("status") NotificationStatus status,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notifications"))
+    @Query(value = "DELETE FROM notifications WHERE id IN (SELECT id FROM notifications " +
+                   "WHERE status <> 'PENDING' AND sent_at < :cutoff LIMIT :limit)",
+           nativeQuery = true)
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,43 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Events not relayed to webhooks yet, locked; rows another instance is relaying are skipped, not waited for
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.relayedAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> findUnrelayed(Pageable pageable);
+
+    // Likewise for events not turned into notifications yet
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.notifiedAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> findUnnotified(Pageable pageable);
+
+    // Events both consumers are done with and that no delivery or notification refers to any more
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox_events"))
+    @Query(value = "DELETE FROM outbox_events WHERE id IN (SELECT e.id FROM outbox_events e " +
+                   "WHERE e.created_at < :cutoff AND e.relayed_at IS NOT NULL AND e.notified_at IS NOT NULL " +
+                   "AND NOT EXISTS (SELECT 1 FROM webhook_deliveries d WHERE d.event_id = e.id) " +
+                   "AND NOT EXISTS (SELECT 1 FROM notifications n WHERE n.event_id = e.id) LIMIT :limit)",
+           nativeQuery = true)
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,47 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.User;
+import com.issuetracker.model.Watcher;
+import com.issuetracker.model.Watcher.WatcherId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WatcherRepository extends JpaRepository<Watcher, WatcherId> {
+
+    @Query("SELECT u FROM User u WHERE u.id IN " +
+           "(SELECT w.id.userId FROM Watcher w WHERE w.id.issueId = :issueId) ORDER BY u.username")
+    List<User> findWatchingUsers(@Param("issueId") Long issueId);
+
+    // Watchers of several issues in one query, as (issue id, user id) pairs
+    @Query("SELECT w.id.issueId, w.id.userId FROM Watcher w WHERE w.id.issueId IN :issueIds")
+    List<Object[]> findUserIdsByIssueIds(@Param("issueIds") Collection<Long> issueIds);
+
+    // Idempotent, also when two transactions add the same watcher at once; no-op for a purged issue
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "issue_watchers"))
+    @Query(value = "INSERT INTO issue_watchers (issue_id, user_id, created_at) " +
+                   "SELECT :issueId, :userId, :at WHERE EXISTS (SELECT 1 FROM issues WHERE id = :issueId) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("issueId") Long issueId, @Param("userId") Long userId, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("DELETE FROM Watcher w WHERE w.id.issueId = :issueId AND w.id.userId = :userId")
+    int deleteByIssueIdAndUserId(@Param("issueId") Long issueId, @Param("userId") Long userId);
+
+    // Part of purging an issue, which IssueRepository does in native SQL
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "issue_watchers"))
+    @Query(value = "DELETE FROM issue_watchers WHERE issue_id = :issueId", nativeQuery = true)
+    int purgeByIssueId(@Param("issueId") Long issueId);
+}
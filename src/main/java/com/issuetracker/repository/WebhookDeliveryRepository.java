@@ -0,0 +1,75 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.WebhookDelivery;
+import com.issuetracker.model.WebhookDelivery.DeliveryStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+
+    // Due deliveries of one webhook, locked until the caller has leased them; rows another
+    // instance is claiming are skipped, not waited for
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT d FROM WebhookDelivery d WHERE d.webhook.id = :webhookId AND d.status = 'PENDING' " +
+           "AND d.nextAttemptAt <= :now ORDER BY d.nextAttemptAt, d.id")
+    List<WebhookDelivery> findDue(@Param("webhookId") Long webhookId, @Param("now") LocalDateTime now,
+                                  Pageable pageable);
+
+    // Claims pending deliveries, or hands them back, by moving when they are next due
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.nextAttemptAt = :until WHERE d.id IN :ids AND d.status = 'PENDING'")
+    int postpone(@Param("ids") Collection<Long> ids, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = 'DELIVERED', d.attempts = d.attempts + 1, " +
+           "d.deliveredAt = :at, d.lastError = NULL WHERE d.id IN :ids")
+    int markDelivered(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = :status, d.attempts = d.attempts + 1, " +
+           "d.nextAttemptAt = :nextAttemptAt, d.lastError = :error WHERE d.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("status") DeliveryStatus status,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @EntityGraph(attributePaths = "event")
+    Page<WebhookDelivery> findByWebhookIdAndStatusOrderByIdDesc(Long webhookId, DeliveryStatus status,
+                                                                Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = 'PENDING', d.attempts = 0, d.nextAttemptAt = :at, " +
+           "d.lastError = NULL WHERE d.webhook.id = :webhookId AND d.status = 'DEAD'")
+    int redeliverDead(@Param("webhookId") Long webhookId, @Param("at") LocalDateTime at);
+
+    // Pending and dead deliveries per webhook and status
+    @Query("SELECT d.webhook.id, d.status, COUNT(d) FROM WebhookDelivery d WHERE d.webhook.id IN :webhookIds " +
+           "AND d.status <> 'DELIVERED' GROUP BY d.webhook.id, d.status")
+    List<Object[]> countUndeliveredByWebhook(@Param("webhookIds") Collection<Long> webhookIds);
+
+    @Modifying
+    @Query("DELETE FROM WebhookDelivery d WHERE d.webhook.id = :webhookId")
+    int deleteByWebhookId(@Param("webhookId") Long webhookId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "webhook_deliveries"))
+    @Query(value = "DELETE FROM webhook_deliveries WHERE id IN (SELECT id FROM webhook_deliveries " +
+                   "WHERE status = 'DELIVERED' AND delivered_at < :cutoff LIMIT :limit)",
+           nativeQuery = true)
+    int deleteDeliveredBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,14 @@
+package com.issuetracker.repository;
+
+import com.issuetracker.model.Webhook;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WebhookRepository extends JpaRepository<Webhook, Long> {
+    List<Webhook> findByActiveTrue();
+    List<Webhook> findByOwnerIdOrderByIdAsc(Long ownerId);
+    long countByOwnerId(Long ownerId);
+}
@@ -0,0 +1,106 @@
+package com.issuetracker.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load shedding in front of authentication. Each {@link EndpointClass} gets its own
+ * {@link GradientLimit}, so a login storm saturating the CPU with bcrypt only throttles logins,
+ * and a slow database shrinks the read and write limits instead of letting requests queue in
+ * Tomcat until they time out. Requests over the limit are rejected immediately with 503.
+ *
+ * <p>Limits can be tuned per class with {@code concurrency.adaptive.<class>.initial-limit},
+ * {@code min-limit} and {@code max-limit}.
+ */
+@Component
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyFilter.class);
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Map<EndpointClass, GradientLimit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+
+    public AdaptiveConcurrencyFilter(Environment environment, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.enabled = environment.getProperty("concurrency.adaptive.enabled", Boolean.class, true);
+        this.objectMapper = objectMapper;
+
+        double tolerance = environment.getProperty("concurrency.adaptive.rtt-tolerance", Double.class, 1.5);
+        Duration window = environment.getProperty("concurrency.adaptive.window", Duration.class, Duration.ofMillis(500));
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            // Logins are CPU-bound (bcrypt), so their ceiling follows the core count
+            int[] defaults = switch (endpointClass) {
+                case AUTH -> new int[]{cores, 1, 4 * cores};
+                case READ -> new int[]{20, 4, 400};
+                case WRITE -> new int[]{10, 2, 200};
+                case UPLOAD -> new int[]{4, 1, 32};
+            };
+            String prefix = "concurrency.adaptive." + endpointClass.name().toLowerCase() + ".";
+            GradientLimit limit = new GradientLimit(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, defaults[0]),
+                    environment.getProperty(prefix + "min-limit", Integer.class, defaults[1]),
+                    environment.getProperty(prefix + "max-limit", Integer.class, defaults[2]),
+                    tolerance, window.toNanos());
+            limits.put(endpointClass, limit);
+
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder("http.server.concurrency.limit", limit, GradientLimit::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("http.server.concurrency.in.flight", limit, GradientLimit::getInFlight)
+                    .description("Requests currently admitted")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejections.put(endpointClass, Counter.builder("http.server.concurrency.rejected")
+                    .description("Requests rejected by the adaptive concurrency limit")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || EndpointClass.classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.classify(request);
+        GradientLimit limit = limits.get(endpointClass);
+
+        int inFlight = limit.tryAcquire();
+        if (inFlight < 0) {
+            rejections.get(endpointClass).increment();
+            logger.debug("Shed {} {}: {} limit {} reached", request.getMethod(), request.getRequestURI(),
+                    endpointClass, limit.getLimit());
+            ServiceUnavailableResponse.write(response, objectMapper, 1);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long now = System.nanoTime();
+            limit.release(inFlight, now - start, now);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.issuetracker.monitoring.RequestProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +27,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -31,10 +35,11 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         // #region agent log
         try { java.nio.file.Files.write(java.nio.file.Paths.get("/app/debug.log"), (new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(java.util.Map.of("sessionId","debug-session","hypothesisId","A,B,D","location","AuthTokenFilter.java:31","message","Request intercepted","data",java.util.Map.of("requestUri",request.getRequestURI(),"method",request.getMethod(),"hasAuthHeader",request.getHeader("Authorization")!=null),"timestamp",System.currentTimeMillis()))+"\n").getBytes(), java.nio.file.StandardOpenOption.CREATE, java.nio.file.StandardOpenOption.APPEND); } catch(Exception e) {}
         // #endregion
+        long authStart = System.nanoTime();
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
+            String username = jwt != null ? verify(jwt) : null;
+            if (username != null) {
 
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -52,10 +57,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             try { java.nio.file.Files.write(java.nio.file.Paths.get("/app/debug.log"), (new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(java.util.Map.of("sessionId","debug-session","hypothesisId","E","location","AuthTokenFilter.java:44","message","Authentication error","data",java.util.Map.of("error",e.getMessage()),"timestamp",System.currentTimeMillis()))+"\n").getBytes(), java.nio.file.StandardOpenOption.CREATE, java.nio.file.StandardOpenOption.APPEND); } catch(Exception ex) {}
             // #endregion
         }
+        RequestProfile.recordAuth(System.nanoTime() - authStart);
 
         filterChain.doFilter(request, response);
     }
 
+    private String verify(String jwt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String username = jwtUtils.validateJwtToken(jwt) ? jwtUtils.getUsernameFromJwtToken(jwt) : null;
+        sample.stop(meterRegistry.timer("auth.jwt.verification", "outcome", username != null ? "valid" : "invalid"));
+        return username;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
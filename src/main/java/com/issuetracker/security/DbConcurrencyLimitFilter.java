@@ -0,0 +1,75 @@
+package com.issuetracker.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits at most a fixed number of concurrent API requests, sized to the JDBC pool. With virtual
+ * threads Tomcat no longer caps concurrency, so without this every excess request would queue
+ * inside Hikari until its connection timeout. Here they wait briefly for a permit and are then
+ * turned away with 503, before authentication (which itself reads the database) runs.
+ */
+@Component
+public class DbConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(DbConcurrencyLimitFilter.class);
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final ObjectMapper objectMapper;
+
+    public DbConcurrencyLimitFilter(
+            @Value("${concurrency.db-limit.enabled:false}") boolean enabled,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${concurrency.db-limit.permits-per-connection:2}") int permitsPerConnection,
+            @Value("${concurrency.db-limit.max-wait:500ms}") Duration maxWait,
+            ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.maxConcurrent = Math.max(1, poolSize * permitsPerConnection);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || EndpointClass.classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            logger.debug("Rejected {} {}: all {} database permits in use", request.getMethod(),
+                    request.getRequestURI(), maxConcurrent);
+            ServiceUnavailableResponse.write(response, objectMapper, 1);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.issuetracker.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Coarse request classes used for admission control. Requests that are not classified (health
+ * checks, preflights, static resources and streaming downloads) are never limited.
+ */
+public enum EndpointClass {
+    AUTH, READ, WRITE, UPLOAD;
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    // Streaming endpoints hold the request open long after their single metadata query
+    private static final List<String> STREAMING_PATHS = List.of(
+            "/api/attachments/*/download", "/api/attachments/*/thumbnail", "/api/issues/*/attachments.zip");
+
+    // Reads that take their arguments in a POST body
+    private static final List<String> POST_READ_PATHS = List.of("/api/issues/batch");
+
+    public static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (!path.startsWith("/api/") || path.equals("/api/health") || "OPTIONS".equals(method)) {
+            return null;
+        }
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return STREAMING_PATHS.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path)) ? null : READ;
+        }
+        if ("POST".equals(method) && POST_READ_PATHS.contains(path)) {
+            return READ;
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.startsWith("multipart/")) {
+            return UPLOAD;
+        }
+        return WRITE;
+    }
+}
@@ -0,0 +1,105 @@
+package com.issuetracker.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit derived from observed latency, after the Gradient2 algorithm of Netflix's
+ * concurrency-limits. Request latencies are averaged per window; a slow exponential average of
+ * those windows is the baseline. While recent latency stays within {@code tolerance} of the
+ * baseline the limit grows by about sqrt(limit) per window; once requests start queueing and
+ * latency rises, the limit shrinks in proportion (at most halving per window).
+ */
+public class GradientLimit {
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOWS = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    // Guarded by this
+    private double longRtt;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, long windowNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = windowNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Reserves a slot, or returns -1 when the limit is reached. Otherwise returns the number of
+     * requests in flight including this one, to be handed back to {@link #release}.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    public void release(int inFlightAtStart, long rttNanos, long nowNanos) {
+        inFlight.decrementAndGet();
+        onSample(inFlightAtStart, rttNanos, nowNanos);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized void onSample(int inFlightAtStart, long rttNanos, long nowNanos) {
+        if (windowSamples == 0) {
+            windowStart = nowNanos;
+        }
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (nowNanos - windowStart < windowNanos || windowSamples < 10) {
+            return;
+        }
+
+        double shortRtt = (double) windowRttSum / windowSamples;
+        int maxInFlight = windowMaxInFlight;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        longRtt += (shortRtt - longRtt) / LONG_WINDOWS;
+        // Latency dropped well below the baseline (e.g. after an incident): let the baseline catch up
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // Nowhere near the limit, so latency says nothing about it
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
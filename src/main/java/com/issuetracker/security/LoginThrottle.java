@@ -0,0 +1,65 @@
+package com.issuetracker.security;
+
+import com.issuetracker.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket throttling of sign-in attempts per client address and per username, checked
+ * before any password is hashed. Every login and registration spends a token from the client's
+ * address; logins also spend one from the target username as tried from that address, refunded
+ * when the login succeeds. A username is only locked down by repeated failures, and only for the
+ * address they came from, so nobody else can lock its owner out.
+ */
+@Component
+public class LoginThrottle {
+    private final boolean enabled;
+    private final TokenBuckets perUsername;
+    private final TokenBuckets perAddress;
+
+    public LoginThrottle(
+            @Value("${auth.throttle.enabled:true}") boolean enabled,
+            @Value("${auth.throttle.max-entries:100000}") long maxEntries,
+            @Value("${auth.throttle.per-username.capacity:5}") int usernameCapacity,
+            @Value("${auth.throttle.per-username.refill-per-minute:5}") double usernameRefillPerMinute,
+            @Value("${auth.throttle.per-address.capacity:20}") int addressCapacity,
+            @Value("${auth.throttle.per-address.refill-per-minute:30}") double addressRefillPerMinute) {
+        this.enabled = enabled;
+        this.perUsername = new TokenBuckets(maxEntries, usernameCapacity, usernameRefillPerMinute, System::nanoTime);
+        this.perAddress = new TokenBuckets(maxEntries, addressCapacity, addressRefillPerMinute, System::nanoTime);
+    }
+
+    public void acquireLogin(String username, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        acquire(perAddress, clientAddress, "Too many sign-in attempts from this address");
+        acquire(perUsername, usernameKey(username, clientAddress), "Too many failed sign-in attempts for this user");
+    }
+
+    public void loginSucceeded(String username, String clientAddress) {
+        if (enabled) {
+            perUsername.refund(usernameKey(username, clientAddress));
+        }
+    }
+
+    public void acquireRegistration(String clientAddress) {
+        if (enabled) {
+            acquire(perAddress, clientAddress, "Too many sign-up attempts from this address");
+        }
+    }
+
+    private static String usernameKey(String username, String clientAddress) {
+        return username + '\n' + clientAddress;
+    }
+
+    private void acquire(TokenBuckets buckets, String key, String message) {
+        long waitNanos = buckets.tryAcquire(key);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException(message + ", please retry later",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.issuetracker.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the 503 used by the admission filters, in the same shape as
+ * {@link com.issuetracker.exception.GlobalExceptionHandler} error bodies.
+ */
+final class ServiceUnavailableResponse {
+
+    private ServiceUnavailableResponse() {
+    }
+
+    static void write(HttpServletResponse response, ObjectMapper objectMapper, long retryAfterSeconds)
+            throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("message", "Server is busy, please retry");
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
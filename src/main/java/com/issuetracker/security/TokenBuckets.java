@@ -0,0 +1,73 @@
+package com.issuetracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * One token bucket per key, in a cache bounded to {@code maxEntries}. A bucket left alone long
+ * enough to refill completely is dropped, which loses nothing, since a new one starts out full.
+ * Under a flood of distinct keys the cache evicts by frequency, so the keys that keep coming
+ * back, an attacker's included, keep their buckets while one-off keys make room.
+ */
+class TokenBuckets {
+    private final Cache<String, Bucket> buckets;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier clock;
+
+    TokenBuckets(long maxEntries, int capacity, double refillPerMinute, LongSupplier clock) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60e9;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofNanos((long) Math.ceil(capacity / tokensPerNano)))
+                .ticker(clock::getAsLong)
+                .build();
+    }
+
+    /**
+     * Takes a token for the key. Returns 0 on success, otherwise the nanoseconds until a token
+     * becomes available.
+     */
+    long tryAcquire(String key) {
+        Bucket bucket = buckets.get(key, k -> new Bucket(capacity, clock.getAsLong()));
+        synchronized (bucket) {
+            refill(bucket);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    void refund(String key) {
+        Bucket bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            return;
+        }
+        synchronized (bucket) {
+            bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+        }
+    }
+
+    private void refill(Bucket bucket) {
+        long now = clock.getAsLong();
+        bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * tokensPerNano);
+        bucket.updatedAt = now;
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
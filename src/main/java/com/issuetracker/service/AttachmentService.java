@@ -1,39 +1,75 @@
 package com.issuetracker.service;
 
+import com.issuetracker.dto.AttachmentDownload;
 import com.issuetracker.dto.AttachmentResponse;
+import com.issuetracker.event.AttachmentChangedEvent;
+import com.issuetracker.event.IssueChangedEvent.ChangeType;
 import com.issuetracker.model.Attachment;
 import com.issuetracker.model.Issue;
 import com.issuetracker.model.User;
+import com.issuetracker.monitoring.TransferMetrics;
 import com.issuetracker.repository.AttachmentRepository;
 import com.issuetracker.repository.IssueRepository;
 import com.issuetracker.repository.UserRepository;
 import com.issuetracker.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @RequiredArgsConstructor
 public class AttachmentService {
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Content types that deflate cannot meaningfully shrink any further
+    private static final Set<String> COMPRESSED_CONTENT_TYPES = Set.of(
+            "application/zip", "application/gzip", "application/x-gzip", "application/x-7z-compressed",
+            "application/x-rar-compressed", "application/vnd.rar", "application/x-bzip2", "application/x-xz",
+            "application/java-archive", "application/pdf");
+
     private final AttachmentRepository attachmentRepository;
     private final IssueRepository issueRepository;
     private final UserRepository userRepository;
+    private final ThumbnailService thumbnailService;
+    private final AttachmentCodec attachmentCodec;
+    private final TransferMetrics transferMetrics;
+    private final IssueActivityRecorder activityRecorder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${file.upload.dir:uploads}")
     private String uploadDir;
@@ -41,11 +77,16 @@ public class AttachmentService {
     @Value("${file.upload.max-size:10485760}") // 10MB default
     private long maxFileSize;
 
-    @Transactional
+    /**
+     * Stores the upload, then records it. The file is written before any transaction opens, so
+     * no connection is held while a large upload goes to disk; if recording it fails, the file
+     * is removed again.
+     */
     public AttachmentResponse uploadFile(Long issueId, MultipartFile file) throws IOException {
         // Validate issue exists
-        Issue issue = issueRepository.findById(issueId)
-                .orElseThrow(() -> new RuntimeException("Issue not found"));
+        if (!issueRepository.existsById(issueId)) {
+            throw new RuntimeException("Issue not found");
+        }
 
         // Validate file
         if (file.isEmpty()) {
@@ -67,58 +108,261 @@ public class AttachmentService {
             Files.createDirectories(uploadPath);
         }
 
-        // Save file
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        // Text-like content is gzipped straight from the multipart stream; only if that doesn't
+        // shrink it is the (spooled) upload read a second time and stored as is
+        Path filePath = null;
+        String storageEncoding = null;
+        long storedSize = file.getSize();
+        if (attachmentCodec.shouldCompress(file.getContentType(), file.getSize())) {
+            Path compressedPath = uploadPath.resolve(filename + ".gz");
+            long compressedSize;
+            try (InputStream in = file.getInputStream()) {
+                compressedSize = attachmentCodec.compress(in, compressedPath);
+            }
+            if (compressedSize < storedSize) {
+                filename = filename + ".gz";
+                filePath = compressedPath;
+                storageEncoding = AttachmentCodec.GZIP;
+                storedSize = compressedSize;
+            } else {
+                // Not worth it, keep the original bytes
+                Files.deleteIfExists(compressedPath);
+            }
+        }
+        if (filePath == null) {
+            filePath = uploadPath.resolve(filename);
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, filePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
 
-        // Save metadata to database
-        User uploader = getCurrentUser();
         Attachment attachment = new Attachment();
         attachment.setFilename(filename);
         attachment.setOriginalFilename(originalFilename);
         attachment.setContentType(file.getContentType());
         attachment.setFileSize(file.getSize());
+        attachment.setStoredSize(storedSize);
+        attachment.setStorageEncoding(storageEncoding);
         attachment.setFilePath(filePath.toString());
+
+        Path storedPath = filePath;
+        try {
+            return transactionTemplate.execute(status -> record(issueId, attachment, storedPath));
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(storedPath);
+            throw e;
+        }
+    }
+
+    private AttachmentResponse record(Long issueId, Attachment attachment, Path filePath) {
+        // Looked up again: the issue may have been deleted while the file was written
+        Issue issue = issueRepository.findById(issueId)
+                .orElseThrow(() -> new RuntimeException("Issue not found"));
+
+        // Save metadata to database
         attachment.setIssue(issue);
-        attachment.setUploadedBy(uploader);
+        attachment.setUploadedBy(getCurrentUser());
 
         Attachment savedAttachment = attachmentRepository.save(attachment);
+        activityRecorder.attachmentAdded(issueId, savedAttachment.getUploadedAt());
+        eventPublisher.publishEvent(new AttachmentChangedEvent(issueId, savedAttachment.getId(), ChangeType.CREATED));
+        transferMetrics.recordUpload(attachment.getFileSize());
+
+        if (thumbnailService.supports(savedAttachment.getContentType())) {
+            scheduleThumbnails(savedAttachment.getId(), filePath);
+        }
+
         return mapToResponse(savedAttachment);
     }
 
     @Transactional(readOnly = true)
     public List<AttachmentResponse> getAttachmentsByIssue(Long issueId) {
+        if (!issueRepository.existsById(issueId)) {
+            throw new RuntimeException("Issue not found");
+        }
         return attachmentRepository.findByIssueIdOrderByUploadedAtDesc(issueId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Resolves the content of an attachment for download. Blobs stored gzip-encoded are passed
+     * through untouched when the client accepts gzip and decompressed on the fly otherwise.
+     */
     @Transactional(readOnly = true)
-    public Resource downloadFile(Long attachmentId) throws IOException {
-        Attachment attachment = attachmentRepository.findById(attachmentId)
-                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+    public AttachmentDownload downloadFile(Long attachmentId, boolean acceptsGzip) throws IOException {
+        Attachment attachment = findAttachment(attachmentId);
 
         Path filePath = Paths.get(attachment.getFilePath());
-        Resource resource = new UrlResource(filePath.toUri());
+        if (!Files.isReadable(filePath)) {
+            throw new RuntimeException("File not found or not readable");
+        }
+
+        String storageEncoding = attachment.getStorageEncoding();
+        if (storageEncoding == null || (acceptsGzip && AttachmentCodec.GZIP.equals(storageEncoding))) {
+            long size = Files.size(filePath);
+            transferMetrics.recordDownload(size);
+            return new AttachmentDownload(new UrlResource(filePath.toUri()), attachment.getOriginalFilename(),
+                    storageEncoding, size);
+        }
+
+        InputStream content = attachmentCodec.open(filePath, storageEncoding);
+        transferMetrics.recordDownload(attachment.getFileSize());
+        return new AttachmentDownload(new InputStreamResource(content), attachment.getOriginalFilename(),
+                null, attachment.getFileSize());
+    }
+
+    /**
+     * Streams every attachment of an issue as a ZIP archive straight into the supplied output.
+     * Deliberately not transactional: the attachment rows are read up front so no database
+     * connection is held while the archive is written, and nothing is buffered besides the
+     * copy buffer. A client disconnect surfaces as an IOException on the next write and aborts
+     * the remaining work.
+     */
+    public void writeIssueArchive(Long issueId, ArchiveOutput output) throws IOException {
+        if (!issueRepository.existsById(issueId)) {
+            throw new RuntimeException("Issue not found");
+        }
+        List<Attachment> attachments = attachmentRepository.findByIssueIdOrderByUploadedAtDesc(issueId);
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        Set<String> entryNames = new HashSet<>();
+        CountingOutputStream counted = new CountingOutputStream(output.open());
+        try (ZipOutputStream zip = new ZipOutputStream(counted)) {
+            zip.setLevel(Deflater.BEST_SPEED);
+            for (Attachment attachment : attachments) {
+                Path filePath = Paths.get(attachment.getFilePath());
+                if (!Files.isReadable(filePath)) {
+                    logger.warn("Skipping missing file for attachment {} in archive", attachment.getId());
+                    continue;
+                }
+
+                String storageEncoding = attachment.getStorageEncoding();
+                ZipEntry entry = new ZipEntry(uniqueEntryName(attachment, entryNames));
+                if (isCompressed(attachment.getContentType())) {
+                    // STORED entries need their size and CRC before the data is written
+                    CRC32 crc = new CRC32();
+                    long size = 0;
+                    try (InputStream in = attachmentCodec.open(filePath, storageEncoding)) {
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            crc.update(buffer, 0, read);
+                            size += read;
+                        }
+                    }
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(size);
+                    entry.setCompressedSize(size);
+                    entry.setCrc(crc.getValue());
+                }
+                if (attachment.getUploadedAt() != null) {
+                    entry.setTimeLocal(attachment.getUploadedAt());
+                }
 
+                zip.putNextEntry(entry);
+                try (InputStream in = attachmentCodec.open(filePath, storageEncoding)) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        zip.write(buffer, 0, read);
+                    }
+                }
+                zip.closeEntry();
+            }
+        } finally {
+            transferMetrics.recordArchive(counted.getByteCount());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Resource getThumbnail(Long attachmentId, boolean preview) throws IOException {
+        Attachment attachment = findAttachment(attachmentId);
+
+        String path = preview ? attachment.getPreviewPath() : attachment.getThumbnailPath();
+        if (path == null) {
+            throw new RuntimeException("Thumbnail not available");
+        }
+
+        Resource resource = new UrlResource(Paths.get(path).toUri());
         if (resource.exists() && resource.isReadable()) {
             return resource;
         } else {
-            throw new RuntimeException("File not found or not readable");
+            throw new RuntimeException("Thumbnail not available");
         }
     }
 
     @Transactional
     public void deleteAttachment(Long attachmentId) throws IOException {
-        Attachment attachment = attachmentRepository.findById(attachmentId)
-                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+        Attachment attachment = findAttachment(attachmentId);
 
-        // Delete physical file
-        Path filePath = Paths.get(attachment.getFilePath());
-        Files.deleteIfExists(filePath);
+        deleteStoredFiles(attachment);
 
         // Delete database record
         attachmentRepository.delete(attachment);
+        Long issueId = attachment.getIssue().getId();
+        activityRecorder.attachmentRemoved(issueId);
+        eventPublisher.publishEvent(new AttachmentChangedEvent(issueId, attachmentId, ChangeType.DELETED));
+    }
+
+    /**
+     * Deletes the stored file of an attachment and any generated thumbnails.
+     */
+    public void deleteStoredFiles(Attachment attachment) throws IOException {
+        Files.deleteIfExists(Paths.get(attachment.getFilePath()));
+        if (attachment.getThumbnailPath() != null) {
+            Files.deleteIfExists(Paths.get(attachment.getThumbnailPath()));
+        }
+        if (attachment.getPreviewPath() != null) {
+            Files.deleteIfExists(Paths.get(attachment.getPreviewPath()));
+        }
+    }
+
+    // Attachments of a deleted issue stay in the table until IssuePurger removes them
+    private Attachment findAttachment(Long attachmentId) {
+        return attachmentRepository.findById(attachmentId)
+                .filter(attachment -> issueRepository.existsById(attachment.getIssue().getId()))
+                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+    }
+
+    private void scheduleThumbnails(Long attachmentId, Path filePath) {
+        // The worker updates the row, so it must not start before the insert is committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    thumbnailService.enqueue(attachmentId, filePath);
+                }
+            });
+        } else {
+            thumbnailService.enqueue(attachmentId, filePath);
+        }
+    }
+
+    private static boolean isCompressed(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        return type.startsWith("image/") && !type.equals("image/svg+xml") && !type.equals("image/bmp")
+                || type.startsWith("video/")
+                || type.startsWith("audio/") && !type.equals("audio/wav")
+                || type.startsWith("application/vnd.openxmlformats-officedocument.")
+                || COMPRESSED_CONTENT_TYPES.contains(type);
+    }
+
+    private static String uniqueEntryName(Attachment attachment, Set<String> usedNames) {
+        // Never trust client-supplied paths inside an archive
+        String name = FilenameUtils.getName(attachment.getOriginalFilename());
+        if (name == null || name.isBlank()) {
+            name = "attachment-" + attachment.getId();
+        }
+
+        String candidate = name;
+        String base = FilenameUtils.getBaseName(name);
+        String extension = FilenameUtils.getExtension(name);
+        for (int i = 2; !usedNames.add(candidate.toLowerCase()); i++) {
+            candidate = base + " (" + i + ")" + (extension.isEmpty() ? "" : "." + extension);
+        }
+        return candidate;
     }
 
     private User getCurrentUser() {
@@ -136,6 +380,12 @@ public class AttachmentService {
         response.setContentType(attachment.getContentType());
         response.setFileSize(attachment.getFileSize());
         response.setDownloadUrl("/api/attachments/" + attachment.getId() + "/download");
+        if (attachment.getThumbnailPath() != null) {
+            response.setThumbnailUrl("/api/attachments/" + attachment.getId() + "/thumbnail");
+        }
+        if (attachment.getPreviewPath() != null) {
+            response.setPreviewUrl("/api/attachments/" + attachment.getId() + "/thumbnail?variant=preview");
+        }
         response.setUploadedAt(attachment.getUploadedAt());
 
         User uploader = attachment.getUploadedBy();
@@ -144,4 +394,9 @@ public class AttachmentService {
 
         return response;
     }
+
+    @FunctionalInterface
+    public interface ArchiveOutput {
+        OutputStream open() throws IOException;
+    }
 }
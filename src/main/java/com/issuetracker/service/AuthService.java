@@ -3,18 +3,20 @@ package com.issuetracker.service;
 import com.issuetracker.dto.AuthResponse;
 import com.issuetracker.dto.LoginRequest;
 import com.issuetracker.dto.RegisterRequest;
+import com.issuetracker.exception.ConflictException;
 import com.issuetracker.model.User;
 import com.issuetracker.repository.UserRepository;
 import com.issuetracker.security.JwtUtils;
 import com.issuetracker.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -27,16 +29,12 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
 
-    @Transactional
+    /**
+     * Creates the account and signs it in. Duplicates are caught by the unique constraints on
+     * insert rather than checked up front, and the token is issued straight from the new row,
+     * so a signup costs one insert and one password hash.
+     */
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username is already taken");
-        }
-
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email is already in use");
-        }
-
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
@@ -47,18 +45,15 @@ public class AuthService {
         roles.add("USER");
         user.setRoles(roles);
 
-        userRepository.save(user);
-
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw conflictFor(e);
+        }
 
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        String jwt = jwtUtils.generateJwtToken(user.getUsername());
 
-        return new AuthResponse(jwt, userDetails.getId(), userDetails.getUsername(),
-                userDetails.getEmail(), user.getRoles());
+        return new AuthResponse(jwt, user.getId(), user.getUsername(), user.getEmail(), user.getRoles());
     }
 
     public AuthResponse login(LoginRequest request) {
@@ -75,4 +70,17 @@ public class AuthService {
         return new AuthResponse(jwt, userDetails.getId(), userDetails.getUsername(),
                 userDetails.getEmail(), user.getRoles());
     }
+
+    private RuntimeException conflictFor(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName().toLowerCase() : "";
+        if (constraint.contains("uk_users_username")) {
+            return new ConflictException("Username is already taken");
+        }
+        if (constraint.contains("uk_users_email")) {
+            return new ConflictException("Email is already in use");
+        }
+        return e;
+    }
 }
@@ -3,6 +3,8 @@ package com.issuetracker.service;
 import com.issuetracker.dto.CommentRequest;
 import com.issuetracker.dto.CommentResponse;
 import com.issuetracker.dto.PageResponse;
+import com.issuetracker.event.CommentChangedEvent;
+import com.issuetracker.event.IssueChangedEvent.ChangeType;
 import com.issuetracker.model.Comment;
 import com.issuetracker.model.Issue;
 import com.issuetracker.model.User;
@@ -11,6 +13,7 @@ import com.issuetracker.repository.IssueRepository;
 import com.issuetracker.repository.UserRepository;
 import com.issuetracker.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +28,8 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final IssueRepository issueRepository;
     private final UserRepository userRepository;
+    private final IssueActivityRecorder activityRecorder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public CommentResponse createComment(Long issueId, CommentRequest request) {
@@ -39,13 +44,14 @@ public class CommentService {
         comment.setAuthor(author);
 
         Comment savedComment = commentRepository.save(comment);
+        activityRecorder.commentAdded(issueId, savedComment.getCreatedAt());
+        publishChange(savedComment, ChangeType.CREATED);
         return mapToResponse(savedComment);
     }
 
     @Transactional
     public CommentResponse updateComment(Long commentId, CommentRequest request) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new RuntimeException("Comment not found"));
+        Comment comment = findComment(commentId);
 
         User currentUser = getCurrentUser();
         if (!comment.getAuthor().getId().equals(currentUser.getId())) {
@@ -54,11 +60,16 @@ public class CommentService {
 
         comment.setContent(request.getContent());
         Comment updatedComment = commentRepository.save(comment);
+        publishChange(updatedComment, ChangeType.UPDATED);
         return mapToResponse(updatedComment);
     }
 
     @Transactional(readOnly = true)
     public PageResponse<CommentResponse> getCommentsByIssue(Long issueId, int page, int size) {
+        // Comments of a deleted issue stay in the table until IssuePurger removes them
+        if (!issueRepository.existsById(issueId)) {
+            throw new RuntimeException("Issue not found");
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<Comment> commentPage = commentRepository.findByIssueIdOrderByCreatedAtDesc(issueId, pageable);
 
@@ -75,8 +86,7 @@ public class CommentService {
 
     @Transactional
     public void deleteComment(Long commentId) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new RuntimeException("Comment not found"));
+        Comment comment = findComment(commentId);
 
         User currentUser = getCurrentUser();
         if (!comment.getAuthor().getId().equals(currentUser.getId())) {
@@ -84,6 +94,18 @@ public class CommentService {
         }
 
         commentRepository.delete(comment);
+        activityRecorder.commentRemoved(comment.getIssue().getId());
+        publishChange(comment, ChangeType.DELETED);
+    }
+
+    private Comment findComment(Long commentId) {
+        return commentRepository.findById(commentId)
+                .filter(comment -> issueRepository.existsById(comment.getIssue().getId()))
+                .orElseThrow(() -> new RuntimeException("Comment not found"));
+    }
+
+    private void publishChange(Comment comment, ChangeType type) {
+        eventPublisher.publishEvent(new CommentChangedEvent(comment.getIssue().getId(), comment.getId(), type));
     }
 
     private User getCurrentUser() {
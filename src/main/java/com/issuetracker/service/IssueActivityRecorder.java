@@ -0,0 +1,51 @@
+package com.issuetracker.service;
+
+import com.issuetracker.cache.CacheInvalidationBroadcaster;
+import com.issuetracker.model.Issue;
+import com.issuetracker.repository.IssueRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Maintains the denormalized {@code comment_count}, {@code attachment_count} and
+ * {@code last_activity_at} columns of an issue. Each change is a single in-database
+ * {@code UPDATE ... SET count = count + 1}, so concurrent writers serialize on the row lock
+ * instead of overwriting each other, and it joins the caller's transaction so the counter
+ * commits or rolls back together with the comment or attachment row.
+ *
+ * <p>Only the changed issue is evicted from the second-level cache, here and on the other
+ * instances, through {@link CacheInvalidationBroadcaster#evictUpdated}.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class IssueActivityRecorder {
+    private final IssueRepository issueRepository;
+    private final CacheInvalidationBroadcaster cacheInvalidation;
+
+    public void commentAdded(Long issueId, LocalDateTime at) {
+        changed(issueId, issueRepository.incrementCommentCount(issueId, at));
+    }
+
+    public void commentRemoved(Long issueId) {
+        changed(issueId, issueRepository.decrementCommentCount(issueId));
+    }
+
+    public void attachmentAdded(Long issueId, LocalDateTime at) {
+        changed(issueId, issueRepository.incrementAttachmentCount(issueId, at));
+    }
+
+    public void attachmentRemoved(Long issueId) {
+        changed(issueId, issueRepository.decrementAttachmentCount(issueId));
+    }
+
+    private void changed(Long issueId, int rows) {
+        if (rows > 0) {
+            cacheInvalidation.evictUpdated(Issue.class, issueId);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.issuetracker.service;
+
+import com.issuetracker.cache.CacheInvalidationBroadcaster;
+import com.issuetracker.model.Issue;
+import com.issuetracker.repository.IssueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Recomputes the comment and attachment counters on issues from the comment and attachment
+ * tables. The counters are kept up to date by {@link IssueActivityRecorder}; this job catches
+ * drift from rows written around the services (manual SQL, restores, imports). It walks the
+ * table in id ranges, one short transaction each, and only rewrites rows whose counts are wrong,
+ * so a run over a healthy table reads a lot and writes nothing.
+ *
+ * <p>{@code last_activity_at} is not rebuilt: it is only ever moved forward, and the next edit,
+ * comment or upload corrects it. Runs on {@code issues.activity-repair.cron}; set it to
+ * {@code "-"} on all instances but one.
+ */
+@Component
+public class IssueActivityRepairJob {
+    private static final Logger logger = LoggerFactory.getLogger(IssueActivityRepairJob.class);
+
+    private final IssueRepository issueRepository;
+    private final CacheInvalidationBroadcaster cacheInvalidation;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public IssueActivityRepairJob(IssueRepository issueRepository,
+                                  CacheInvalidationBroadcaster cacheInvalidation,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${issues.activity-repair.batch-size:10000}") int batchSize) {
+        this.issueRepository = issueRepository;
+        this.cacheInvalidation = cacheInvalidation;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${issues.activity-repair.cron:0 30 3 * * *}")
+    public void scheduledRepair() {
+        repairAll();
+    }
+
+    /**
+     * Repairs every issue and returns the number of rows that had to be corrected.
+     */
+    public int repairAll() {
+        List<Object[]> range = issueRepository.findIdRange();
+        if (range.isEmpty() || range.get(0)[0] == null) {
+            return 0;
+        }
+        long minId = ((Number) range.get(0)[0]).longValue();
+        long maxId = ((Number) range.get(0)[1]).longValue();
+
+        long started = System.nanoTime();
+        int repaired = 0;
+        for (long from = minId; from <= maxId; from += batchSize) {
+            long to = Math.min(from + batchSize - 1, maxId);
+            repaired += repairRange(from, to);
+        }
+        logger.info("Issue activity counters checked for ids {}..{} in {} ms, {} corrected",
+                minId, maxId, (System.nanoTime() - started) / 1_000_000, repaired);
+        return repaired;
+    }
+
+    private int repairRange(long from, long to) {
+        Integer repaired = transactionTemplate.execute(status -> {
+            int rows = issueRepository.repairActivityCounts(from, to);
+            if (rows > 0) {
+                cacheInvalidation.publishUpdate(Issue.class, null);
+            }
+            return rows;
+        });
+        return repaired != null ? repaired : 0;
+    }
+}
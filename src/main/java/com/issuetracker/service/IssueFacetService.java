@@ -0,0 +1,201 @@
+package com.issuetracker.service;
+
+import com.issuetracker.cache.FacetCache;
+import com.issuetracker.datasource.ReplicaReads;
+import com.issuetracker.dto.IssueFacets;
+import com.issuetracker.dto.IssueFacets.UserCount;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.Issue.IssuePriority;
+import com.issuetracker.model.Issue.IssueStatus;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.IssueSpecifications;
+import com.issuetracker.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Status, priority, assignee and reporter counts over the issues matching a filter, one narrow
+ * {@code GROUP BY} per facet, so each returns at most one row per status, priority or user.
+ * Above {@code issues.facets.sample-above} matches only the issues in a few evenly spread id
+ * ranges, about {@code issues.facets.sample-size} of them, are aggregated and the counts are
+ * scaled up. The database reads those ranges through the primary key, so the cost of a facet
+ * request is bounded by the sample size unless the filter itself is cheaper.
+ */
+@Service
+public class IssueFacetService {
+    // Id ranges a sample is spread over
+    private static final int SAMPLE_SLICES = 16;
+
+    private final EntityManager entityManager;
+    private final IssueRepository issueRepository;
+    private final UserRepository userRepository;
+    private final FacetCache facetCache;
+
+    @Value("${issues.facets.sample-above:50000}")
+    private long sampleAbove;
+
+    @Value("${issues.facets.sample-size:10000}")
+    private long sampleSize;
+
+    @Value("${issues.facets.top-users:10}")
+    private int topUsers;
+
+    public IssueFacetService(EntityManager entityManager, IssueRepository issueRepository,
+                             UserRepository userRepository, FacetCache facetCache) {
+        this.entityManager = entityManager;
+        this.issueRepository = issueRepository;
+        this.userRepository = userRepository;
+        this.facetCache = facetCache;
+    }
+
+    /**
+     * @param key    the filter in normalized form, so equivalent requests share a cache entry
+     * @param filter the filter itself, without fetch joins
+     * @param total  number of matching issues, already known from the page query
+     */
+    @Transactional(readOnly = true)
+    public IssueFacets facets(String key, Specification<Issue> filter, long total) {
+        IssueFacets cached = facetCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = facetCache.generation();
+        long replicaReads = ReplicaReads.count();
+
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        for (IssueStatus status : IssueStatus.values()) {
+            statuses.put(status.name(), 0L);
+        }
+        Map<String, Long> priorities = new LinkedHashMap<>();
+        for (IssuePriority priority : IssuePriority.values()) {
+            priorities.put(priority.name(), 0L);
+        }
+        Map<Long, Long> assignees = new HashMap<>();
+        Map<Long, Long> reporters = new HashMap<>();
+
+        boolean approximate = false;
+        if (total > 0) {
+            Specification<Issue> matching = filter;
+            List<Object[]> statusRows = null;
+            Specification<Issue> sample = total > sampleAbove ? sample(total) : null;
+            if (sample != null) {
+                Specification<Issue> inSample = Specification.where(filter).and(sample);
+                statusRows = countBy(inSample, root -> root.get("status"));
+                // Unless the ranges happen to miss every match
+                approximate = sum(statusRows) > 0;
+                if (approximate) {
+                    matching = inSample;
+                }
+            }
+            if (!approximate) {
+                statusRows = countBy(matching, root -> root.get("status"));
+            }
+            // Counts from a sample stand for their share of all matches
+            double scale = approximate ? (double) total / sum(statusRows) : 1;
+            for (Object[] row : statusRows) {
+                statuses.put(((IssueStatus) row[0]).name(), scale((Long) row[1], scale));
+            }
+            for (Object[] row : countBy(matching, root -> root.get("priority"))) {
+                priorities.put(((IssuePriority) row[0]).name(), scale((Long) row[1], scale));
+            }
+            // Foreign key columns; an unassigned issue groups under a null assignee
+            for (Object[] row : countBy(matching, root -> root.get("assignee").get("id"))) {
+                assignees.put((Long) row[0], scale((Long) row[1], scale));
+            }
+            for (Object[] row : countBy(matching, root -> root.get("reporter").get("id"))) {
+                reporters.put((Long) row[0], scale((Long) row[1], scale));
+            }
+        }
+
+        List<Map.Entry<Long, Long>> topAssignees = top(assignees);
+        List<Map.Entry<Long, Long>> topReporters = top(reporters);
+        Map<Long, String> usernames = usernames(topAssignees, topReporters);
+        IssueFacets facets = new IssueFacets(total, approximate, statuses, priorities,
+                toUserCounts(topAssignees, usernames), toUserCounts(topReporters, usernames));
+        // Counts from a replica may predate the last eviction
+        if (!ReplicaReads.since(replicaReads)) {
+            facetCache.put(generation, key, facets);
+        }
+        return facets;
+    }
+
+    private Specification<Issue> sample(long total) {
+        List<Object[]> range = issueRepository.findIdRange();
+        if (range.isEmpty() || range.get(0)[0] == null) {
+            return null;
+        }
+        long minId = ((Number) range.get(0)[0]).longValue();
+        long maxId = ((Number) range.get(0)[1]).longValue();
+        return IssueSpecifications.idSample(minId, maxId, (double) sampleSize / total, SAMPLE_SLICES);
+    }
+
+    private List<Object[]> countBy(Specification<Issue> matching, Function<Root<Issue>, Expression<?>> column) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Issue> root = query.from(Issue.class);
+        Expression<?> groupBy = column.apply(root);
+        query.multiselect(groupBy, cb.count(root));
+        Predicate predicate = matching != null ? matching.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(groupBy);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private static long sum(List<Object[]> rows) {
+        return rows.stream().mapToLong(row -> (Long) row[1]).sum();
+    }
+
+    private static long scale(long count, double scale) {
+        return Math.round(count * scale);
+    }
+
+    private List<Map.Entry<Long, Long>> top(Map<Long, Long> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry::getKey, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .limit(topUsers)
+                .collect(Collectors.toList());
+    }
+
+    // One lookup for both lists; users are in the second-level cache
+    private Map<Long, String> usernames(List<Map.Entry<Long, Long>> assignees, List<Map.Entry<Long, Long>> reporters) {
+        List<Long> ids = Stream.concat(assignees.stream(), reporters.stream())
+                .map(Map.Entry::getKey)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername));
+    }
+
+    private static List<UserCount> toUserCounts(List<Map.Entry<Long, Long>> counts, Map<Long, String> usernames) {
+        return counts.stream()
+                .map(entry -> new UserCount(entry.getKey(),
+                        entry.getKey() != null ? usernames.get(entry.getKey()) : null, entry.getValue()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,179 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.IssueFields;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.Issue.IssuePriority;
+import com.issuetracker.model.Issue.IssueStatus;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.IssueSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads issue responses holding only the requested fields, selecting just their columns. A list
+ * without description or users reads neither the TEXT column nor the users table; labels cost one
+ * extra query for the whole page, and only when asked for.
+ */
+@Component
+public class IssueProjector {
+    // Fields that are plain columns of issues
+    private static final List<String> COLUMNS = List.of("title", "description", "status", "priority", "resolvedAt",
+            "createdAt", "updatedAt", "commentCount", "attachmentCount", "lastActivityAt");
+
+    private final EntityManager entityManager;
+    private final IssueRepository issueRepository;
+    private final LabelService labelService;
+
+    public IssueProjector(EntityManager entityManager, IssueRepository issueRepository, LabelService labelService) {
+        this.entityManager = entityManager;
+        this.issueRepository = issueRepository;
+        this.labelService = labelService;
+    }
+
+    public Page<IssueResponse> findPage(Specification<Issue> filter, Pageable pageable, IssueFields fields) {
+        List<IssueResponse> content = find(filter, pageable.getSort(), pageable, fields);
+        return PageableExecutionUtils.getPage(content, pageable, () -> issueRepository.count(filter));
+    }
+
+    public List<IssueResponse> findAll(Specification<Issue> filter, IssueFields fields) {
+        return find(filter, Sort.unsorted(), Pageable.unpaged(), fields);
+    }
+
+    /**
+     * One page of issues by id, in the order given; ids deleted in the meantime are skipped.
+     */
+    public List<IssueResponse> findInOrder(List<Long> ids, IssueFields fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, IssueResponse> byId = findAll(IssueSpecifications.idIn(ids), fields).stream()
+                .collect(Collectors.toMap(IssueResponse::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private List<IssueResponse> find(Specification<Issue> filter, Sort sort, Pageable pageable, IssueFields fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Issue> root = query.from(Issue.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id").alias("id"));
+        for (String column : COLUMNS) {
+            if (fields.includes(column)) {
+                selections.add(root.get(column).alias(column));
+            }
+        }
+        if (fields.includes("reporter")) {
+            addUser(selections, root.join("reporter", JoinType.INNER), "reporter");
+        }
+        if (fields.includes("assignee")) {
+            addUser(selections, root.join("assignee", JoinType.LEFT), "assignee");
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<IssueResponse> responses = typedQuery.getResultList().stream()
+                .map(row -> toResponse(row, fields))
+                .collect(Collectors.toList());
+        if (fields.includes("labels")) {
+            Map<Long, List<String>> labels = labelService.labelNamesByIssue(
+                    responses.stream().map(IssueResponse::getId).toList());
+            responses.forEach(response -> response.setLabels(labels.getOrDefault(response.getId(), List.of())));
+        }
+        return responses;
+    }
+
+    private static void addUser(List<Selection<?>> selections, Join<Issue, User> user, String prefix) {
+        selections.add(user.get("id").alias(prefix + "Id"));
+        selections.add(user.get("username").alias(prefix + "Username"));
+        selections.add(user.get("fullName").alias(prefix + "FullName"));
+    }
+
+    private static IssueResponse toResponse(Tuple row, IssueFields fields) {
+        IssueResponse response = new IssueResponse();
+        response.setId(row.get("id", Long.class));
+        if (fields.includes("title")) {
+            response.setTitle(row.get("title", String.class));
+        }
+        if (fields.includes("description")) {
+            response.setDescription(row.get("description", String.class));
+        }
+        if (fields.includes("status")) {
+            response.setStatus(row.get("status", IssueStatus.class));
+        }
+        if (fields.includes("priority")) {
+            response.setPriority(row.get("priority", IssuePriority.class));
+        }
+        if (fields.includes("resolvedAt")) {
+            response.setResolvedAt(row.get("resolvedAt", LocalDateTime.class));
+        }
+        if (fields.includes("createdAt")) {
+            response.setCreatedAt(row.get("createdAt", LocalDateTime.class));
+        }
+        if (fields.includes("updatedAt")) {
+            response.setUpdatedAt(row.get("updatedAt", LocalDateTime.class));
+        }
+        if (fields.includes("commentCount")) {
+            response.setCommentCount(row.get("commentCount", Integer.class));
+        }
+        if (fields.includes("attachmentCount")) {
+            response.setAttachmentCount(row.get("attachmentCount", Integer.class));
+        }
+        if (fields.includes("lastActivityAt")) {
+            response.setLastActivityAt(row.get("lastActivityAt", LocalDateTime.class));
+        }
+        if (fields.includes("reporter")) {
+            response.setReporter(toUser(row, "reporter"));
+        }
+        if (fields.includes("assignee")) {
+            response.setAssignee(toUser(row, "assignee"));
+        }
+        return response;
+    }
+
+    private static IssueResponse.UserSummary toUser(Tuple row, String prefix) {
+        Long id = row.get(prefix + "Id", Long.class);
+        if (id == null) {
+            return null;
+        }
+        return new IssueResponse.UserSummary(id, row.get(prefix + "Username", String.class),
+                row.get(prefix + "FullName", String.class));
+    }
+}
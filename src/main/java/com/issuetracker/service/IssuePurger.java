@@ -0,0 +1,154 @@
+package com.issuetracker.service;
+
+import com.issuetracker.model.Attachment;
+import com.issuetracker.repository.AttachmentRepository;
+import com.issuetracker.repository.CommentRepository;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.WatcherRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Physically removes issues whose soft delete is older than {@code issues.purge.grace-period}.
+ * Comments go first, then attachments with their files, then the issue row with its labels and
+ * watchers, each in batches of {@code issues.purge.batch-size} rows walked in id order. Every batch
+ * is its own transaction, so row locks are held for one batch at a time however large the issue
+ * was, and an interrupted purge simply continues on the next run.
+ *
+ * <p>Restores only apply to tombstones younger than the grace period and the purge only to older
+ * ones, so a restore can never race a half-finished purge.
+ */
+@Component
+public class IssuePurger {
+    private static final Logger logger = LoggerFactory.getLogger(IssuePurger.class);
+
+    // Tombstones picked up per run; the rest wait for the next one
+    private static final int ISSUES_PER_RUN = 100;
+
+    private final IssueRepository issueRepository;
+    private final CommentRepository commentRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentService attachmentService;
+    private final WatcherRepository watcherRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gracePeriod;
+    private final int batchSize;
+
+    public IssuePurger(IssueRepository issueRepository,
+                       CommentRepository commentRepository,
+                       AttachmentRepository attachmentRepository,
+                       AttachmentService attachmentService,
+                       WatcherRepository watcherRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${issues.purge.grace-period:7d}") Duration gracePeriod,
+                       @Value("${issues.purge.batch-size:500}") int batchSize) {
+        this.issueRepository = issueRepository;
+        this.commentRepository = commentRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.attachmentService = attachmentService;
+        this.watcherRepository = watcherRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${issues.purge.interval-ms:60000}")
+    public void scheduledPurge() {
+        purgeDeletedBefore(LocalDateTime.now().minus(gracePeriod));
+    }
+
+    /**
+     * Purges up to one run's worth of issues deleted before {@code cutoff} and returns how many.
+     */
+    public int purgeDeletedBefore(LocalDateTime cutoff) {
+        List<Long> issueIds = issueRepository.findDeletedBefore(cutoff, ISSUES_PER_RUN);
+        int purged = 0;
+        for (Long issueId : issueIds) {
+            try {
+                if (purge(issueId, cutoff)) {
+                    purged++;
+                }
+            } catch (RuntimeException e) {
+                // Retried on the next run; don't let one issue block the others
+                logger.warn("Purging deleted issue {} failed: {}", issueId, e.getMessage());
+            }
+        }
+        if (purged > 0) {
+            logger.info("Purged {} deleted issues", purged);
+        }
+        return purged;
+    }
+
+    private boolean purge(Long issueId, LocalDateTime cutoff) {
+        long comments = purgeComments(issueId);
+        long attachments = purgeAttachments(issueId);
+        Integer deleted = transactionTemplate.execute(status -> {
+            issueRepository.purgeLabels(issueId);
+            watcherRepository.purgeByIssueId(issueId);
+            return issueRepository.purgeDeleted(issueId, cutoff);
+        });
+        logger.debug("Purged issue {} with {} comments and {} attachments", issueId, comments, attachments);
+        return deleted != null && deleted > 0;
+    }
+
+    private long purgeComments(Long issueId) {
+        long total = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> batch = commentRepository.findIdsByIssueIdAfter(issueId, from, PageRequest.of(0, batchSize));
+                if (!batch.isEmpty()) {
+                    commentRepository.deleteAllByIdInBatch(batch);
+                }
+                return batch;
+            });
+            if (ids == null || ids.isEmpty()) {
+                return total;
+            }
+            total += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private long purgeAttachments(Long issueId) {
+        long total = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Attachment> batch = transactionTemplate.execute(status -> {
+                List<Attachment> attachments = attachmentRepository.findByIssueIdAndIdGreaterThanOrderByIdAsc(
+                        issueId, from, PageRequest.of(0, batchSize));
+                if (!attachments.isEmpty()) {
+                    attachmentRepository.deleteAllInBatch(attachments);
+                }
+                return attachments;
+            });
+            if (batch == null || batch.isEmpty()) {
+                return total;
+            }
+            // Files go only once their rows are gone; a failure leaves an orphaned file, never a
+            // row pointing at nothing
+            for (Attachment attachment : batch) {
+                try {
+                    attachmentService.deleteStoredFiles(attachment);
+                } catch (IOException e) {
+                    logger.warn("Could not delete files of purged attachment {}: {}", attachment.getId(), e.getMessage());
+                }
+            }
+            total += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+}
@@ -1,33 +1,91 @@
 package com.issuetracker.service;
 
+import com.issuetracker.cache.CacheInvalidationBroadcaster;
+import com.issuetracker.cache.InboxCache;
+import com.issuetracker.datasource.ReplicaReads;
+import com.issuetracker.dto.FacetedPageResponse;
+import com.issuetracker.dto.InboxResponse;
+import com.issuetracker.dto.IssueBatchResponse;
+import com.issuetracker.dto.IssueFacets;
+import com.issuetracker.dto.IssueFields;
+import com.issuetracker.dto.IssueQueryRequest;
 import com.issuetracker.dto.IssueRequest;
 import com.issuetracker.dto.IssueResponse;
 import com.issuetracker.dto.PageResponse;
+import com.issuetracker.event.IssueChangedEvent;
+import com.issuetracker.event.IssueChangedEvent.ChangeType;
+import com.issuetracker.index.IssueBitmapIndex;
+import com.issuetracker.index.LabelExpression;
 import com.issuetracker.model.Issue;
 import com.issuetracker.model.Issue.IssueStatus;
+import com.issuetracker.model.Label;
 import com.issuetracker.model.User;
 import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.IssueSpecifications;
 import com.issuetracker.repository.UserRepository;
 import com.issuetracker.security.UserDetailsImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class IssueService {
     private final IssueRepository issueRepository;
     private final UserRepository userRepository;
+    private final InboxCache inboxCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidationBroadcaster cacheInvalidation;
+    private final LabelService labelService;
+    private final IssueBitmapIndex issueIndex;
+    private final IssueFacetService issueFacetService;
+    private final IssueProjector issueProjector;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${issues.purge.grace-period:7d}")
+    private Duration deleteGracePeriod;
+
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_IDS = 1000;
+    // Only columns that lead an index on issues, so a sort never degenerates into a filesort
+    private static final Set<String> SORTABLE_FIELDS = Set.of("createdAt", "updatedAt", "lastActivityAt", "status",
+            "priority", "id");
+    // Sorts the label index can serve: ids are assigned in creation order
+    private static final Set<String> INDEX_SORT_FIELDS = Set.of("createdAt", "id");
+    // Keyset sentinel for the first page: newer than any real row
+    private static final LocalDateTime INBOX_START = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     @Transactional
     public IssueResponse createIssue(IssueRequest request) {
@@ -45,8 +103,12 @@ public class IssueService {
                     .orElseThrow(() -> new RuntimeException("Assignee with ID " + request.getAssigneeId() + " not found. Please select a valid user."));
             issue.setAssignee(assignee);
         }
+        if (request.getLabels() != null) {
+            issue.setLabels(labelService.resolve(request.getLabels()));
+        }
 
         Issue savedIssue = issueRepository.save(issue);
+        publishChange(savedIssue, ChangeType.CREATED, null, null);
         return mapToResponse(savedIssue);
     }
 
@@ -54,6 +116,8 @@ public class IssueService {
     public IssueResponse updateIssue(Long id, IssueRequest request) {
         Issue issue = issueRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Issue not found"));
+        Long previousAssigneeId = issue.getAssignee() != null ? issue.getAssignee().getId() : null;
+        IssueStatus previousStatus = issue.getStatus();
 
         if (request.getTitle() != null) {
             issue.setTitle(request.getTitle());
@@ -77,8 +141,19 @@ public class IssueService {
         } else {
             issue.setAssignee(null);
         }
+        if (request.getLabels() != null) {
+            Set<Label> labels = labelService.resolve(request.getLabels());
+            if (!labels.equals(issue.getLabels())) {
+                // Edited in place, so only the added and removed join rows are written
+                issue.getLabels().retainAll(labels);
+                issue.getLabels().addAll(labels);
+                // A label change alone doesn't dirty the issue row
+                issue.setUpdatedAt(LocalDateTime.now());
+            }
+        }
 
         Issue updatedIssue = issueRepository.save(issue);
+        publishChange(updatedIssue, ChangeType.UPDATED, previousAssigneeId, previousStatus);
         return mapToResponse(updatedIssue);
     }
 
@@ -89,33 +164,168 @@ public class IssueService {
         return mapToResponse(issue);
     }
 
+    /**
+     * Issues by id, in the order asked for. Issues and their users come from the second-level
+     * cache where present; the rest are loaded with one query per entity, and the labels of all
+     * issues with one more, however many ids are given.
+     */
+    @Transactional(readOnly = true)
+    public IssueBatchResponse getIssues(List<Long> ids) {
+        List<Long> distinct = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.isEmpty()) {
+            throw new RuntimeException("At least one issue ID is required");
+        }
+        if (distinct.size() > MAX_BATCH_IDS) {
+            throw new RuntimeException("At most " + MAX_BATCH_IDS + " issues can be fetched at once");
+        }
+        Session session = entityManager.unwrap(Session.class);
+        // Without an explicit cache mode, multiLoad skips the second-level cache
+        List<Issue> issues = session.byMultipleIds(Issue.class).with(CacheMode.NORMAL).multiLoad(distinct);
+
+        List<Issue> found = issues.stream().filter(Objects::nonNull).toList();
+        List<Long> userIds = found.stream()
+                .flatMap(issue -> Stream.of(issue.getReporter(), issue.getAssignee()))
+                .filter(Objects::nonNull)
+                .map(User::getId)
+                .distinct()
+                .toList();
+        // Initializes the reporter and assignee proxies held by the issues in one go
+        session.byMultipleIds(User.class).with(CacheMode.NORMAL).multiLoad(userIds);
+        Map<Long, List<String>> labels = labelService.labelNamesByIssue(found.stream().map(Issue::getId).toList());
+
+        List<IssueResponse> responses = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            Issue issue = issues.get(i);
+            if (issue == null) {
+                missing.add(distinct.get(i));
+            } else {
+                responses.add(mapToResponse(issue, labels.getOrDefault(issue.getId(), List.of())));
+            }
+        }
+        return new IssueBatchResponse(responses, missing);
+    }
+
     @Transactional(readOnly = true)
-    public List<IssueResponse> getAllIssues() {
+    public List<IssueResponse> getAllIssues(IssueFields fields) {
+        if (fields != null) {
+            return issueProjector.findAll(null, fields);
+        }
         return issueRepository.findAll().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public PageResponse<IssueResponse> getAllIssuesPaginated(int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("asc") ? 
-                Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+    public PageResponse<IssueResponse> getAllIssuesPaginated(int page, int size, String sortBy, String sortDir,
+                                                             IssueFields fields) {
+        Pageable pageable = PageRequest.of(page, size, resolveSort(sortBy, sortDir));
+        if (fields != null) {
+            return toPageResponse(issueProjector.findPage(null, pageable, fields));
+        }
         Page<Issue> issuePage = issueRepository.findAll(pageable);
 
         return mapToPageResponse(issuePage);
     }
 
     @Transactional(readOnly = true)
-    public PageResponse<IssueResponse> searchIssues(String searchTerm, int page, int size) {
+    public FacetedPageResponse<IssueResponse> queryIssues(IssueQueryRequest query) {
+        LabelExpression labels = LabelExpression.parse(query.getLabels());
+        Specification<Issue> filter = Specification.where(IssueSpecifications.statusIn(query.getStatus()))
+                .and(IssueSpecifications.priorityIn(query.getPriority()))
+                .and(IssueSpecifications.assignedTo(query.getAssigneeId()))
+                .and(IssueSpecifications.unassigned(query.getUnassigned()))
+                .and(IssueSpecifications.reportedBy(query.getReporterId()))
+                .and(IssueSpecifications.createdBetween(query.getCreatedFrom(), query.getCreatedTo()))
+                .and(IssueSpecifications.matchesText(query.getQ()))
+                .and(IssueSpecifications.labelsMatch(labels));
+
+        int size = Math.max(1, Math.min(query.getSize(), MAX_QUERY_PAGE_SIZE));
+        Pageable pageable = PageRequest.of(Math.max(0, query.getPage()), size,
+                resolveSort(query.getSortBy(), query.getSortDir()));
+
+        IssueFields fields = IssueFields.parse(query.getFields());
+        Page<IssueResponse> page = null;
+        if (labels != null && indexCanServe(query)) {
+            IssueBitmapIndex.IdPage ids = issueIndex.query(labels, query.getStatus(), query.getPriority(),
+                    pageable.getPageNumber(), pageable.getPageSize(), !"asc".equalsIgnoreCase(query.getSortDir()));
+            if (ids != null) {
+                List<IssueResponse> content = fields != null
+                        ? issueProjector.findInOrder(ids.ids(), fields)
+                        : findInOrder(ids.ids()).stream().map(this::mapToResponse).collect(Collectors.toList());
+                page = new PageImpl<>(content, pageable, ids.total());
+            }
+        }
+        if (page == null) {
+            page = fields != null
+                    ? issueProjector.findPage(filter, pageable, fields)
+                    : issueRepository.findAll(Specification.where(IssueSpecifications.fetchUsers()).and(filter), pageable)
+                            .map(this::mapToResponse);
+        }
+        IssueFacets facets = query.isFacets()
+                ? issueFacetService.facets(facetKey(query, labels), filter, page.getTotalElements())
+                : null;
+        return new FacetedPageResponse<>(toPageResponse(page), facets);
+    }
+
+    // Everything that selects rows, in canonical order and case; paging and sorting don't change
+    // the counts. The free text goes last, so no value can run into the next one.
+    private static String facetKey(IssueQueryRequest query, LabelExpression labels) {
+        return String.join("|", "query",
+                sorted(query.getStatus()),
+                sorted(query.getPriority()),
+                String.valueOf(query.getAssigneeId()),
+                String.valueOf(Boolean.TRUE.equals(query.getUnassigned())),
+                String.valueOf(query.getReporterId()),
+                String.valueOf(query.getCreatedFrom()),
+                String.valueOf(query.getCreatedTo()),
+                Objects.toString(labels, ""),
+                query.getQ() != null ? query.getQ().trim().toLowerCase() : "");
+    }
+
+    private static <E extends Enum<E>> String sorted(List<E> values) {
+        return values != null ? new TreeSet<>(values).toString() : "[]";
+    }
+
+    // Status and priority are in the index; every other filter needs SQL
+    private static boolean indexCanServe(IssueQueryRequest query) {
+        return query.getAssigneeId() == null && !Boolean.TRUE.equals(query.getUnassigned())
+                && query.getReporterId() == null && query.getCreatedFrom() == null && query.getCreatedTo() == null
+                && (query.getQ() == null || query.getQ().isBlank())
+                && INDEX_SORT_FIELDS.contains(query.getSortBy());
+    }
+
+    // Loads one page of issues by id, in the order given; ids deleted in the meantime are skipped
+    private List<Issue> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Issue> byId = issueRepository.findAll(Specification.where(IssueSpecifications.fetchUsers())
+                        .and(IssueSpecifications.idIn(ids))).stream()
+                .collect(Collectors.toMap(Issue::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public FacetedPageResponse<IssueResponse> searchIssues(String searchTerm, int page, int size, boolean facets,
+                                                           IssueFields fields) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Issue> issuePage = issueRepository.searchIssues(searchTerm, pageable);
+        Page<IssueResponse> issuePage = fields != null
+                ? issueProjector.findPage(IssueSpecifications.searchTerm(searchTerm), pageable, fields)
+                : issueRepository.searchIssues(searchTerm, pageable).map(this::mapToResponse);
 
-        return mapToPageResponse(issuePage);
+        IssueFacets issueFacets = facets
+                ? issueFacetService.facets("search|" + searchTerm.toLowerCase(),
+                        IssueSpecifications.searchTerm(searchTerm), issuePage.getTotalElements())
+                : null;
+        return new FacetedPageResponse<>(toPageResponse(issuePage), issueFacets);
     }
 
     @Transactional(readOnly = true)
-    public List<IssueResponse> getIssuesByStatus(IssueStatus status) {
+    public List<IssueResponse> getIssuesByStatus(IssueStatus status, IssueFields fields) {
+        if (fields != null) {
+            return issueProjector.findAll(IssueSpecifications.statusIn(List.of(status)), fields);
+        }
         return issueRepository.findByStatus(status).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
@@ -137,11 +347,126 @@ public class IssueService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Soft-deletes an issue: a single-row update that hides it, its comments and attachments at
+     * once. {@link IssuePurger} removes the rows in small batches once the grace period is over;
+     * until then {@link #restoreIssue} brings everything back.
+     */
     @Transactional
     public void deleteIssue(Long id) {
         Issue issue = issueRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Issue not found"));
-        issueRepository.delete(issue);
+        issueRepository.markDeleted(id, LocalDateTime.now());
+        cacheInvalidation.evictUpdated(Issue.class, id);
+        publishChange(issue, ChangeType.DELETED, null, issue.getStatus());
+    }
+
+    @Transactional
+    public IssueResponse restoreIssue(Long id) {
+        if (issueRepository.restoreDeleted(id, LocalDateTime.now().minus(deleteGracePeriod)) == 0) {
+            throw new RuntimeException("Issue not found or no longer restorable");
+        }
+        Issue issue = issueRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Issue not found"));
+        cacheInvalidation.evictUpdated(Issue.class, id);
+        publishChange(issue, ChangeType.RESTORED, null, null);
+        return mapToResponse(issue);
+    }
+
+    /**
+     * Keyset-paginated inbox of the current user's reported or assigned issues, with per-status
+     * counts for the whole inbox. Not transactional on purpose: a cache hit must not borrow a
+     * connection, and each repository call below runs in its own short read-only transaction.
+     */
+    public InboxResponse getInbox(boolean assigned, IssueStatus status, String cursor, int size) {
+        Long userId = getCurrentUserId();
+        int pageSize = Math.max(1, Math.min(size, MAX_INBOX_PAGE_SIZE));
+        String cacheKey = (assigned ? "assigned" : "reported") + ":" + status + ":" + cursor + ":" + pageSize;
+
+        InboxResponse cached = inboxCache.get(userId, cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = inboxCache.generation(userId);
+        long replicaReads = ReplicaReads.count();
+
+        LocalDateTime afterCreatedAt = INBOX_START;
+        Long afterId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                afterCreatedAt = LocalDateTime.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Issue> issues = assigned
+                ? issueRepository.findAssignedInboxPage(userId, status, afterCreatedAt, afterId, limit)
+                : issueRepository.findReportedInboxPage(userId, status, afterCreatedAt, afterId, limit);
+        List<Object[]> counts = assigned
+                ? issueRepository.countByStatusForAssignee(userId)
+                : issueRepository.countByStatusForReporter(userId);
+
+        boolean hasMore = issues.size() > pageSize;
+        List<Issue> page = hasMore ? issues.subList(0, pageSize) : issues;
+        String nextCursor = null;
+        if (hasMore) {
+            Issue last = page.get(page.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        for (IssueStatus value : IssueStatus.values()) {
+            statusCounts.put(value.name(), 0L);
+        }
+        long total = 0;
+        for (Object[] row : counts) {
+            statusCounts.put(((IssueStatus) row[0]).name(), (Long) row[1]);
+            total += (Long) row[1];
+        }
+
+        // Mapped outside a transaction, so the labels come from one query instead of lazy loads
+        Map<Long, List<String>> labels = labelService.labelNamesByIssue(page.stream().map(Issue::getId).toList());
+        InboxResponse response = new InboxResponse(
+                page.stream()
+                        .map(issue -> mapToResponse(issue, labels.getOrDefault(issue.getId(), List.of())))
+                        .collect(Collectors.toList()),
+                statusCounts, total, nextCursor, hasMore);
+        // Pages read from a replica may predate the last eviction
+        if (!ReplicaReads.since(replicaReads)) {
+            inboxCache.put(userId, generation, cacheKey, response);
+        }
+        return response;
+    }
+
+    private Sort resolveSort(String sortBy, String sortDir) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new RuntimeException("Cannot sort by '" + sortBy + "'. Sortable fields: " + SORTABLE_FIELDS);
+        }
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        // Tie-break on id so pages are stable when the sort column has duplicates
+        return sortBy.equals("id") ? Sort.by(direction, "id") : Sort.by(direction, sortBy, "id");
+    }
+
+    private void publishChange(Issue issue, ChangeType type, Long previousAssigneeId, IssueStatus previousStatus) {
+        eventPublisher.publishEvent(new IssueChangedEvent(
+                issue.getId(),
+                type,
+                issue.getReporter() != null ? issue.getReporter().getId() : null,
+                issue.getAssignee() != null ? issue.getAssignee().getId() : null,
+                previousAssigneeId,
+                issue.getStatus(),
+                previousStatus));
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
     }
 
     private User getCurrentUser() {
@@ -151,7 +476,12 @@ public class IssueService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    private IssueResponse mapToResponse(Issue issue) {
+    // Package-private for the JMH benchmarks (-Pjmh)
+    IssueResponse mapToResponse(Issue issue) {
+        return mapToResponse(issue, issue.getLabels().stream().map(Label::getName).sorted().toList());
+    }
+
+    private IssueResponse mapToResponse(Issue issue, List<String> labels) {
         IssueResponse response = new IssueResponse();
         response.setId(issue.getId());
         response.setTitle(issue.getTitle());
@@ -161,6 +491,10 @@ public class IssueService {
         response.setResolvedAt(issue.getResolvedAt());
         response.setCreatedAt(issue.getCreatedAt());
         response.setUpdatedAt(issue.getUpdatedAt());
+        response.setCommentCount(issue.getCommentCount());
+        response.setAttachmentCount(issue.getAttachmentCount());
+        response.setLastActivityAt(issue.getLastActivityAt());
+        response.setLabels(labels);
 
         User reporter = issue.getReporter();
         response.setReporter(new IssueResponse.UserSummary(
@@ -175,19 +509,19 @@ public class IssueService {
         return response;
     }
 
-    private PageResponse<IssueResponse> mapToPageResponse(Page<Issue> issuePage) {
-        List<IssueResponse> content = issuePage.getContent().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    PageResponse<IssueResponse> mapToPageResponse(Page<Issue> issuePage) {
+        return toPageResponse(issuePage.map(this::mapToResponse));
+    }
 
+    private static PageResponse<IssueResponse> toPageResponse(Page<IssueResponse> page) {
         return new PageResponse<>(
-                content,
-                issuePage.getNumber(),
-                issuePage.getSize(),
-                issuePage.getTotalElements(),
-                issuePage.getTotalPages(),
-                issuePage.isFirst(),
-                issuePage.isLast()
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isFirst(),
+                page.isLast()
         );
     }
 }
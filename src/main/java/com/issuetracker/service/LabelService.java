@@ -0,0 +1,112 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.LabelResponse;
+import com.issuetracker.index.IssueBitmapIndex;
+import com.issuetracker.index.LabelExpression;
+import com.issuetracker.model.Label;
+import com.issuetracker.repository.LabelRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Labels are created on first use: attaching an unknown name to an issue creates it.
+ */
+@Service
+public class LabelService {
+    private static final int MAX_LABELS_PER_ISSUE = 20;
+
+    private final LabelRepository labelRepository;
+    private final IssueBitmapIndex issueIndex;
+    private final TransactionTemplate newTransaction;
+
+    public LabelService(LabelRepository labelRepository,
+                        IssueBitmapIndex issueIndex,
+                        PlatformTransactionManager transactionManager) {
+        this.labelRepository = labelRepository;
+        this.issueIndex = issueIndex;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the labels with the given names, creating the missing ones.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<Label> resolve(Collection<String> names) {
+        Set<String> normalized = names.stream().map(LabelExpression::labelName).collect(Collectors.toSet());
+        if (normalized.size() > MAX_LABELS_PER_ISSUE) {
+            throw new RuntimeException("An issue can have at most " + MAX_LABELS_PER_ISSUE + " labels");
+        }
+        if (normalized.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<Label> labels = new HashSet<>(labelRepository.findByNameIn(normalized));
+        Set<String> missing = new HashSet<>(normalized);
+        labels.forEach(label -> missing.remove(label.getName()));
+        for (String name : missing) {
+            labels.add(create(name));
+        }
+        return labels;
+    }
+
+    @Transactional(readOnly = true)
+    public List<LabelResponse> getLabels() {
+        Map<String, Long> counts = issueIndex.labelCounts();
+        if (counts == null) {
+            counts = new HashMap<>();
+            for (Object[] row : labelRepository.countIssuesByLabel()) {
+                counts.put((String) row[0], (Long) row[1]);
+            }
+        }
+        Map<String, Long> issueCounts = counts;
+        return labelRepository.findAllByOrderByNameAsc().stream()
+                .map(label -> new LabelResponse(label.getId(), label.getName(),
+                        issueCounts.getOrDefault(label.getName(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sorted label names per issue id, in one query; issues without labels are left out.
+     */
+    public Map<Long, List<String>> labelNamesByIssue(Collection<Long> issueIds) {
+        if (issueIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Set<String>> names = new HashMap<>();
+        for (Object[] row : labelRepository.findNamesByIssueIds(issueIds)) {
+            names.computeIfAbsent((Long) row[0], id -> new TreeSet<>()).add((String) row[1]);
+        }
+        Map<Long, List<String>> sorted = new HashMap<>();
+        names.forEach((id, labels) -> sorted.put(id, List.copyOf(labels)));
+        return sorted;
+    }
+
+    // Committed on its own, so a concurrent request creating the same label fails only its insert
+    private Label create(String name) {
+        try {
+            Long id = newTransaction.execute(status -> {
+                Label label = new Label();
+                label.setName(name);
+                return labelRepository.save(label).getId();
+            });
+            return labelRepository.getReferenceById(id);
+        } catch (DataIntegrityViolationException e) {
+            return labelRepository.findByName(name).orElseThrow(() -> e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.issuetracker.service;
+
+import com.issuetracker.repository.AttachmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+@Service
+public class ThumbnailService {
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private static final String FORMAT = "jpg";
+
+    private final AttachmentRepository attachmentRepository;
+    private final TaskExecutor thumbnailExecutor;
+
+    @Value("${file.upload.thumbnail.size:200}")
+    private int thumbnailSize;
+
+    @Value("${file.upload.thumbnail.preview-size:1024}")
+    private int previewSize;
+
+    public ThumbnailService(AttachmentRepository attachmentRepository,
+                            @Qualifier("thumbnailExecutor") TaskExecutor thumbnailExecutor) {
+        this.attachmentRepository = attachmentRepository;
+        this.thumbnailExecutor = thumbnailExecutor;
+    }
+
+    public boolean supports(String contentType) {
+        return contentType != null && contentType.startsWith("image/")
+                && ImageIO.getImageReadersByMIMEType(contentType).hasNext();
+    }
+
+    public void enqueue(Long attachmentId, Path source) {
+        try {
+            thumbnailExecutor.execute(() -> generate(attachmentId, source));
+        } catch (TaskRejectedException e) {
+            logger.warn("Thumbnail queue full, skipping attachment {}", attachmentId);
+        }
+    }
+
+    void generate(Long attachmentId, Path source) {
+        try {
+            BufferedImage image = readSubsampled(source, previewSize);
+            if (image == null) {
+                logger.debug("No image reader for attachment {}", attachmentId);
+                return;
+            }
+
+            Path thumbnailPath = derivativePath(source, "thumb");
+            Path previewPath = derivativePath(source, "preview");
+            ImageIO.write(cropToSquare(image, thumbnailSize), FORMAT, thumbnailPath.toFile());
+            ImageIO.write(scaleToFit(image, previewSize), FORMAT, previewPath.toFile());
+
+            if (attachmentRepository.updateDerivatives(attachmentId, thumbnailPath.toString(), previewPath.toString()) == 0) {
+                // Attachment was deleted while we were working on it
+                Files.deleteIfExists(thumbnailPath);
+                Files.deleteIfExists(previewPath);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Thumbnail generation failed for attachment {}: {}", attachmentId, e.getMessage());
+        }
+    }
+
+    static Path derivativePath(Path source, String variant) {
+        return source.resolveSibling(source.getFileName() + "." + variant + "." + FORMAT);
+    }
+
+    /**
+     * Decodes the image with source subsampling so that a huge screenshot never has to be
+     * materialised at full resolution just to be shrunk to preview size.
+     */
+    static BufferedImage readSubsampled(Path source, int targetSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (targetSize * 2));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static BufferedImage cropToSquare(BufferedImage source, int size) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        return render(source.getSubimage(x, y, side, side), size, size);
+    }
+
+    static BufferedImage scaleToFit(BufferedImage source, int maxSize) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        return render(source, width, height);
+    }
+
+    private static BufferedImage render(BufferedImage source, int width, int height) {
+        // JPEG has no alpha channel, so flatten onto white
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,61 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.UserResponse;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.WatcherRepository;
+import com.issuetracker.security.UserDetailsImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Users watch and unwatch issues for themselves; who watches an issue is visible to everyone who
+ * can see it. Reporters and assignees are added by {@code NotificationDigester}, and can unwatch
+ * like anyone else.
+ */
+@Service
+public class WatcherService {
+
+    private final WatcherRepository watcherRepository;
+    private final IssueRepository issueRepository;
+
+    public WatcherService(WatcherRepository watcherRepository, IssueRepository issueRepository) {
+        this.watcherRepository = watcherRepository;
+        this.issueRepository = issueRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserResponse> getWatchers(Long issueId) {
+        requireIssue(issueId);
+        return watcherRepository.findWatchingUsers(issueId).stream()
+                .map(user -> new UserResponse(user.getId(), user.getUsername(), user.getEmail()))
+                .toList();
+    }
+
+    @Transactional
+    public void watch(Long issueId) {
+        requireIssue(issueId);
+        watcherRepository.insertIfAbsent(issueId, getCurrentUserId(), LocalDateTime.now());
+    }
+
+    @Transactional
+    public void unwatch(Long issueId) {
+        requireIssue(issueId);
+        watcherRepository.deleteByIssueIdAndUserId(issueId, getCurrentUserId());
+    }
+
+    private void requireIssue(Long issueId) {
+        if (!issueRepository.existsById(issueId)) {
+            throw new RuntimeException("Issue not found");
+        }
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+    }
+}
@@ -0,0 +1,260 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.PageResponse;
+import com.issuetracker.dto.WebhookDeliveryResponse;
+import com.issuetracker.dto.WebhookRequest;
+import com.issuetracker.dto.WebhookResponse;
+import com.issuetracker.model.User;
+import com.issuetracker.model.Webhook;
+import com.issuetracker.model.WebhookDelivery;
+import com.issuetracker.model.WebhookDelivery.DeliveryStatus;
+import com.issuetracker.outbox.EventOutbox;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.repository.WebhookDeliveryRepository;
+import com.issuetracker.repository.WebhookRepository;
+import com.issuetracker.security.UserDetailsImpl;
+import com.issuetracker.webhook.WebhookAddressPolicy;
+import com.issuetracker.webhook.WebhookDispatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URI;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Webhooks are managed by the user who registered them; other users can't see them.
+ */
+@Service
+public class WebhookService {
+    private static final int MAX_WEBHOOKS_PER_USER = 20;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MIN_SECRET_LENGTH = 16;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final WebhookRepository webhookRepository;
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final UserRepository userRepository;
+    private final WebhookDispatcher dispatcher;
+    private final WebhookAddressPolicy addressPolicy;
+
+    public WebhookService(WebhookRepository webhookRepository,
+                          WebhookDeliveryRepository deliveryRepository,
+                          UserRepository userRepository,
+                          WebhookDispatcher dispatcher,
+                          WebhookAddressPolicy addressPolicy) {
+        this.webhookRepository = webhookRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.userRepository = userRepository;
+        this.dispatcher = dispatcher;
+        this.addressPolicy = addressPolicy;
+    }
+
+    @Transactional
+    public WebhookResponse createWebhook(WebhookRequest request) {
+        User owner = getCurrentUser();
+        if (webhookRepository.countByOwnerId(owner.getId()) >= MAX_WEBHOOKS_PER_USER) {
+            throw new RuntimeException("A user can register at most " + MAX_WEBHOOKS_PER_USER + " webhooks");
+        }
+        if (request.getUrl() == null) {
+            throw new RuntimeException("Webhook URL is required");
+        }
+
+        Webhook webhook = new Webhook();
+        webhook.setOwner(owner);
+        webhook.setUrl(validUrl(request.getUrl()));
+        webhook.setEvents(validEvents(request.getEvents() == null || request.getEvents().isEmpty()
+                ? EventOutbox.EVENT_TYPES : request.getEvents()));
+        webhook.setBatchSize(request.getBatchSize() != null ? validBatchSize(request.getBatchSize()) : 1);
+        webhook.setActive(request.getActive() == null || request.getActive());
+        webhook.setSecret(request.getSecret() != null ? validSecret(request.getSecret()) : generateSecret());
+
+        Webhook saved = webhookRepository.save(webhook);
+        dispatcher.refreshSubscriptions();
+        return mapToResponse(saved, Map.of(), true);
+    }
+
+    @Transactional
+    public WebhookResponse updateWebhook(Long id, WebhookRequest request) {
+        Webhook webhook = findOwnWebhook(id);
+        if (request.getUrl() != null) {
+            webhook.setUrl(validUrl(request.getUrl()));
+        }
+        if (request.getEvents() != null) {
+            webhook.setEvents(validEvents(request.getEvents()));
+        }
+        if (request.getBatchSize() != null) {
+            webhook.setBatchSize(validBatchSize(request.getBatchSize()));
+        }
+        if (request.getActive() != null) {
+            webhook.setActive(request.getActive());
+        }
+        if (request.getSecret() != null) {
+            webhook.setSecret(validSecret(request.getSecret()));
+        }
+        Webhook saved = webhookRepository.save(webhook);
+        dispatcher.refreshSubscriptions();
+        return mapToResponse(saved, undeliveredCounts(List.of(id)), request.getSecret() != null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WebhookResponse> getWebhooks() {
+        List<Webhook> webhooks = webhookRepository.findByOwnerIdOrderByIdAsc(getCurrentUser().getId());
+        Map<Long, Map<DeliveryStatus, Long>> counts = undeliveredCounts(
+                webhooks.stream().map(Webhook::getId).toList());
+        return webhooks.stream()
+                .map(webhook -> mapToResponse(webhook, counts, false))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void deleteWebhook(Long id) {
+        Webhook webhook = findOwnWebhook(id);
+        // Their events go with the next cleanup once no other delivery refers to them
+        deliveryRepository.deleteByWebhookId(id);
+        webhookRepository.delete(webhook);
+        dispatcher.refreshSubscriptions();
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<WebhookDeliveryResponse> getDeadLetters(Long id, int page, int size) {
+        findOwnWebhook(id);
+        Page<WebhookDelivery> deliveries = deliveryRepository.findByWebhookIdAndStatusOrderByIdDesc(
+                id, DeliveryStatus.DEAD, PageRequest.of(page, size));
+        return new PageResponse<>(
+                deliveries.getContent().stream().map(this::mapToResponse).toList(),
+                deliveries.getNumber(),
+                deliveries.getSize(),
+                deliveries.getTotalElements(),
+                deliveries.getTotalPages(),
+                deliveries.isFirst(),
+                deliveries.isLast()
+        );
+    }
+
+    /**
+     * Puts every dead-lettered delivery of the webhook back in line, with a fresh set of attempts.
+     */
+    @Transactional
+    public WebhookResponse redeliverDeadLetters(Long id) {
+        Webhook webhook = findOwnWebhook(id);
+        deliveryRepository.redeliverDead(id, LocalDateTime.now());
+        dispatcher.resume(id);
+        return mapToResponse(webhook, undeliveredCounts(List.of(id)), false);
+    }
+
+    private Webhook findOwnWebhook(Long id) {
+        Long ownerId = getCurrentUser().getId();
+        return webhookRepository.findById(id)
+                .filter(webhook -> webhook.getOwner().getId().equals(ownerId))
+                .orElseThrow(() -> new RuntimeException("Webhook not found"));
+    }
+
+    private String validUrl(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url.trim());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid webhook URL: " + url);
+        }
+        if (uri.getScheme() == null || !Set.of("http", "https").contains(uri.getScheme().toLowerCase())
+                || uri.getHost() == null || url.length() > 2000) {
+            throw new RuntimeException("Webhook URL must be an absolute http or https URL");
+        }
+        addressPolicy.check(uri);
+        return uri.toString();
+    }
+
+    private static String validEvents(List<String> events) {
+        Set<String> types = new LinkedHashSet<>();
+        for (String event : events) {
+            String type = event == null ? "" : event.trim().toLowerCase();
+            if (!EventOutbox.EVENT_TYPES.contains(type)) {
+                throw new RuntimeException("Unknown webhook event '" + event + "'; expected one of "
+                        + String.join(", ", EventOutbox.EVENT_TYPES));
+            }
+            types.add(type);
+        }
+        if (types.isEmpty()) {
+            throw new RuntimeException("A webhook needs at least one event type");
+        }
+        return String.join(",", types);
+    }
+
+    private static int validBatchSize(int batchSize) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new RuntimeException("Webhook batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        return batchSize;
+    }
+
+    private static String validSecret(String secret) {
+        if (secret.length() < MIN_SECRET_LENGTH || secret.length() > 100) {
+            throw new RuntimeException("Webhook secret must be " + MIN_SECRET_LENGTH + " to 100 characters long");
+        }
+        return secret;
+    }
+
+    private static String generateSecret() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private Map<Long, Map<DeliveryStatus, Long>> undeliveredCounts(List<Long> webhookIds) {
+        Map<Long, Map<DeliveryStatus, Long>> counts = new HashMap<>();
+        if (webhookIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : deliveryRepository.countUndeliveredByWebhook(webhookIds)) {
+            counts.computeIfAbsent((Long) row[0], webhookId -> new HashMap<>())
+                    .put((DeliveryStatus) row[1], (Long) row[2]);
+        }
+        return counts;
+    }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private WebhookResponse mapToResponse(Webhook webhook, Map<Long, Map<DeliveryStatus, Long>> counts,
+                                          boolean withSecret) {
+        Map<DeliveryStatus, Long> undelivered = counts.getOrDefault(webhook.getId(), Map.of());
+        return new WebhookResponse(
+                webhook.getId(),
+                webhook.getUrl(),
+                List.copyOf(EventOutbox.parseTypes(webhook.getEvents())),
+                webhook.getBatchSize(),
+                webhook.getActive(),
+                webhook.getCreatedAt(),
+                undelivered.getOrDefault(DeliveryStatus.PENDING, 0L),
+                undelivered.getOrDefault(DeliveryStatus.DEAD, 0L),
+                withSecret ? webhook.getSecret() : null
+        );
+    }
+
+    private WebhookDeliveryResponse mapToResponse(WebhookDelivery delivery) {
+        return new WebhookDeliveryResponse(
+                delivery.getId(),
+                delivery.getEvent().getId(),
+                delivery.getEvent().getType(),
+                delivery.getAttempts(),
+                delivery.getLastError(),
+                delivery.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,101 @@
+package com.issuetracker.webhook;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+
+/**
+ * Keeps webhooks off the internal network. A webhook URL is chosen by any user, and its failures
+ * come back through the dead letters, so a URL pointing at loopback, link-local (cloud metadata),
+ * private or otherwise non-public addresses would let users probe what the server can reach.
+ * The host is resolved and checked when a webhook is saved, and again before every POST, so a
+ * name re-pointed at an internal address after registration is refused as well.
+ *
+ * <p>{@code webhooks.allow-private-addresses} turns the check off, for receivers on the same
+ * network and for tests.
+ */
+@Component
+public class WebhookAddressPolicy {
+    private final boolean allowPrivateAddresses;
+
+    public WebhookAddressPolicy(@Value("${webhooks.allow-private-addresses:false}") boolean allowPrivateAddresses) {
+        this.allowPrivateAddresses = allowPrivateAddresses;
+    }
+
+    /**
+     * Throws unless every address the URL's host resolves to is public.
+     */
+    public void check(URI uri) {
+        if (allowPrivateAddresses) {
+            return;
+        }
+        String host = uri.getHost();
+        if (host == null) {
+            throw new RuntimeException("Webhook URL has no host");
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new RuntimeException("Webhook host " + host + " could not be resolved");
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                // Which address it resolved to stays out of the message, it ends up in the dead letters
+                throw new RuntimeException("Webhook host " + host + " is not a public address");
+            }
+        }
+    }
+
+    static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            int first = bytes[0] & 0xff;
+            int second = bytes[1] & 0xff;
+            return first != 0                                          // this network
+                    && !(first == 100 && (second & 0xc0) == 64)        // carrier-grade NAT 100.64/10
+                    && !(first == 192 && second == 0 && bytes[2] == 0) // IETF protocol assignments
+                    && !(first == 198 && (second & 0xfe) == 18)        // benchmarking 198.18/15
+                    && first < 240;                                    // reserved and broadcast
+        }
+        if (address instanceof Inet6Address) {
+            int first = bytes[0] & 0xff;
+            if ((first & 0xfe) == 0xfc) {
+                // Unique local fc00::/7
+                return false;
+            }
+            boolean mapped = isZero(bytes, 0, 10) && (bytes[10] & 0xff) == 0xff && (bytes[11] & 0xff) == 0xff;
+            // NAT64 64:ff9b::/96 reaches IPv4 through a gateway
+            boolean nat64 = first == 0 && (bytes[1] & 0xff) == 0x64 && (bytes[2] & 0xff) == 0xff
+                    && (bytes[3] & 0xff) == 0x9b && isZero(bytes, 4, 12);
+            if (mapped || nat64 || isZero(bytes, 0, 12)) {
+                // The embedded IPv4 address decides
+                try {
+                    return isPublic(InetAddress.getByAddress(Arrays.copyOfRange(bytes, 12, 16)));
+                } catch (UnknownHostException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
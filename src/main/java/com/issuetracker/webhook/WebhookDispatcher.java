@@ -0,0 +1,565 @@
+package com.issuetracker.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.issuetracker.model.OutboxEvent;
+import com.issuetracker.model.Webhook;
+import com.issuetracker.model.WebhookDelivery;
+import com.issuetracker.model.WebhookDelivery.DeliveryStatus;
+import com.issuetracker.outbox.EventOutbox;
+import com.issuetracker.repository.OutboxEventRepository;
+import com.issuetracker.repository.WebhookDeliveryRepository;
+import com.issuetracker.repository.WebhookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers the webhook outbox. Every {@code webhooks.poll-interval-ms}, and right after a
+ * transaction wrote an event, one dispatcher thread:
+ * <ol>
+ *   <li>relays new {@code outbox_events} into one {@code webhook_deliveries} row per subscribed
+ *       active webhook;</li>
+ *   <li>claims due deliveries into a bounded in-memory queue per webhook, at most
+ *       {@code webhooks.queue-capacity}, leasing them for {@code webhooks.claim-timeout} so other
+ *       instances skip them;</li>
+ *   <li>POSTs each webhook's queue as JSON arrays of up to its batch size, signed by
+ *       {@link WebhookSigner}, once {@link WebhookAddressPolicy} has checked the host.</li>
+ * </ol>
+ * Requests are asynchronous with at most one in flight per webhook, so a slow or unreachable
+ * receiver only ever delays its own deliveries, and never holds a thread. A failed batch is retried
+ * with exponential backoff from {@code webhooks.backoff.initial} up to {@code webhooks.backoff.max},
+ * its webhook pausing until then; after {@code webhooks.max-attempts} a delivery is dead-lettered.
+ *
+ * <p>Delivery is at least once: a delivery whose outcome could not be recorded is retried once its
+ * lease expires. Receivers can deduplicate on the delivery id.
+ */
+@Component
+public class WebhookDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    // Events fanned out per transaction, and old rows removed per cleanup statement
+    private static final int RELAY_BATCH_SIZE = 500;
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final WebhookRepository webhookRepository;
+    private final OutboxEventRepository eventRepository;
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final WebhookAddressPolicy addressPolicy;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration timeout;
+    private final Duration claimTimeout;
+    private final Duration retention;
+
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private volatile boolean started;
+    private ScheduledFuture<?> polling;
+    // Event types some active webhook subscribes to; read by EventOutbox on request threads
+    private volatile Set<String> subscribedTypes = Set.of();
+    // Only touched on the dispatcher thread; concurrent for the gauge
+    private final Map<Long, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer requestTimer;
+
+    public WebhookDispatcher(WebhookRepository webhookRepository,
+                             OutboxEventRepository eventRepository,
+                             WebhookDeliveryRepository deliveryRepository,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             WebhookAddressPolicy addressPolicy,
+                             MeterRegistry meterRegistry,
+                             @Value("${webhooks.enabled:true}") boolean enabled,
+                             @Value("${webhooks.poll-interval-ms:1000}") long pollIntervalMs,
+                             @Value("${webhooks.queue-capacity:100}") int queueCapacity,
+                             @Value("${webhooks.max-attempts:10}") int maxAttempts,
+                             @Value("${webhooks.backoff.initial:10s}") Duration initialBackoff,
+                             @Value("${webhooks.backoff.max:1h}") Duration maxBackoff,
+                             @Value("${webhooks.timeout:10s}") Duration timeout,
+                             @Value("${webhooks.claim-timeout:5m}") Duration claimTimeout,
+                             @Value("${webhooks.retention:7d}") Duration retention) {
+        this.webhookRepository = webhookRepository;
+        this.eventRepository = eventRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.addressPolicy = addressPolicy;
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.timeout = timeout;
+        this.claimTimeout = claimTimeout;
+        this.retention = retention;
+
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webhook-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.delivered = deliveryCounter(meterRegistry, "delivered");
+        this.retried = deliveryCounter(meterRegistry, "retried");
+        this.dead = deliveryCounter(meterRegistry, "dead");
+        this.requestTimer = Timer.builder("webhook.requests")
+                .description("Webhook POSTs, successful or not")
+                .register(meterRegistry);
+        Gauge.builder("webhook.queued", endpoints, map -> map.values().stream().mapToInt(e -> e.queued).sum())
+                .description("Deliveries claimed into the in-memory queues")
+                .register(meterRegistry);
+    }
+
+    private static Counter deliveryCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("webhook.deliveries")
+                .description("Webhook deliveries by outcome of an attempt")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || started) {
+            return;
+        }
+        refreshSubscriptions();
+        started = true;
+        polling = executor.scheduleWithFixedDelay(this::poll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops polling and returns once the dispatcher is idle: requests in flight have completed and
+     * recorded their outcome, and claimed deliveries are forgotten. {@link #start()} resumes it.
+     * For tests, which must not clear tables under a running dispatcher.
+     */
+    synchronized void pause() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        polling.cancel(false);
+        // A request can't outlast its timeout; its completion then runs on the dispatcher thread
+        long deadline = System.nanoTime() + timeout.plusSeconds(1).toNanos();
+        try {
+            while (executor.submit(() -> endpoints.values().stream().anyMatch(e -> e.inFlight)).get()) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Webhook requests still in flight");
+                }
+                Thread.sleep(10);
+            }
+            executor.submit(endpoints::clear).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while pausing the webhook dispatcher", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not pause the webhook dispatcher", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        started = false;
+        executor.shutdownNow();
+    }
+
+    public boolean isSubscribed(String type) {
+        return subscribedTypes.contains(type);
+    }
+
+    /**
+     * Reloads which event types are wanted, for webhook changes made on this instance to apply
+     * at once; changes made elsewhere apply with the next poll.
+     */
+    public void refreshSubscriptions() {
+        if (enabled) {
+            subscribedTypes = subscriptions(webhookRepository.findByActiveTrue());
+        }
+    }
+
+    /**
+     * Runs a poll soon, off the calling thread; wake-ups arriving meanwhile share it.
+     */
+    public void wakeUp() {
+        if (started && wakeUpPending.compareAndSet(false, true)) {
+            executor.execute(this::poll);
+        }
+    }
+
+    /**
+     * Ends the backoff pause of a webhook, once the current transaction (if any) has committed, so
+     * redelivered dead letters go out at once.
+     */
+    public void resume(Long webhookId) {
+        if (!started) {
+            return;
+        }
+        Runnable resume = () -> executor.execute(() -> {
+            Endpoint endpoint = endpoints.get(webhookId);
+            if (endpoint != null) {
+                endpoint.pausedUntil = null;
+            }
+            poll();
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    resume.run();
+                }
+            });
+        } else {
+            resume.run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${webhooks.cleanup-interval-ms:3600000}")
+    public void cleanUp() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        // Their events go with the outbox cleanup in EventOutbox
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    deliveryRepository.deleteDeliveredBefore(cutoff, CLEANUP_BATCH_SIZE));
+            total += deleted != null ? deleted : 0;
+            if (deleted == null || deleted < CLEANUP_BATCH_SIZE) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Removed {} delivered webhook deliveries", total);
+        }
+    }
+
+    // Everything below runs on the dispatcher thread
+
+    private void poll() {
+        wakeUpPending.set(false);
+        // Wake-ups and resumes queued before a pause
+        if (!started) {
+            return;
+        }
+        try {
+            List<Webhook> webhooks = webhookRepository.findByActiveTrue();
+            subscribedTypes = subscriptions(webhooks);
+            syncEndpoints(webhooks);
+            relay();
+            for (Endpoint endpoint : endpoints.values()) {
+                dispatch(endpoint);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Webhook dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private void syncEndpoints(List<Webhook> webhooks) {
+        Set<Long> active = new HashSet<>();
+        for (Webhook webhook : webhooks) {
+            active.add(webhook.getId());
+            endpoints.computeIfAbsent(webhook.getId(), Endpoint::new).update(webhook);
+        }
+        // Leased deliveries of a paused webhook become due again once their lease expires
+        endpoints.keySet().retainAll(active);
+    }
+
+    private void relay() {
+        while (true) {
+            Integer relayed = transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = eventRepository.findUnrelayed(PageRequest.of(0, RELAY_BATCH_SIZE));
+                LocalDateTime now = LocalDateTime.now();
+                List<WebhookDelivery> deliveries = new ArrayList<>();
+                for (OutboxEvent event : events) {
+                    for (Endpoint endpoint : endpoints.values()) {
+                        if (endpoint.events.contains(event.getType())) {
+                            WebhookDelivery delivery = new WebhookDelivery();
+                            delivery.setWebhook(webhookRepository.getReferenceById(endpoint.webhookId));
+                            delivery.setEvent(event);
+                            delivery.setNextAttemptAt(now);
+                            deliveries.add(delivery);
+                        }
+                    }
+                    event.setRelayedAt(now);
+                }
+                deliveryRepository.saveAll(deliveries);
+                return events.size();
+            });
+            if (relayed == null || relayed < RELAY_BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+
+    private void dispatch(Endpoint endpoint) {
+        if (endpoint.inFlight) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (endpoint.pausedUntil != null && now.isBefore(endpoint.pausedUntil)) {
+            return;
+        }
+        endpoint.pausedUntil = null;
+        // Don't start a request that could outlive the lease: another instance may claim it by then
+        if (!endpoint.queue.isEmpty() && !now.plus(timeout).isBefore(endpoint.leaseUntil)) {
+            endpoint.clear();
+        }
+        if (endpoint.queue.isEmpty()) {
+            claim(endpoint, now);
+        }
+        if (!endpoint.queue.isEmpty()) {
+            send(endpoint);
+        }
+    }
+
+    private void claim(Endpoint endpoint, LocalDateTime now) {
+        LocalDateTime leaseUntil = now.plus(claimTimeout);
+        List<Claimed> claimed = transactionTemplate.execute(status -> {
+            List<WebhookDelivery> due = deliveryRepository.findDue(endpoint.webhookId, now,
+                    PageRequest.of(0, queueCapacity));
+            if (due.isEmpty()) {
+                return List.of();
+            }
+            deliveryRepository.postpone(due.stream().map(WebhookDelivery::getId).toList(), leaseUntil);
+            Map<Long, OutboxEvent> events = eventRepository.findAllById(
+                            due.stream().map(delivery -> delivery.getEvent().getId()).distinct().toList())
+                    .stream()
+                    .collect(Collectors.toMap(OutboxEvent::getId, Function.identity()));
+            return due.stream()
+                    .map(delivery -> new Claimed(delivery.getId(), delivery.getAttempts(),
+                            events.get(delivery.getEvent().getId())))
+                    .toList();
+        });
+        if (claimed != null && !claimed.isEmpty()) {
+            endpoint.queue.addAll(claimed);
+            endpoint.queued = endpoint.queue.size();
+            endpoint.leaseUntil = leaseUntil;
+        }
+    }
+
+    private void send(Endpoint endpoint) {
+        List<Claimed> batch = new ArrayList<>();
+        while (batch.size() < endpoint.batchSize && !endpoint.queue.isEmpty()) {
+            batch.add(endpoint.queue.poll());
+        }
+        endpoint.queued = endpoint.queue.size();
+
+        HttpRequest request;
+        try {
+            String body = body(batch);
+            String timestamp = Long.toString(Instant.now().getEpochSecond());
+            URI uri = URI.create(endpoint.url);
+            // Checked again here: the host may resolve elsewhere than when the webhook was saved
+            addressPolicy.check(uri);
+            request = HttpRequest.newBuilder(uri)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .header("User-Agent", "issue-tracker-webhooks")
+                    .header(WebhookSigner.WEBHOOK_ID_HEADER, Long.toString(endpoint.webhookId))
+                    .header(WebhookSigner.TIMESTAMP_HEADER, timestamp)
+                    .header(WebhookSigner.SIGNATURE_HEADER, WebhookSigner.sign(endpoint.secret, timestamp, body))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        } catch (RuntimeException e) {
+            completed(endpoint, batch, null, e);
+            return;
+        }
+
+        endpoint.inFlight = true;
+        long startedAt = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenCompleteAsync((response, error) -> {
+                    requestTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    endpoint.inFlight = false;
+                    completed(endpoint, batch, response, error);
+                }, executor);
+    }
+
+    private String body(List<Claimed> batch) {
+        ArrayNode events = objectMapper.createArrayNode();
+        for (Claimed claimed : batch) {
+            ObjectNode event = events.addObject();
+            event.put("id", claimed.deliveryId);
+            event.put("eventId", claimed.event.getId());
+            event.put("type", claimed.event.getType());
+            event.put("createdAt", claimed.event.getCreatedAt().toString());
+            event.put("attempt", claimed.attempts + 1);
+            event.putRawValue("data", new RawValue(claimed.event.getPayload()));
+        }
+        try {
+            return objectMapper.writeValueAsString(events);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize webhook deliveries", e);
+        }
+    }
+
+    private void completed(Endpoint endpoint, List<Claimed> batch, HttpResponse<Void> response, Throwable error) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = batch.stream().map(Claimed::deliveryId).toList();
+        try {
+            if (error == null && response.statusCode() / 100 == 2) {
+                transactionTemplate.executeWithoutResult(status -> deliveryRepository.markDelivered(ids, now));
+                delivered.increment(batch.size());
+                if (started && endpoints.get(endpoint.webhookId) == endpoint) {
+                    dispatch(endpoint);
+                }
+                return;
+            }
+
+            String reason = error != null ? describe(error) : "HTTP " + response.statusCode();
+            LocalDateTime retryAt = now.plus(backoff(batch.stream().mapToInt(Claimed::attempts).min().orElse(0) + 1));
+            List<Long> unsent = endpoint.queue.stream().map(Claimed::deliveryId).toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Claimed claimed : batch) {
+                    int attempts = claimed.attempts + 1;
+                    if (attempts >= maxAttempts) {
+                        deliveryRepository.recordFailure(claimed.deliveryId, DeliveryStatus.DEAD, now, reason);
+                    } else {
+                        deliveryRepository.recordFailure(claimed.deliveryId, DeliveryStatus.PENDING,
+                                now.plus(backoff(attempts)), reason);
+                    }
+                }
+                // The rest of the queue wasn't tried; it waits for the endpoint to come back
+                if (!unsent.isEmpty()) {
+                    deliveryRepository.postpone(unsent, retryAt);
+                }
+            });
+            long deadLettered = batch.stream().filter(claimed -> claimed.attempts + 1 >= maxAttempts).count();
+            dead.increment(deadLettered);
+            retried.increment(batch.size() - deadLettered);
+            if (deadLettered > 0) {
+                logger.warn("Webhook {}: dead-lettered {} deliveries after {} attempts, last error: {}",
+                        endpoint.webhookId, deadLettered, maxAttempts, reason);
+            } else {
+                logger.debug("Webhook {}: delivery failed ({}), retrying at {}", endpoint.webhookId, reason, retryAt);
+            }
+            endpoint.clear();
+            endpoint.pausedUntil = retryAt;
+        } catch (RuntimeException e) {
+            // Outcome unknown to the database: the deliveries are retried when their lease expires
+            logger.warn("Webhook {}: could not record delivery outcome: {}", endpoint.webhookId, e.getMessage());
+            endpoint.clear();
+        }
+    }
+
+    /**
+     * Delay before the attempt following {@code attempts} failed ones: doubling from the initial
+     * backoff up to the maximum, with 20% jitter so retries of many deliveries spread out.
+     */
+    private Duration backoff(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        long capped = base <= 0 ? maxBackoff.toMillis() : Math.min(base, maxBackoff.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error.getCause() != null && error instanceof CompletionException
+                ? error.getCause() : error;
+        String message = cause.getClass().getSimpleName()
+                + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private static Set<String> subscriptions(List<Webhook> webhooks) {
+        return webhooks.stream()
+                .flatMap(webhook -> EventOutbox.parseTypes(webhook.getEvents()).stream())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private record Claimed(long deliveryId, int attempts, OutboxEvent event) {
+    }
+
+    private static final class Endpoint {
+        final long webhookId;
+        String url;
+        String secret;
+        int batchSize;
+        Set<String> events;
+
+        final Deque<Claimed> queue = new ArrayDeque<>();
+        // Queue length for the gauge, read from other threads
+        volatile int queued;
+        boolean inFlight;
+        LocalDateTime leaseUntil;
+        LocalDateTime pausedUntil;
+
+        Endpoint(Long webhookId) {
+            this.webhookId = webhookId;
+        }
+
+        void update(Webhook webhook) {
+            url = webhook.getUrl();
+            secret = webhook.getSecret();
+            batchSize = webhook.getBatchSize();
+            events = EventOutbox.parseTypes(webhook.getEvents());
+        }
+
+        // Forgets claimed deliveries without sending them; they are retried when due again
+        void clear() {
+            queue.clear();
+            queued = 0;
+        }
+    }
+}
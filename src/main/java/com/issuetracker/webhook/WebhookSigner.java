@@ -0,0 +1,33 @@
+package com.issuetracker.webhook;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+/**
+ * Signature sent with every delivery: {@code X-Webhook-Signature: sha256=<hex>}, the HMAC-SHA256
+ * with the webhook's secret over {@code <X-Webhook-Timestamp>.<body>}. Receivers recompute it and
+ * reject old timestamps, so a captured request can't be replayed later.
+ */
+public final class WebhookSigner {
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+    public static final String TIMESTAMP_HEADER = "X-Webhook-Timestamp";
+    public static final String WEBHOOK_ID_HEADER = "X-Webhook-Id";
+
+    private WebhookSigner() {
+    }
+
+    public static String sign(String secret, String timestamp, String body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            mac.update(timestamp.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) '.');
+            return "sha256=" + HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
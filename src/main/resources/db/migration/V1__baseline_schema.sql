@@ -0,0 +1,65 @@
+-- Schema as previously generated by hibernate.ddl-auto=update. Existing databases are baselined
+-- at this version (spring.flyway.baseline-on-migrate) and pick up from V2, so this must stay
+-- exactly that schema; later columns go in later migrations.
+
+CREATE TABLE users (
+    id          BIGSERIAL    NOT NULL,
+    username    VARCHAR(255) NOT NULL UNIQUE,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    full_name   VARCHAR(255) NOT NULL,
+    active      BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role    VARCHAR(255)
+);
+
+CREATE TABLE issues (
+    id          BIGSERIAL    NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    status      VARCHAR(255) NOT NULL CHECK (status IN ('OPEN', 'IN_PROGRESS', 'RESOLVED', 'CLOSED', 'REOPENED')),
+    priority    VARCHAR(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL')),
+    reporter_id BIGINT       NOT NULL,
+    assignee_id BIGINT,
+    resolved_at TIMESTAMP(6),
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE comments (
+    id         BIGSERIAL    NOT NULL,
+    content    TEXT         NOT NULL,
+    issue_id   BIGINT       NOT NULL,
+    author_id  BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE attachments (
+    id                BIGSERIAL    NOT NULL,
+    filename          VARCHAR(255) NOT NULL,
+    original_filename VARCHAR(255) NOT NULL,
+    content_type      VARCHAR(255) NOT NULL,
+    file_size         BIGINT       NOT NULL,
+    file_path         VARCHAR(255) NOT NULL,
+    issue_id          BIGINT       NOT NULL,
+    uploaded_by       BIGINT       NOT NULL,
+    uploaded_at       TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE user_roles ADD CONSTRAINT FKhfh9dx7w3ubf1co1vdev94g3f FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE issues ADD CONSTRAINT FKk6y4w2thufjijfu9ixo7njd9b FOREIGN KEY (reporter_id) REFERENCES users;
+ALTER TABLE issues ADD CONSTRAINT FK6tkde1c2odhrtreahor01p5fb FOREIGN KEY (assignee_id) REFERENCES users;
+ALTER TABLE comments ADD CONSTRAINT FK287j1dpionjmfs2yycfjmy5j2 FOREIGN KEY (issue_id) REFERENCES issues;
+ALTER TABLE comments ADD CONSTRAINT FKn2na60ukhs76ibtpt9burkm27 FOREIGN KEY (author_id) REFERENCES users;
+ALTER TABLE attachments ADD CONSTRAINT FKaqkq8g30hyvvfvd19n00qs7k4 FOREIGN KEY (issue_id) REFERENCES issues;
+ALTER TABLE attachments ADD CONSTRAINT FKl3qeaqe1mykgrd4ltgmqthdkp FOREIGN KEY (uploaded_by) REFERENCES users;
@@ -0,0 +1,69 @@
+-- Indexes for the finders in IssueRepository, CommentRepository and AttachmentRepository.
+-- Paged issue queries order by (sort column, id), see IssueService#resolveSort, so id is the
+-- trailing column wherever an index also serves the ORDER BY.
+
+-- Indexes created by ddl-auto from the old @Index annotations; replaced below with wider ones.
+DROP INDEX IF EXISTS idx_issues_status_created;
+DROP INDEX IF EXISTS idx_issues_priority_created;
+DROP INDEX IF EXISTS idx_issues_assignee_created;
+DROP INDEX IF EXISTS idx_issues_reporter_created;
+DROP INDEX IF EXISTS idx_issues_created;
+DROP INDEX IF EXISTS idx_issues_updated;
+
+-- findAll(Pageable), default and updatedAt sorts
+CREATE INDEX idx_issues_created ON issues (created_at, id);
+CREATE INDEX idx_issues_updated ON issues (updated_at, id);
+
+-- findByStatus, countByStatus, findByPriority, countByPriority
+CREATE INDEX idx_issues_status_created ON issues (status, created_at, id);
+CREATE INDEX idx_issues_priority_created ON issues (priority, created_at, id);
+
+-- findByReporterId / findByAssigneeId and the inbox keyset queries
+CREATE INDEX idx_issues_reporter_created ON issues (reporter_id, created_at, id);
+CREATE INDEX idx_issues_assignee_created ON issues (assignee_id, created_at, id);
+
+-- Open work is a small, hot slice of the table: newest open issues, and an assignee's open
+-- issues by priority. Partial indexes keep these small as resolved issues pile up.
+CREATE INDEX idx_issues_open_created ON issues (created_at, id)
+    WHERE status IN ('OPEN', 'IN_PROGRESS', 'REOPENED');
+CREATE INDEX idx_issues_open_assignee ON issues (assignee_id, priority)
+    WHERE status IN ('OPEN', 'IN_PROGRESS', 'REOPENED');
+
+-- findResolvedIssuesBetween, getAverageResolutionTimeInHours
+CREATE INDEX idx_issues_resolved_at ON issues (resolved_at) WHERE status = 'RESOLVED';
+
+-- searchIssues and the q filter of /api/issues/query match LOWER(column) LIKE '%term%',
+-- which only a trigram index can serve
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_issues_title_trgm ON issues USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX idx_issues_description_trgm ON issues USING gin (lower(description) gin_trgm_ops);
+
+-- findByIssueIdOrderByCreatedAtDesc, countByIssueId
+CREATE INDEX idx_comments_issue_created ON comments (issue_id, created_at DESC);
+
+-- findByIssueIdOrderByUploadedAtDesc
+CREATE INDEX idx_attachments_issue_uploaded ON attachments (issue_id, uploaded_at DESC);
+
+-- Roles are loaded by user_id on every authentication
+ALTER TABLE user_roles ALTER COLUMN role SET NOT NULL;
+ALTER TABLE user_roles ADD CONSTRAINT pk_user_roles PRIMARY KEY (user_id, role);
+
+-- Stable names for the unique constraints so violations can be mapped to a field. Databases
+-- baselined from ddl-auto carry Hibernate's generated uk_<hash> names rather than the
+-- users_<column>_key names of V1, so the constraints are looked up by column.
+DO $$
+DECLARE
+    col TEXT;
+    old_name TEXT;
+BEGIN
+    FOREACH col IN ARRAY ARRAY['username', 'email'] LOOP
+        SELECT c.conname INTO old_name
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+        WHERE c.conrelid = 'users'::regclass AND c.contype = 'u'
+          AND array_length(c.conkey, 1) = 1 AND a.attname = col;
+        IF old_name IS NOT NULL AND old_name <> 'uk_users_' || col THEN
+            EXECUTE format('ALTER TABLE users RENAME CONSTRAINT %I TO %I', old_name, 'uk_users_' || col);
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,12 @@
+-- Soft delete: IssueService#deleteIssue sets deleted_at, every query on Issue filters it out
+-- (@SQLRestriction) and IssuePurger removes the issue with its comments and attachments once
+-- the grace period is over.
+
+ALTER TABLE issues ADD COLUMN deleted_at TIMESTAMP(6);
+
+-- IssuePurger looks for expired tombstones; there are few, so a partial index stays tiny
+CREATE INDEX idx_issues_deleted ON issues (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Purge batches walk an issue's children in id order
+CREATE INDEX idx_comments_issue_id ON comments (issue_id, id);
+CREATE INDEX idx_attachments_issue_id ON attachments (issue_id, id);
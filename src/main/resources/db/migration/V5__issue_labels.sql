@@ -0,0 +1,22 @@
+-- Labels on issues (components, versions, customers). The join table is the source of truth;
+-- label filters are answered from the in-memory IssueBitmapIndex, which is rebuilt from these
+-- tables at startup.
+
+CREATE TABLE labels (
+    id         BIGSERIAL    NOT NULL,
+    name       VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_labels_name UNIQUE (name)
+);
+
+CREATE TABLE issue_labels (
+    issue_id BIGINT NOT NULL,
+    label_id BIGINT NOT NULL,
+    PRIMARY KEY (issue_id, label_id),
+    CONSTRAINT fk_issue_labels_issue FOREIGN KEY (issue_id) REFERENCES issues,
+    CONSTRAINT fk_issue_labels_label FOREIGN KEY (label_id) REFERENCES labels
+);
+
+-- The SQL fallback for label filters looks issues up by label
+CREATE INDEX idx_issue_labels_label ON issue_labels (label_id, issue_id);
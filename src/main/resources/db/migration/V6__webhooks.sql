@@ -0,0 +1,55 @@
+-- Outbound webhooks. Issue and comment changes are recorded in webhook_events (the outbox) by the
+-- transaction making them; WebhookDispatcher fans each event out to one webhook_deliveries row per
+-- subscribed webhook and delivers those asynchronously, retrying with backoff until they are
+-- delivered or dead-lettered.
+
+CREATE TABLE webhooks (
+    id         BIGSERIAL     NOT NULL,
+    url        VARCHAR(2000) NOT NULL,
+    secret     VARCHAR(100)  NOT NULL,
+    events     VARCHAR(500)  NOT NULL,
+    batch_size INTEGER       NOT NULL,
+    active     BOOLEAN       NOT NULL,
+    owner_id   BIGINT        NOT NULL,
+    created_at TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_webhooks_owner FOREIGN KEY (owner_id) REFERENCES users
+);
+
+CREATE INDEX idx_webhooks_owner ON webhooks (owner_id);
+
+-- No foreign key to issues: events outlive the issues they describe
+CREATE TABLE webhook_events (
+    id         BIGSERIAL    NOT NULL,
+    type       VARCHAR(50)  NOT NULL,
+    payload    TEXT         NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    relayed_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+-- The relay only ever looks at events not fanned out yet
+CREATE INDEX idx_webhook_events_unrelayed ON webhook_events (id) WHERE relayed_at IS NULL;
+
+CREATE TABLE webhook_deliveries (
+    id              BIGSERIAL    NOT NULL,
+    webhook_id      BIGINT       NOT NULL,
+    event_id        BIGINT       NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INTEGER      NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error      VARCHAR(500),
+    created_at      TIMESTAMP(6) NOT NULL,
+    delivered_at    TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_webhook_deliveries_webhook FOREIGN KEY (webhook_id) REFERENCES webhooks,
+    CONSTRAINT fk_webhook_deliveries_event FOREIGN KEY (event_id) REFERENCES webhook_events
+);
+
+-- Due deliveries of one webhook, in order
+CREATE INDEX idx_webhook_deliveries_due ON webhook_deliveries (webhook_id, next_attempt_at, id) WHERE status = 'PENDING';
+-- Dead letters of one webhook
+CREATE INDEX idx_webhook_deliveries_dead ON webhook_deliveries (webhook_id, id) WHERE status = 'DEAD';
+-- Cleanup of old deliveries, and of events none of them point to any more
+CREATE INDEX idx_webhook_deliveries_delivered ON webhook_deliveries (delivered_at) WHERE status = 'DELIVERED';
+CREATE INDEX idx_webhook_deliveries_event ON webhook_deliveries (event_id);
@@ -0,0 +1,52 @@
+-- Issue watchers and notification digests. The webhook outbox becomes the outbox of every
+-- background consumer of issue and comment changes: webhook_events is renamed to outbox_events and
+-- gets a second progress marker, so each change still costs the writing transaction one row.
+
+ALTER TABLE webhook_events RENAME TO outbox_events;
+ALTER SEQUENCE webhook_events_id_seq RENAME TO outbox_events_id_seq;
+ALTER INDEX webhook_events_pkey RENAME TO outbox_events_pkey;
+ALTER INDEX idx_webhook_events_unrelayed RENAME TO idx_outbox_events_unrelayed;
+
+ALTER TABLE outbox_events ADD COLUMN notified_at TIMESTAMP(6);
+-- Events from before notifications existed are not notified
+UPDATE outbox_events SET notified_at = created_at;
+
+CREATE INDEX idx_outbox_events_unnotified ON outbox_events (id) WHERE notified_at IS NULL;
+
+CREATE TABLE issue_watchers (
+    issue_id   BIGINT       NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (issue_id, user_id),
+    CONSTRAINT fk_issue_watchers_issue FOREIGN KEY (issue_id) REFERENCES issues,
+    CONSTRAINT fk_issue_watchers_user FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE INDEX idx_issue_watchers_user ON issue_watchers (user_id);
+
+-- Reporters and assignees watch their issues; from now on NotificationDigester adds them
+INSERT INTO issue_watchers (issue_id, user_id, created_at)
+SELECT id, reporter_id, now() FROM issues;
+INSERT INTO issue_watchers (issue_id, user_id, created_at)
+SELECT id, assignee_id, now() FROM issues WHERE assignee_id IS NOT NULL AND assignee_id <> reporter_id;
+
+CREATE TABLE notifications (
+    id              BIGSERIAL    NOT NULL,
+    recipient_id    BIGINT       NOT NULL,
+    event_id        BIGINT       NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INTEGER      NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    sent_at         TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_notifications_recipient FOREIGN KEY (recipient_id) REFERENCES users,
+    CONSTRAINT fk_notifications_event FOREIGN KEY (event_id) REFERENCES outbox_events
+);
+
+-- Recipients with a digest due, and their pending notifications
+CREATE INDEX idx_notifications_due ON notifications (next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_notifications_recipient ON notifications (recipient_id, id) WHERE status = 'PENDING';
+-- Cleanup of old notifications, and of events none of them point to any more
+CREATE INDEX idx_notifications_sent ON notifications (sent_at) WHERE status <> 'PENDING';
+CREATE INDEX idx_notifications_event ON notifications (event_id);
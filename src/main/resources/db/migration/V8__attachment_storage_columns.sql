@@ -0,0 +1,12 @@
+-- Attachment columns for compression at rest (stored_size, storage_encoding) and generated
+-- thumbnails (thumbnail_path, preview_path). They were wrongly part of V1, which never runs on
+-- databases baselined from the ddl-auto schema. IF NOT EXISTS because databases created from
+-- that V1 already have them.
+
+ALTER TABLE attachments ADD COLUMN IF NOT EXISTS stored_size BIGINT;
+ALTER TABLE attachments ADD COLUMN IF NOT EXISTS storage_encoding VARCHAR(255);
+ALTER TABLE attachments ADD COLUMN IF NOT EXISTS thumbnail_path VARCHAR(255);
+ALTER TABLE attachments ADD COLUMN IF NOT EXISTS preview_path VARCHAR(255);
+
+-- Attachments uploaded before compression existed are stored as-is
+UPDATE attachments SET stored_size = file_size WHERE stored_size IS NULL;
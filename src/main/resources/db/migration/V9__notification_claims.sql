@@ -0,0 +1,4 @@
+-- Notifications whose digest an instance is sending, outside a transaction, until then; other
+-- instances skip them meanwhile, and pick them up again if the sender died before recording
+-- the outcome
+ALTER TABLE notifications ADD COLUMN claimed_until TIMESTAMP(6);
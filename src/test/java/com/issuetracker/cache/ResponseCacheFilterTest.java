@@ -0,0 +1,228 @@
+package com.issuetracker.cache;
+
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.CommentRepository;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.security.JwtUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "response-cache.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ResponseCacheFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private String token;
+    private Issue issue;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("cached");
+        user.setEmail("cached@example.com");
+        user.setPassword("not-used");
+        user.setFullName("Cached User");
+        user.setRoles(Set.of("USER"));
+        user = userRepository.save(user);
+
+        issue = new Issue();
+        issue.setTitle("Cached issue");
+        issue.setDescription("Steps to reproduce the export timeout. ".repeat(100));
+        issue.setReporter(user);
+        issue = issueRepository.save(issue);
+
+        token = jwtUtils.generateJwtToken("cached");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        commentRepository.deleteAll();
+        issueRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testIssueServedFromCacheUntilUpdated() throws Exception {
+        double hits = hits();
+        String first = mockMvc.perform(get("/api/issues/" + issue.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/api/issues/" + issue.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_JSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(first, second);
+        assertEquals(hits + 1, hits());
+
+        mockMvc.perform(put("/api/issues/" + issue.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed issue\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/issues/" + issue.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Renamed issue")));
+    }
+
+    @Test
+    void testGzipVariant() throws Exception {
+        mockMvc.perform(get("/api/issues/" + issue.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        MockHttpServletResponse raw = mockMvc.perform(get("/api/issues/" + issue.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse();
+        MockHttpServletResponse gzipped = mockMvc.perform(get("/api/issues/" + issue.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andReturn().getResponse();
+
+        byte[] compressed = gzipped.getContentAsByteArray();
+        assertTrue(compressed.length < raw.getContentAsByteArray().length / 5);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(raw.getContentAsString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testListAndCommentPagesInvalidatedByWrites() throws Exception {
+        mockMvc.perform(get("/api/issues/paginated").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/issues/" + issue.getId() + "/comments").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/issues")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Brand new issue\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/issues/" + issue.getId() + "/comments")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"Fresh comment\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/issues/paginated").header("Authorization", "Bearer " + token))
+                .andExpect(content().string(containsString("Brand new issue")));
+        mockMvc.perform(get("/api/issues/" + issue.getId() + "/comments").header("Authorization", "Bearer " + token))
+                .andExpect(content().string(containsString("Fresh comment")));
+    }
+
+    @Test
+    void testIssueInvalidatedByNewComment() throws Exception {
+        mockMvc.perform(get("/api/issues/" + issue.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(content().string(containsString("\"commentCount\":0")));
+
+        mockMvc.perform(post("/api/issues/" + issue.getId() + "/comments")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"Counted comment\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/issues/" + issue.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(content().string(containsString("\"commentCount\":1")));
+    }
+
+    @Test
+    void testSparseListCachedPerFieldSet() throws Exception {
+        double hits = hits();
+        mockMvc.perform(get("/api/issues/paginated?fields=title,status").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("description"))));
+        mockMvc.perform(get("/api/issues/paginated?fields=status, title").header("Authorization", "Bearer " + token))
+                .andExpect(content().string(not(containsString("description"))));
+        assertEquals(hits + 1, hits());
+
+        mockMvc.perform(get("/api/issues/paginated").header("Authorization", "Bearer " + token))
+                .andExpect(content().string(containsString("Steps to reproduce")));
+        mockMvc.perform(get("/api/issues/paginated?fields=bogus").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUncacheableRequestsBypass() throws Exception {
+        double hits = hits();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/issues/paginated?page=1").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/issues/999999").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isBadRequest());
+        }
+        assertEquals(hits, hits());
+    }
+
+    @Test
+    void testMemoryBudgetAndStaleLoads() {
+        ResponseBodyCache cache = new ResponseBodyCache(true, DataSize.ofKilobytes(64), Duration.ofMinutes(1),
+                DataSize.ofKilobytes(1), new SimpleMeterRegistry());
+        byte[] body = "x".repeat(2000).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 100; i++) {
+            cache.put("issue:" + i, cache.generation(), MediaType.APPLICATION_JSON_VALUE, body);
+        }
+        assertTrue(cache.totalBytes() <= DataSize.ofKilobytes(64).toBytes());
+        assertNull(cache.get("issue:0"));
+        assertNotNull(cache.get("issue:99"));
+
+        long generation = cache.generation();
+        cache.invalidate("issue:99");
+        cache.put("issue:99", generation, MediaType.APPLICATION_JSON_VALUE, body);
+        assertNull(cache.get("issue:99"));
+    }
+
+    private double hits() {
+        return meterRegistry.get("response.cache.requests").tag("result", "hit").counter().count();
+    }
+}
@@ -0,0 +1,128 @@
+package com.issuetracker.cache;
+
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheInvalidationBroadcaster broadcaster;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = new User();
+        newUser.setUsername("cached-user");
+        newUser.setEmail("cached-user@example.com");
+        newUser.setPassword("not-used");
+        newUser.setFullName("Cached User");
+        newUser.setRoles(Set.of("USER", "ADMIN"));
+        user = userRepository.save(newUser);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testUserAndRolesLoadedFromCache() {
+        userRepository.findById(user.getId()).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+
+        User cached = userRepository.findById(user.getId()).orElseThrow();
+
+        assertEquals(Set.of("USER", "ADMIN"), cached.getRoles());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(User.ROLES_CACHE_REGION).getHitCount());
+    }
+
+    @Test
+    void testFindByUsernameUsesQueryCache() {
+        userRepository.findByUsername("cached-user").orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(user.getId(), userRepository.findByUsername("cached-user").orElseThrow().getId());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryRegionStatistics(User.BY_USERNAME_CACHE_REGION).getHitCount());
+    }
+
+    @Test
+    void testLocalWritesUpdateCachedQueries() {
+        assertTrue(userRepository.findByUsername("registered-later").isEmpty());
+
+        User later = new User();
+        later.setUsername("registered-later");
+        later.setEmail("registered-later@example.com");
+        later.setPassword("not-used");
+        later.setFullName("Registered Later");
+        userRepository.save(later);
+
+        assertTrue(userRepository.findByUsername("registered-later").isPresent());
+    }
+
+    @Test
+    void testRemoteInvalidationEvictsEntryAndQueries() {
+        userRepository.findByUsername("cached-user").orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(User.class, user.getId()));
+
+        broadcaster.handle("other-node|" + CacheInvalidationBroadcaster.ENTITY + "|" + User.class.getName() + "|" + user.getId());
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, user.getId()));
+        long statements = statistics.getPrepareStatementCount();
+        userRepository.findByUsername("cached-user").orElseThrow();
+        assertTrue(statistics.getPrepareStatementCount() > statements);
+    }
+
+    @Test
+    void testRemoteChangeToAnotherTableKeepsCachedQueries() {
+        userRepository.findByUsername("cached-user").orElseThrow();
+
+        broadcaster.handle("other-node|" + CacheInvalidationBroadcaster.ENTITY + "|" + Issue.class.getName() + "|42");
+
+        long statements = statistics.getPrepareStatementCount();
+        userRepository.findByUsername("cached-user").orElseThrow();
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testRemoteBulkUpdateEvictsWholeRegion() {
+        userRepository.findById(user.getId()).orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(User.class, user.getId()));
+
+        broadcaster.handle("other-node|" + CacheInvalidationBroadcaster.ENTITY + "|" + User.class.getName() + "|"
+                + CacheInvalidationBroadcaster.ALL);
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, user.getId()));
+    }
+}
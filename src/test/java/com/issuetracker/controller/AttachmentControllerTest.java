@@ -0,0 +1,183 @@
+package com.issuetracker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuetracker.model.Attachment;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.AttachmentRepository;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.security.JwtUtils;
+import com.issuetracker.security.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AttachmentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private String authToken;
+    private Issue testIssue;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        User testUser = new User();
+        testUser.setUsername("uploader");
+        testUser.setEmail("uploader@example.com");
+        testUser.setPassword(passwordEncoder.encode("password123"));
+        testUser.setFullName("Upload User");
+        Set<String> roles = new HashSet<>();
+        roles.add("USER");
+        testUser.setRoles(roles);
+        testUser = userRepository.save(testUser);
+
+        testIssue = new Issue();
+        testIssue.setTitle("Issue with files");
+        testIssue.setReporter(testUser);
+        testIssue = issueRepository.save(testIssue);
+
+        UserDetailsImpl userDetails = UserDetailsImpl.build(testUser);
+        Authentication auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        authToken = jwtUtils.generateJwtToken(auth);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        attachmentRepository.deleteAll();
+        issueRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testDownloadAllAttachments_Zip() throws Exception {
+        upload(new MockMultipartFile("file", "server.log", "text/plain",
+                "ERROR something broke\n".getBytes(StandardCharsets.UTF_8)));
+        upload(new MockMultipartFile("file", "server.log", "text/plain",
+                "WARN second copy\n".getBytes(StandardCharsets.UTF_8)));
+        upload(new MockMultipartFile("file", "../../etc/archive.zip", "application/zip",
+                new byte[]{1, 2, 3, 4}));
+
+        byte[] body = mockMvc.perform(get("/api/issues/" + testIssue.getId() + "/attachments.zip")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/zip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Map<String, Integer> methods = new HashMap<>();
+        Map<String, String> contents = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(body))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                methods.put(entry.getName(), entry.getMethod());
+                contents.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        assertEquals(Set.of("server.log", "server (2).log", "archive.zip"), methods.keySet());
+        assertEquals(ZipEntry.STORED, methods.get("archive.zip"));
+        assertEquals(ZipEntry.DEFLATED, methods.get("server.log"));
+        assertTrue(contents.values().contains("ERROR something broke\n"));
+        assertTrue(contents.values().contains("WARN second copy\n"));
+    }
+
+    @Test
+    void testDownload_CompressedAtRest() throws Exception {
+        String log = "2024-01-15 10:30:00.123 ERROR [http-nio-8080-exec-1] c.i.s.IssueService - Request failed\n".repeat(200);
+        String response = mockMvc.perform(multipart("/api/issues/" + testIssue.getId() + "/attachments")
+                        .file(new MockMultipartFile("file", "app.log", "text/plain", log.getBytes(StandardCharsets.UTF_8)))
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.fileSize").value(log.length()))
+                .andReturn().getResponse().getContentAsString();
+        Long attachmentId = objectMapper.readTree(response).get("id").asLong();
+
+        Attachment stored = attachmentRepository.findById(attachmentId).orElseThrow();
+        assertEquals("gzip", stored.getStorageEncoding());
+        assertTrue(stored.getStoredSize() < stored.getFileSize() / 10);
+
+        byte[] gzipped = mockMvc.perform(get("/api/attachments/" + attachmentId + "/download")
+                        .header("Authorization", "Bearer " + authToken)
+                        .header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertEquals(log, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        mockMvc.perform(get("/api/attachments/" + attachmentId + "/download")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().longValue("Content-Length", log.length()))
+                .andExpect(content().string(log));
+    }
+
+    @Test
+    void testDownloadAllAttachments_IssueNotFound() throws Exception {
+        mockMvc.perform(get("/api/issues/999999/attachments.zip")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void upload(MockMultipartFile file) throws Exception {
+        mockMvc.perform(multipart("/api/issues/" + testIssue.getId() + "/attachments")
+                        .file(file)
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isCreated());
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,7 +19,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.HashSet;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -83,7 +86,33 @@ class AuthControllerTest {
         mockMvc.perform(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().is4xxClientError());
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Username is already taken"));
+    }
+
+    @Test
+    void testRegister_DuplicateEmail() throws Exception {
+        User existingUser = new User();
+        existingUser.setUsername("existing");
+        existingUser.setEmail("test@example.com");
+        existingUser.setPassword(passwordEncoder.encode("password123"));
+        existingUser.setFullName("Existing User");
+        Set<String> roles = new HashSet<>();
+        roles.add("USER");
+        existingUser.setRoles(roles);
+        userRepository.save(existingUser);
+
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("testuser");
+        request.setEmail("test@example.com");
+        request.setPassword("password123");
+        request.setFullName("Test User");
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Email is already in use"));
     }
 
     @Test
@@ -122,4 +151,50 @@ class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    void testLogin_ThrottledAfterRepeatedFailures() throws Exception {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("bruteforced");
+        request.setPassword("guess");
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void testLogin_UpgradesWeakerHash() throws Exception {
+        User user = new User();
+        user.setUsername("legacyuser");
+        user.setEmail("legacy@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password123"));
+        user.setFullName("Legacy User");
+        Set<String> roles = new HashSet<>();
+        roles.add("USER");
+        user.setRoles(roles);
+        userRepository.save(user);
+
+        LoginRequest request = new LoginRequest();
+        request.setUsername("legacyuser");
+        request.setPassword("password123");
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        String rehashed = userRepository.findByUsername("legacyuser").orElseThrow().getPassword();
+        assertTrue(rehashed.startsWith("$2a$05$"), rehashed);
+        assertTrue(passwordEncoder.matches("password123", rehashed));
+    }
 }
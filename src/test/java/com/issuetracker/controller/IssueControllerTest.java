@@ -7,6 +7,7 @@ import com.issuetracker.model.User;
 import com.issuetracker.repository.IssueRepository;
 import com.issuetracker.repository.UserRepository;
 import com.issuetracker.security.JwtUtils;
+import com.issuetracker.service.IssuePurger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,10 +21,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -45,6 +49,9 @@ class IssueControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private IssuePurger issuePurger;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -56,6 +63,7 @@ class IssueControllerTest {
 
     @BeforeEach
     void setUp() {
+        issuePurger.purgeDeletedBefore(LocalDateTime.now().plusDays(1));
         issueRepository.deleteAll();
         userRepository.deleteAll();
 
@@ -154,6 +162,203 @@ class IssueControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void testDeletedIssueHiddenUntilRestored() throws Exception {
+        Issue issue = new Issue();
+        issue.setTitle("Deleted by mistake");
+        issue.setReporter(testUser);
+        issue = issueRepository.save(issue);
+
+        mockMvc.perform(delete("/api/issues/" + issue.getId())
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/issues/" + issue.getId())
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/issues/paginated")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(jsonPath("$.totalElements").value(0));
+        assertTrue(issueRepository.findById(issue.getId()).isEmpty());
+
+        mockMvc.perform(post("/api/issues/" + issue.getId() + "/restore")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Deleted by mistake"));
+
+        mockMvc.perform(get("/api/issues/" + issue.getId())
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk());
+        // Only deleted issues can be restored
+        mockMvc.perform(post("/api/issues/" + issue.getId() + "/restore")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetIssuesById_InRequestOrder() throws Exception {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < 3; i++) {
+            Issue issue = new Issue();
+            issue.setTitle("Batch " + i);
+            issue.setReporter(testUser);
+            issue.setAssignee(i == 1 ? testUser : null);
+            ids[i] = issueRepository.save(issue).getId();
+        }
+        mockMvc.perform(delete("/api/issues/" + ids[2])
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/issues")
+                        .param("ids", ids[1] + "," + ids[0] + ",999999," + ids[2] + "," + ids[1])
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.issues.length()").value(2))
+                .andExpect(jsonPath("$.issues[0].title").value("Batch 1"))
+                .andExpect(jsonPath("$.issues[0].assignee.username").value("testuser"))
+                .andExpect(jsonPath("$.issues[1].title").value("Batch 0"))
+                .andExpect(jsonPath("$.issues[1].reporter.username").value("testuser"))
+                .andExpect(jsonPath("$.missing[0]").value(999999))
+                .andExpect(jsonPath("$.missing[1]").value(ids[2]));
+
+        mockMvc.perform(post("/api/issues/batch")
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + ids[0] + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.issues[0].title").value("Batch 0"))
+                .andExpect(jsonPath("$.missing.length()").value(0));
+        mockMvc.perform(post("/api/issues/batch")
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSparseFields() throws Exception {
+        Issue issue = new Issue();
+        issue.setTitle("Sparse");
+        issue.setDescription("A long description the list view never shows");
+        issue.setPriority(Issue.IssuePriority.HIGH);
+        issue.setReporter(testUser);
+        issue.setAssignee(testUser);
+        issue = issueRepository.save(issue);
+
+        for (String path : new String[]{"/api/issues", "/api/issues/paginated", "/api/issues/search?q=spa",
+                "/api/issues/query", "/api/issues/" + issue.getId()}) {
+            String body = mockMvc.perform(get(path)
+                            .param("fields", "title,priority")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertTrue(body.contains("\"id\":" + issue.getId()) && body.contains("\"priority\":\"HIGH\""), path);
+            assertFalse(body.contains("description") || body.contains("reporter") || body.contains("status"), path);
+        }
+
+        mockMvc.perform(get("/api/issues/paginated")
+                        .param("fields", "assignee,reporter,labels,commentCount")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(jsonPath("$.content[0].assignee.username").value("testuser"))
+                .andExpect(jsonPath("$.content[0].reporter.fullName").value("Test User"))
+                .andExpect(jsonPath("$.content[0].labels.length()").value(0))
+                .andExpect(jsonPath("$.content[0].commentCount").value(0))
+                .andExpect(jsonPath("$.content[0].title").doesNotExist());
+        mockMvc.perform(get("/api/issues/paginated")
+                        .param("fields", "title,secret")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testReportedInbox_KeysetPagingAndInvalidation() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            Issue issue = new Issue();
+            issue.setTitle("Inbox Issue " + i);
+            issue.setReporter(testUser);
+            issueRepository.save(issue);
+        }
+
+        String firstPage = mockMvc.perform(get("/api/issues/inbox/reported?size=2")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].title").value("Inbox Issue 3"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.statusCounts.OPEN").value(3))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/issues/inbox/reported?size=2&cursor=" + cursor)
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("Inbox Issue 1"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        // A status change through the API must invalidate the cached inbox
+        Long firstId = issueRepository.findByReporterId(testUser.getId()).get(0).getId();
+        IssueRequest updateRequest = new IssueRequest();
+        updateRequest.setTitle("Inbox Issue 1");
+        updateRequest.setStatus(Issue.IssueStatus.IN_PROGRESS);
+        mockMvc.perform(put("/api/issues/" + firstId)
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/issues/inbox/reported?size=2")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statusCounts.OPEN").value(2))
+                .andExpect(jsonPath("$.statusCounts.IN_PROGRESS").value(1));
+
+        mockMvc.perform(get("/api/issues/inbox/reported?status=IN_PROGRESS")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+    }
+
+    @Test
+    void testQueryIssues_CombinedFilters() throws Exception {
+        Object[][] fixtures = {
+                {"Login fails on Safari", Issue.IssueStatus.OPEN, Issue.IssuePriority.HIGH},
+                {"Login page typo", Issue.IssueStatus.RESOLVED, Issue.IssuePriority.HIGH},
+                {"Slow login redirect", Issue.IssueStatus.IN_PROGRESS, Issue.IssuePriority.CRITICAL},
+                {"Dashboard crash", Issue.IssueStatus.OPEN, Issue.IssuePriority.HIGH},
+                {"Login button misaligned", Issue.IssueStatus.OPEN, Issue.IssuePriority.LOW}
+        };
+        for (Object[] fixture : fixtures) {
+            Issue issue = new Issue();
+            issue.setTitle((String) fixture[0]);
+            issue.setStatus((Issue.IssueStatus) fixture[1]);
+            issue.setPriority((Issue.IssuePriority) fixture[2]);
+            issue.setReporter(testUser);
+            issueRepository.save(issue);
+        }
+
+        mockMvc.perform(get("/api/issues/query")
+                        .param("status", "OPEN,IN_PROGRESS")
+                        .param("priority", "HIGH", "CRITICAL")
+                        .param("reporterId", testUser.getId().toString())
+                        .param("unassigned", "true")
+                        .param("q", "login")
+                        .param("sortBy", "createdAt")
+                        .param("sortDir", "asc")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].title").value("Login fails on Safari"))
+                .andExpect(jsonPath("$.content[1].title").value("Slow login redirect"))
+                .andExpect(jsonPath("$.content[0].reporter.username").value("testuser"));
+
+        mockMvc.perform(get("/api/issues/query")
+                        .param("sortBy", "description")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testUnauthorizedAccess() throws Exception {
         mockMvc.perform(get("/api/issues"))
@@ -0,0 +1,194 @@
+package com.issuetracker.index;
+
+import com.issuetracker.dto.IssueQueryRequest;
+import com.issuetracker.dto.IssueRequest;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.LabelResponse;
+import com.issuetracker.model.Issue.IssueStatus;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.LabelRepository;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.security.UserDetailsImpl;
+import com.issuetracker.service.IssueService;
+import com.issuetracker.service.LabelService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "label-index.enabled=true")
+@ActiveProfiles("test")
+class LabelIndexTest {
+
+    @Autowired
+    private IssueService issueService;
+
+    @Autowired
+    private LabelService labelService;
+
+    @Autowired
+    private IssueBitmapIndex index;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private final List<Long> issueIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User newUser = new User();
+        newUser.setUsername("labeler");
+        newUser.setEmail("labeler@example.com");
+        newUser.setPassword("not-used");
+        newUser.setFullName("Labeler");
+        newUser.setRoles(Set.of("USER"));
+        user = userRepository.save(newUser);
+        authenticate();
+
+        String[][] labels = {
+                {"backend", "regression"},
+                {"backend", "customer:acme"},
+                {"frontend", "regression"},
+                {"backend", "regression", "wontfix"},
+                {},
+                {"Frontend", " customer:ACME "}
+        };
+        for (int i = 0; i < labels.length; i++) {
+            issueIds.add(createIssue("Issue " + i, i % 2 == 0 ? IssueStatus.OPEN : IssueStatus.CLOSED, labels[i]).getId());
+        }
+        index.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM issue_labels");
+        jdbcTemplate.update("DELETE FROM issues");
+        labelRepository.deleteAll();
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        issueIds.clear();
+    }
+
+    @Test
+    void testParseExpressions() {
+        assertEquals("((backend AND NOT wontfix) OR customer:acme)",
+                LabelExpression.parse("Backend and not WONTFIX or customer:acme").toString());
+        assertEquals("(backend AND (regression OR customer:acme))",
+                LabelExpression.parse("backend AND (regression OR customer:acme)").toString());
+        assertNull(LabelExpression.parse("  "));
+        for (String invalid : List.of("backend AND", "(backend", "backend regression", "OR backend", "bad label!")) {
+            assertThrows(RuntimeException.class, () -> LabelExpression.parse(invalid), invalid);
+        }
+    }
+
+    @Test
+    void testIndexAgreesWithSql() {
+        assertTrue(index.isReady());
+        List<String> expressions = List.of("backend", "backend AND regression", "backend AND NOT regression",
+                "frontend OR customer:acme", "NOT backend", "(backend OR frontend) AND NOT (wontfix OR customer:acme)",
+                "unknown", "NOT unknown");
+        for (String expression : expressions) {
+            // reporterId is outside the index, so the second query runs in SQL
+            List<Long> fromIndex = ids(query(expression, null));
+            List<Long> fromSql = ids(query(expression, user.getId()));
+            assertEquals(fromSql, fromIndex, expression);
+        }
+        assertEquals(List.of(issueIds.get(3), issueIds.get(1), issueIds.get(0)), ids(query("backend", null)));
+
+        IssueQueryRequest closed = query("regression OR customer:acme", null);
+        closed.setStatus(List.of(IssueStatus.CLOSED));
+        assertEquals(List.of(issueIds.get(5), issueIds.get(3), issueIds.get(1)), ids(closed));
+
+        IssueQueryRequest paged = query("NOT wontfix", null);
+        paged.setSortDir("asc");
+        paged.setPage(1);
+        paged.setSize(2);
+        var page = issueService.queryIssues(paged);
+        assertEquals(5, page.getTotalElements());
+        assertEquals(List.of(issueIds.get(2), issueIds.get(4)),
+                page.getContent().stream().map(IssueResponse::getId).toList());
+    }
+
+    @Test
+    void testIndexFollowsWrites() {
+        IssueRequest update = new IssueRequest();
+        update.setTitle("Issue 4");
+        update.setLabels(List.of("backend"));
+        assertEquals(List.of("backend"), issueService.updateIssue(issueIds.get(4), update).getLabels());
+        issueService.deleteIssue(issueIds.get(0));
+        index.awaitRefresh();
+
+        assertEquals(List.of(issueIds.get(4), issueIds.get(3), issueIds.get(1)), ids(query("backend", null)));
+
+        issueService.restoreIssue(issueIds.get(0));
+        index.awaitRefresh();
+        assertEquals(List.of(issueIds.get(4), issueIds.get(3), issueIds.get(1), issueIds.get(0)),
+                ids(query("backend", null)));
+    }
+
+    @Test
+    void testLabelsNormalizedAndCounted() {
+        assertEquals(List.of("customer:acme", "frontend"), issueService.getIssue(issueIds.get(5)).getLabels());
+
+        Map<String, Long> counts = labelService.getLabels().stream()
+                .collect(Collectors.toMap(LabelResponse::getName, LabelResponse::getIssueCount));
+        assertEquals(Map.of("backend", 3L, "regression", 3L, "customer:acme", 2L, "frontend", 2L, "wontfix", 1L),
+                counts);
+
+        IssueRequest invalid = new IssueRequest();
+        invalid.setTitle("Invalid");
+        invalid.setLabels(List.of("not a label"));
+        assertThrows(RuntimeException.class, () -> issueService.createIssue(invalid));
+    }
+
+    private IssueResponse createIssue(String title, IssueStatus status, String... labels) {
+        IssueRequest request = new IssueRequest();
+        request.setTitle(title);
+        request.setStatus(status);
+        request.setLabels(List.of(labels));
+        return issueService.createIssue(request);
+    }
+
+    private IssueQueryRequest query(String labels, Long reporterId) {
+        IssueQueryRequest query = new IssueQueryRequest();
+        query.setLabels(labels);
+        query.setReporterId(reporterId);
+        query.setSortBy("id");
+        return query;
+    }
+
+    private List<Long> ids(IssueQueryRequest query) {
+        return issueService.queryIssues(query).getContent().stream().map(IssueResponse::getId).toList();
+    }
+
+    private void authenticate() {
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.issuetracker.monitoring;
+
+import com.issuetracker.model.User;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.security.JwtUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.allOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testScrapeIncludesRequestJpaPoolAndAuthMetrics() throws Exception {
+        User user = new User();
+        user.setUsername("scraper");
+        user.setEmail("scraper@example.com");
+        user.setPassword(passwordEncoder.encode("password123"));
+        user.setFullName("Scrape User");
+        user.setRoles(Set.of("USER"));
+        userRepository.save(user);
+
+        String token = "Bearer " + jwtUtils.generateJwtToken("scraper");
+        mockMvc.perform(get("/api/issues").header("Authorization", token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("uri=\"/api/issues\""),
+                        containsString("http_server_requests_statements_count{"),
+                        containsString("hibernate_entities_loads_total"),
+                        containsString("hikaricp_connections_pending"),
+                        containsString("auth_jwt_verification_seconds_count{"),
+                        containsString("auth_password_hashing_seconds_count{"),
+                        containsString("attachments_transfer_bytes_total{"),
+                        containsString("http_server_multipart_spool_size_bytes"))));
+    }
+
+    @Test
+    void testScrapeOnTheApiPortNeedsAUser() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,92 @@
+package com.issuetracker.monitoring;
+
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.security.JwtUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "monitoring.slow-request.statements=1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class RequestProfilingFilterTest {
+
+    private static final Pattern SERVER_TIMING = Pattern.compile(
+            "db;dur=[\\d.]+;desc=\"(\\d+) statements, (\\d+) rows\", auth;dur=[\\d.]+, serialize;dur=[\\d.]+");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        issueRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testServerTimingAndSlowRequestRecord(CapturedOutput output) throws Exception {
+        User user = new User();
+        user.setUsername("profiled");
+        user.setEmail("profiled@example.com");
+        user.setPassword("not-used");
+        user.setFullName("Profiled User");
+        user.setRoles(Set.of("USER"));
+        user = userRepository.save(user);
+        for (int i = 0; i < 3; i++) {
+            Issue issue = new Issue();
+            issue.setTitle("Profiled issue " + i);
+            issue.setReporter(user);
+            issueRepository.save(issue);
+        }
+
+        String serverTiming = mockMvc.perform(get("/api/issues/paginated")
+                        .header("Authorization", "Bearer " + jwtUtils.generateJwtToken("profiled")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertNotNull(serverTiming);
+        Matcher matcher = SERVER_TIMING.matcher(serverTiming);
+        assertTrue(matcher.matches(), serverTiming);
+        assertTrue(Integer.parseInt(matcher.group(1)) >= 2, serverTiming);
+        assertTrue(Integer.parseInt(matcher.group(2)) >= 4, serverTiming);
+        // The metric counts the same executions as the header
+        assertEquals(Integer.parseInt(matcher.group(1)), meterRegistry.get("http.server.requests.statements")
+                .tag("uri", "/api/issues/paginated").summary().totalAmount());
+
+        assertTrue(output.getOut().contains("\"event\":\"slow_request\""));
+        assertTrue(output.getOut().contains("\"uri\":\"/api/issues/paginated\""));
+        assertTrue(output.getOut().contains("\"fingerprint\":\"select"));
+    }
+}
@@ -0,0 +1,23 @@
+package com.issuetracker.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlFingerprintTest {
+
+    @Test
+    void testNormalizesLiteralsListsAndWhitespace() {
+        assertEquals("select i1_0.id from issues i1_0 where i1_0.status=? and i1_0.id in (?...) limit ?",
+                SqlFingerprint.of("select i1_0.id\n  from issues i1_0\n where i1_0.status='OPEN' "
+                        + "and i1_0.id in (?, ?,?) limit 20"));
+    }
+
+    @Test
+    void testSameShapeSameFingerprint() {
+        assertEquals(SqlFingerprint.of("select * from users where id in (?,?)"),
+                SqlFingerprint.of("select *  from users where id in (?,?,?,?,?)"));
+        assertEquals(SqlFingerprint.of("update t set n='it''s' where v1=-2.5"),
+                SqlFingerprint.of("update t set n='x' where v1=7"));
+    }
+}
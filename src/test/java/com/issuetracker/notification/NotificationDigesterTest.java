@@ -0,0 +1,449 @@
+package com.issuetracker.notification;
+
+import com.issuetracker.dto.CommentRequest;
+import com.issuetracker.dto.IssueRequest;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.UserResponse;
+import com.issuetracker.model.Issue.IssueStatus;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.security.UserDetailsImpl;
+import com.issuetracker.service.CommentService;
+import com.issuetracker.service.IssueService;
+import com.issuetracker.service.WatcherService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "notifications.enabled=true",
+        "notifications.channel=smtp",
+        "notifications.poll-interval-ms=3600000",
+        "notifications.digest-window=1h",
+        "notifications.max-attempts=2",
+        "notifications.retry-delay=1h",
+        "notifications.smtp.timeout=2s"
+})
+@ActiveProfiles("test")
+class NotificationDigesterTest {
+
+    private static final FakeSmtpServer smtp = FakeSmtpServer.start();
+
+    @DynamicPropertySource
+    static void smtpProperties(DynamicPropertyRegistry registry) {
+        registry.add("notifications.smtp.host", () -> "127.0.0.1");
+        registry.add("notifications.smtp.port", smtp::port);
+    }
+
+    @Autowired
+    private NotificationDigester digester;
+
+    @Autowired
+    private IssueService issueService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private WatcherService watcherService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = createUser("alice");
+        bob = createUser("bob");
+        carol = createUser("carol");
+        smtp.reset();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM notifications");
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM issue_watchers");
+        jdbcTemplate.update("DELETE FROM comments");
+        jdbcTemplate.update("DELETE FROM issue_labels");
+        jdbcTemplate.update("DELETE FROM issues");
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        smtp.stop();
+    }
+
+    @Test
+    void testChangesAreCoalescedIntoOneDigestPerWatcher() {
+        authenticate(alice);
+        IssueResponse first = createIssue("Login fails", bob);
+        IssueResponse second = createIssue("Logout fails", null);
+        // Writes append to the outbox only; watchers and notifications come later
+        assertEquals(2, count("SELECT COUNT(*) FROM outbox_events"));
+        assertEquals(0, count("SELECT COUNT(*) FROM issue_watchers"));
+        assertEquals(0, count("SELECT COUNT(*) FROM notifications"));
+
+        authenticate(carol);
+        watcherService.watch(first.getId());
+        watcherService.watch(second.getId());
+        authenticate(bob);
+        IssueRequest update = new IssueRequest();
+        update.setStatus(IssueStatus.IN_PROGRESS);
+        update.setAssigneeId(bob.getId());
+        issueService.updateIssue(first.getId(), update);
+        comment(first.getId(), "On it");
+        authenticate(alice);
+        comment(second.getId(), "Same cause?");
+
+        digester.poll();
+        assertEquals(Set.of("alice", "bob", "carol"), watchers(first.getId()));
+        assertEquals(Set.of("alice", "carol"), watchers(second.getId()));
+        // Nothing is due before the window has passed
+        assertEquals(0, smtp.messages.size());
+        assertEquals(0, count("SELECT COUNT(*) FROM outbox_events WHERE notified_at IS NULL"));
+
+        expireDigestWindow();
+        digester.poll();
+
+        // Nobody hears about their own changes; everyone gets their changes in one mail
+        assertEquals(1, smtp.connections.get());
+        assertEquals(3, smtp.messages.size());
+        String toAlice = smtp.messageTo("alice@example.com");
+        assertTrue(toAlice.contains("Subject: 2 updates on 1 issue you watch"), toAlice);
+        assertTrue(toAlice.contains("#" + first.getId() + " Login fails"), toAlice);
+        assertTrue(toAlice.contains("status OPEN -> IN_PROGRESS by bob"), toAlice);
+        assertTrue(toAlice.contains("new comment by bob"), toAlice);
+        String toBob = smtp.messageTo("bob@example.com");
+        assertTrue(toBob.contains("Subject: 1 update on 1 issue you watch"), toBob);
+        assertTrue(toBob.contains("created by alice, assigned to you"), toBob);
+        String toCarol = smtp.messageTo("carol@example.com");
+        assertTrue(toCarol.contains("Subject: 5 updates on 2 issues you watch"), toCarol);
+        assertTrue(toCarol.contains("new comment by alice"), toCarol);
+        assertEquals(0, count("SELECT COUNT(*) FROM notifications WHERE status <> 'SENT'"));
+
+        digester.poll();
+        assertEquals(3, smtp.messages.size());
+    }
+
+    @Test
+    void testRejectedRecipientIsRetriedThenGivenUp() {
+        User bounce = createUser("bounce");
+        authenticate(alice);
+        IssueResponse issue = createIssue("Flaky test", null);
+        authenticate(bounce);
+        watcherService.watch(issue.getId());
+        authenticate(carol);
+        watcherService.watch(issue.getId());
+        comment(issue.getId(), "Seen it again");
+
+        digester.poll();
+        expireDigestWindow();
+        digester.poll();
+        // The others' digests go out over the same connection
+        assertEquals(Set.of("alice@example.com", "carol@example.com"), Set.copyOf(smtp.recipients()));
+        assertEquals(2, count("SELECT COUNT(*) FROM notifications WHERE status = 'PENDING' AND attempts = 1"));
+
+        // Second and last attempt, after the retry delay
+        expireDigestWindow();
+        digester.poll();
+        assertEquals(2, smtp.messages.size());
+        assertEquals(2, count("SELECT COUNT(*) FROM notifications WHERE status = 'FAILED' AND attempts = 2"));
+        assertEquals(2, count("SELECT COUNT(*) FROM notifications WHERE status = 'SENT'"));
+    }
+
+    @Test
+    void testNewNotificationDoesNotCutAFailedDigestsBackoff() {
+        User bounce = createUser("bounce");
+        authenticate(alice);
+        IssueResponse issue = createIssue("Flaky test", null);
+        authenticate(bounce);
+        watcherService.watch(issue.getId());
+        authenticate(carol);
+        comment(issue.getId(), "Seen it again");
+        digester.poll();
+        expireDigestWindow();
+        digester.poll();
+        long backingOff = count("SELECT COUNT(*) FROM notifications WHERE status = 'PENDING' AND attempts = 1");
+
+        comment(issue.getId(), "And again");
+        digester.poll();
+        jdbcTemplate.update("UPDATE notifications SET next_attempt_at = DATEADD('SECOND', -1, CURRENT_TIMESTAMP) "
+                + "WHERE status = 'PENDING' AND attempts = 0");
+        digester.poll();
+
+        // Only the new notification is tried; the failed one keeps waiting instead of being given up on
+        assertEquals(0, count("SELECT COUNT(*) FROM notifications WHERE status = 'FAILED'"));
+        assertEquals(backingOff + 1,
+                count("SELECT COUNT(*) FROM notifications WHERE status = 'PENDING' AND attempts = 1"));
+    }
+
+    @Test
+    void testClaimedDigestIsLeftToItsSenderUntilTheClaimExpires() {
+        authenticate(alice);
+        IssueResponse issue = createIssue("Slow mail", null);
+        authenticate(bob);
+        comment(issue.getId(), "Still slow");
+        digester.poll();
+        expireDigestWindow();
+
+        // As if another instance were sending it right now
+        jdbcTemplate.update("UPDATE notifications SET claimed_until = DATEADD('HOUR', 1, CURRENT_TIMESTAMP)");
+        digester.poll();
+        assertEquals(0, smtp.messages.size());
+
+        // That instance died before recording the outcome
+        jdbcTemplate.update("UPDATE notifications SET claimed_until = DATEADD('SECOND', -1, CURRENT_TIMESTAMP)");
+        digester.poll();
+        assertEquals(List.of("alice@example.com"), smtp.recipients());
+        assertEquals(0, count("SELECT COUNT(*) FROM notifications WHERE status <> 'SENT' OR claimed_until IS NOT NULL"));
+    }
+
+    @Test
+    void testUnwatching() {
+        authenticate(alice);
+        IssueResponse issue = createIssue("Typo", null);
+        digester.poll();
+        authenticate(bob);
+        watcherService.watch(issue.getId());
+        watcherService.watch(issue.getId());
+        assertEquals(Set.of("alice", "bob"), watchers(issue.getId()));
+
+        authenticate(alice);
+        watcherService.unwatch(issue.getId());
+        authenticate(bob);
+        comment(issue.getId(), "Fixed");
+        digester.poll();
+        expireDigestWindow();
+        digester.poll();
+        assertEquals(0, smtp.messages.size());
+        assertEquals(0, count("SELECT COUNT(*) FROM notifications"));
+
+        assertThrows(RuntimeException.class, () -> watcherService.watch(issue.getId() + 1000));
+    }
+
+    @Test
+    void testRestoreIsNotANewIssue() {
+        authenticate(alice);
+        IssueResponse issue = createIssue("Crash on save", null);
+        digester.poll();
+        authenticate(carol);
+        watcherService.watch(issue.getId());
+        authenticate(alice);
+        watcherService.unwatch(issue.getId());
+
+        authenticate(bob);
+        issueService.deleteIssue(issue.getId());
+        issueService.restoreIssue(issue.getId());
+        digester.poll();
+        expireDigestWindow();
+        digester.poll();
+
+        // The reporter who stopped watching is not signed up again
+        assertEquals(Set.of("carol"), watchers(issue.getId()));
+        assertEquals(List.of("carol@example.com"), smtp.recipients());
+        String toCarol = smtp.messageTo("carol@example.com");
+        assertTrue(toCarol.contains("deleted by bob"), toCarol);
+        assertTrue(toCarol.contains("restored by bob"), toCarol);
+        assertFalse(toCarol.contains("created by"), toCarol);
+    }
+
+    private IssueResponse createIssue(String title, User assignee) {
+        IssueRequest request = new IssueRequest();
+        request.setTitle(title);
+        request.setAssigneeId(assignee != null ? assignee.getId() : null);
+        return issueService.createIssue(request);
+    }
+
+    private void comment(Long issueId, String content) {
+        CommentRequest request = new CommentRequest();
+        request.setContent(content);
+        commentService.createComment(issueId, request);
+    }
+
+    private Set<String> watchers(Long issueId) {
+        return Set.copyOf(watcherService.getWatchers(issueId).stream().map(UserResponse::getUsername).toList());
+    }
+
+    private void expireDigestWindow() {
+        jdbcTemplate.update("UPDATE notifications SET next_attempt_at = DATEADD('SECOND', -1, CURRENT_TIMESTAMP) "
+                + "WHERE status = 'PENDING'");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("not-used");
+        user.setFullName(username);
+        user.setRoles(Set.of("USER"));
+        return userRepository.save(user);
+    }
+
+    private void authenticate(User user) {
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    /**
+     * Just enough SMTP to accept mail from JavaMail: records each message with its recipient and
+     * rejects recipients whose address starts with "bounce".
+     */
+    private static final class FakeSmtpServer {
+        final List<Message> messages = new CopyOnWriteArrayList<>();
+        final AtomicInteger connections = new AtomicInteger();
+        private final ServerSocket socket;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+
+        private FakeSmtpServer(ServerSocket socket) {
+            this.socket = socket;
+        }
+
+        static FakeSmtpServer start() {
+            try {
+                FakeSmtpServer server = new FakeSmtpServer(new ServerSocket(0, 50, InetAddress.getLoopbackAddress()));
+                server.executor.execute(server::accept);
+                return server;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        void reset() {
+            messages.clear();
+            connections.set(0);
+        }
+
+        void stop() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+            executor.shutdownNow();
+        }
+
+        List<String> recipients() {
+            return messages.stream().map(Message::recipient).toList();
+        }
+
+        String messageTo(String recipient) {
+            return messages.stream()
+                    .filter(message -> message.recipient().equals(recipient))
+                    .map(Message::data)
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("No message to " + recipient));
+        }
+
+        private void accept() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    connections.incrementAndGet();
+                    executor.execute(() -> session(client));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void session(Socket client) {
+            try (client) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                OutputStream out = client.getOutputStream();
+                reply(out, "220 localhost fake SMTP");
+                List<String> recipients = new ArrayList<>();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                        reply(out, "250 localhost");
+                    } else if (command.startsWith("MAIL FROM") || command.startsWith("RSET")) {
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("RCPT TO")) {
+                        String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                        if (address.startsWith("bounce")) {
+                            reply(out, "550 No such user");
+                        } else {
+                            recipients.add(address);
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        for (String recipient : recipients) {
+                            messages.add(new Message(recipient, data.toString()));
+                        }
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        private static void reply(OutputStream out, String line) throws IOException {
+            out.write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+
+    private record Message(String recipient, String data) {
+    }
+}
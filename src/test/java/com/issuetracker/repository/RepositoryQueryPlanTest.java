@@ -0,0 +1,356 @@
+package com.issuetracker.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuetracker.index.LabelExpression;
+import com.issuetracker.model.Issue.IssuePriority;
+import com.issuetracker.model.Issue.IssueStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository finder against a seeded PostgreSQL database with the Flyway schema, then
+ * EXPLAINs each SQL statement it issued (with the same bind parameters) and fails on sequential
+ * scans. Parameters are chosen to be selective, as they are for real inboxes and filters.
+ */
+@SpringBootTest(properties = {
+        "file.upload.dir=target/test-uploads",
+        "logging.level.com.issuetracker=WARN",
+        "logging.level.org.springframework.security=WARN"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static final ThreadLocal<List<RecordedStatement>> recording = new ThreadLocal<>();
+
+    private static final Pageable NEWEST_FIRST = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long userId;
+    private Long issueId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("""
+                INSERT INTO users (username, email, password, full_name, active, created_at, updated_at)
+                SELECT 'user' || g, 'user' || g || '@example.com', 'x', 'User ' || g, true, now(), now()
+                FROM generate_series(1, 5000) g
+                """);
+        jdbcTemplate.execute("INSERT INTO user_roles (user_id, role) SELECT id, 'USER' FROM users");
+        // 5% open, 5% in progress, 5% resolved, the rest closed; 2% critical; a quarter unassigned
+        jdbcTemplate.execute("""
+                INSERT INTO issues (title, description, status, priority, reporter_id, assignee_id,
+                                    resolved_at, created_at, updated_at, last_activity_at)
+                SELECT CASE WHEN g % 1000 = 0 THEN 'Checkout fails with NullPointerException'
+                            ELSE 'Issue ' || g || ' ' || md5(g::text) END,
+                       'Steps to reproduce ' || md5((g * 31)::text),
+                       CASE g % 20 WHEN 0 THEN 'OPEN' WHEN 1 THEN 'IN_PROGRESS' WHEN 2 THEN 'RESOLVED' ELSE 'CLOSED' END,
+                       CASE WHEN g % 50 = 0 THEN 'CRITICAL' WHEN g % 5 = 0 THEN 'HIGH'
+                            WHEN g % 3 = 0 THEN 'LOW' ELSE 'MEDIUM' END,
+                       u.first_id + g % 5000,
+                       CASE WHEN g % 4 = 0 THEN NULL ELSE u.first_id + (g * 7) % 5000 END,
+                       CASE WHEN g % 20 = 2 THEN TIMESTAMP '2024-01-04' + g * INTERVAL '1 minute' END,
+                       TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute',
+                       TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute',
+                       TIMESTAMP '2024-01-01' + (g * 7919 % 50000) * INTERVAL '1 minute'
+                FROM generate_series(1, 50000) g, (SELECT min(id) AS first_id FROM users) u
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO comments (content, issue_id, author_id, created_at, updated_at)
+                SELECT 'Comment ' || n, i.id, i.reporter_id, i.created_at + n * INTERVAL '1 hour',
+                       i.created_at + n * INTERVAL '1 hour'
+                FROM issues i, generate_series(1, 3) n
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO attachments (filename, original_filename, content_type, file_size, file_path,
+                                         issue_id, uploaded_by, uploaded_at)
+                SELECT md5(i.id::text), 'log.txt', 'text/plain', 1024, '/uploads/' || md5(i.id::text),
+                       i.id, i.reporter_id, i.created_at
+                FROM issues i WHERE i.id % 2 = 0
+                """);
+        // Two thirds of the issues carry one of the first 50 labels
+        jdbcTemplate.execute("INSERT INTO labels (name, created_at) SELECT 'label-' || g, now() FROM generate_series(1, 2000) g");
+        jdbcTemplate.execute("""
+                INSERT INTO issue_labels (issue_id, label_id)
+                SELECT i.id, l.first_id + i.id % 50
+                FROM issues i, (SELECT min(id) AS first_id FROM labels) l WHERE i.id % 3 <> 0
+                """);
+        jdbcTemplate.execute("VACUUM ANALYZE");
+
+        userId = jdbcTemplate.queryForObject("SELECT min(id) + 42 FROM users", Long.class);
+        issueId = jdbcTemplate.queryForObject("SELECT min(id) + 4242 FROM issues", Long.class);
+    }
+
+    @Test
+    void testIssueRepository_NoSequentialScans() {
+        LocalDateTime inboxStart = LocalDateTime.of(9999, 12, 31, 0, 0);
+        Pageable inboxPage = PageRequest.of(0, 21);
+
+        Map<String, Runnable> queries = new TreeMap<>();
+        queries.put("findAll(Pageable) by updatedAt", () -> issueRepository.findAll(
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "updatedAt", "id"))));
+        queries.put("findAll(Pageable) by lastActivityAt", () -> issueRepository.findAll(
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "lastActivityAt", "id"))));
+        queries.put("findByStatus(Pageable)", () -> issueRepository.findByStatus(IssueStatus.OPEN, NEWEST_FIRST));
+        queries.put("findByPriority(Pageable)", () -> issueRepository.findByPriority(IssuePriority.CRITICAL, NEWEST_FIRST));
+        queries.put("findByReporterId(Pageable)", () -> issueRepository.findByReporterId(userId, NEWEST_FIRST));
+        queries.put("findByAssigneeId(Pageable)", () -> issueRepository.findByAssigneeId(userId, NEWEST_FIRST));
+        queries.put("findByStatus", () -> issueRepository.findByStatus(IssueStatus.OPEN));
+        queries.put("findByPriority", () -> issueRepository.findByPriority(IssuePriority.CRITICAL));
+        queries.put("findByReporterId", () -> issueRepository.findByReporterId(userId));
+        queries.put("findByAssigneeId", () -> issueRepository.findByAssigneeId(userId));
+        queries.put("findReportedInboxPage", () -> issueRepository.findReportedInboxPage(
+                userId, null, inboxStart, Long.MAX_VALUE, inboxPage));
+        queries.put("findAssignedInboxPage", () -> issueRepository.findAssignedInboxPage(
+                userId, IssueStatus.OPEN, inboxStart, Long.MAX_VALUE, inboxPage));
+        queries.put("countByStatusForReporter", () -> issueRepository.countByStatusForReporter(userId));
+        queries.put("countByStatusForAssignee", () -> issueRepository.countByStatusForAssignee(userId));
+        queries.put("searchIssues", () -> issueRepository.searchIssues("nullpointer", NEWEST_FIRST));
+        queries.put("findDeletedBefore", () -> issueRepository.findDeletedBefore(LocalDateTime.of(2024, 6, 1, 0, 0), 100));
+        queries.put("countByStatus", () -> issueRepository.countByStatus(IssueStatus.OPEN));
+        queries.put("countByPriority", () -> issueRepository.countByPriority(IssuePriority.CRITICAL));
+        queries.put("findResolvedIssuesBetween", () -> issueRepository.findResolvedIssuesBetween(
+                LocalDateTime.of(2024, 1, 20, 0, 0), LocalDateTime.of(2024, 1, 21, 0, 0)));
+        queries.put("findAll(Specification) open and assigned", () -> issueRepository.findAll(
+                Specification.where(IssueSpecifications.fetchUsers())
+                        .and(IssueSpecifications.statusIn(List.of(IssueStatus.OPEN, IssueStatus.IN_PROGRESS)))
+                        .and(IssueSpecifications.assignedTo(userId)),
+                NEWEST_FIRST));
+        queries.put("findAll(Specification) reporter and labels", () -> issueRepository.findAll(
+                Specification.where(IssueSpecifications.fetchUsers())
+                        .and(IssueSpecifications.reportedBy(userId))
+                        .and(IssueSpecifications.labelsMatch(LabelExpression.parse("label-7 OR NOT label-8"))),
+                NEWEST_FIRST));
+
+        assertNoSequentialScans(queries);
+    }
+
+    @Test
+    void testCommentAttachmentUserAndLabelRepositories_NoSequentialScans() {
+        Map<String, Runnable> queries = new TreeMap<>();
+        queries.put("findByIssueIdOrderByCreatedAtDesc",
+                () -> commentRepository.findByIssueIdOrderByCreatedAtDesc(issueId, PageRequest.of(0, 20)));
+        queries.put("countByIssueId", () -> commentRepository.countByIssueId(issueId));
+        queries.put("findIdsByIssueIdAfter",
+                () -> commentRepository.findIdsByIssueIdAfter(issueId, 0L, PageRequest.of(0, 500)));
+        queries.put("findByIssueIdAndIdGreaterThanOrderByIdAsc",
+                () -> attachmentRepository.findByIssueIdAndIdGreaterThanOrderByIdAsc(issueId, 0L, PageRequest.of(0, 500)));
+        queries.put("findByIssueIdOrderByUploadedAtDesc",
+                () -> attachmentRepository.findByIssueIdOrderByUploadedAtDesc(issueId));
+        queries.put("findByUsername", () -> userRepository.findByUsername("user42"));
+        queries.put("existsByEmail", () -> userRepository.existsByEmail("user42@example.com"));
+        queries.put("findByName", () -> labelRepository.findByName("label-7"));
+        queries.put("findByNameIn", () -> labelRepository.findByNameIn(List.of("label-7", "label-8")));
+        queries.put("findNamesByIssueIds", () -> labelRepository.findNamesByIssueIds(List.of(issueId, issueId + 1)));
+
+        assertNoSequentialScans(queries);
+    }
+
+    private void assertNoSequentialScans(Map<String, Runnable> queries) {
+        List<String> violations = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            List<RecordedStatement> statements = record(query);
+            assertFalse(statements.isEmpty(), name + " issued no SQL");
+            for (RecordedStatement statement : statements) {
+                if (isUnfilteredCount(statement.sql())) {
+                    continue;
+                }
+                for (String table : sequentialScans(statement)) {
+                    violations.add(name + ": Seq Scan on " + table + " in " + statement.sql());
+                }
+            }
+        });
+        assertTrue(violations.isEmpty(), String.join("\n", violations));
+    }
+
+    private List<RecordedStatement> record(Runnable query) {
+        List<RecordedStatement> statements = new ArrayList<>();
+        recording.set(statements);
+        try {
+            query.run();
+        } finally {
+            recording.remove();
+        }
+        return statements;
+    }
+
+    private List<String> sequentialScans(RecordedStatement statement) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            for (Map.Entry<Integer, Binding> parameter : statement.parameters().entrySet()) {
+                Binding binding = parameter.getValue();
+                Object[] args = binding.args().clone();
+                args[0] = parameter.getKey();
+                binding.method().invoke(explain, args);
+            }
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                JsonNode plan = objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+                List<String> tables = new ArrayList<>();
+                collectSequentialScans(plan, tables);
+                return tables;
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not explain " + statement.sql(), e);
+        }
+    }
+
+    private static void collectSequentialScans(JsonNode plan, List<String> tables) {
+        if ("Seq Scan".equals(plan.path("Node Type").asText())) {
+            tables.add(plan.path("Relation Name").asText());
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            collectSequentialScans(child, tables);
+        }
+    }
+
+    // The total for an unfiltered page has to read every row; there is nothing to index
+    private static boolean isUnfilteredCount(String sql) {
+        String normalized = sql.toLowerCase();
+        return normalized.startsWith("select count(") && !normalized.contains(" where ");
+    }
+
+    private record Binding(Method method, Object[] args) {
+    }
+
+    private record RecordedStatement(String sql, Map<Integer, Binding> parameters) {
+    }
+
+    /**
+     * Wraps the application DataSource so that, while a query is being recorded on the current
+     * thread, every executed PreparedStatement is captured together with its bind parameters.
+     */
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource target ? recordingDataSource(target) : bean;
+                }
+            };
+        }
+
+        private static DataSource recordingDataSource(DataSource target) {
+            return proxy(DataSource.class, (method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? recordingConnection(connection) : result;
+            });
+        }
+
+        private static Connection recordingConnection(Connection target) {
+            return proxy(Connection.class, (method, args) -> {
+                Object result = invoke(target, method, args);
+                if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                    return recordingStatement(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement recordingStatement(PreparedStatement target, String sql) {
+            Map<Integer, Binding> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, (method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, new Binding(method, args.clone()));
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                } else if (name.equals("executeQuery") && (args == null || args.length == 0)) {
+                    List<RecordedStatement> statements = recording.get();
+                    if (statements != null) {
+                        statements.add(new RecordedStatement(sql, new TreeMap<>(parameters)));
+                    }
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, Handler handler) {
+            return (T) Proxy.newProxyInstance(RepositoryQueryPlanTest.class.getClassLoader(),
+                    new Class<?>[]{type}, (proxy, method, args) -> handler.handle(method, args));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        @FunctionalInterface
+        private interface Handler {
+            Object handle(Method method, Object[] args) throws Throwable;
+        }
+    }
+}
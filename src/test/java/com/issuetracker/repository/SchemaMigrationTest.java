@@ -0,0 +1,113 @@
+package com.issuetracker.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the Flyway migrations the way production does (baseline-on-migrate) against a database
+ * created by the last pre-Flyway release and against an empty one, and checks both end up with
+ * the same schema.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static final List<String> ATTACHMENT_STORAGE_COLUMNS = List.of(
+            "stored_size bigint YES",
+            "storage_encoding character varying YES",
+            "thumbnail_path character varying YES",
+            "preview_path character varying YES");
+
+    @Test
+    void baselinedDatabaseGetsEveryMigrationAfterV1() throws Exception {
+        DriverManagerDataSource dataSource = createDatabase("baselined");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/baseline-release-schema.sql"));
+        }
+
+        MigrateResult result = migrate(dataSource);
+
+        assertEquals("1", result.initialSchemaVersion);
+        assertEquals(latestVersion(dataSource), result.targetSchemaVersion);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertTrue(columns(jdbc, "attachments").containsAll(ATTACHMENT_STORAGE_COLUMNS));
+        assertEquals(List.of("uk_users_email", "uk_users_username", "users_pkey"), constraints(jdbc, "users"));
+
+        Map<String, Object> attachment = jdbc.queryForMap(
+                "SELECT file_size, stored_size, storage_encoding FROM attachments");
+        assertEquals(attachment.get("file_size"), attachment.get("stored_size"));
+        assertNull(attachment.get("storage_encoding"));
+    }
+
+    @Test
+    void emptyDatabaseMatchesBaselinedOne() throws Exception {
+        DriverManagerDataSource baselined = createDatabase("baselined_twin");
+        try (Connection connection = baselined.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/baseline-release-schema.sql"));
+        }
+        migrate(baselined);
+
+        DriverManagerDataSource fresh = createDatabase("fresh");
+        MigrateResult result = migrate(fresh);
+
+        assertEquals(latestVersion(fresh), result.targetSchemaVersion);
+        for (String table : List.of("users", "user_roles", "issues", "comments", "attachments")) {
+            assertEquals(columns(new JdbcTemplate(baselined), table), columns(new JdbcTemplate(fresh), table), table);
+        }
+        assertEquals(constraints(new JdbcTemplate(baselined), "users"), constraints(new JdbcTemplate(fresh), "users"));
+    }
+
+    private static DriverManagerDataSource createDatabase(String name) {
+        new JdbcTemplate(dataSource(postgres.getJdbcUrl())).execute("CREATE DATABASE " + name);
+        return dataSource(postgres.getJdbcUrl().replace("/" + postgres.getDatabaseName(), "/" + name));
+    }
+
+    private static DriverManagerDataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static MigrateResult migrate(DriverManagerDataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+    }
+
+    private static String latestVersion(DriverManagerDataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load()
+                .info().current().getVersion().getVersion();
+    }
+
+    private static List<String> columns(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForList("""
+                SELECT column_name || ' ' || data_type || ' ' || is_nullable FROM information_schema.columns
+                WHERE table_schema = 'public' AND table_name = ? ORDER BY column_name
+                """, String.class, table);
+    }
+
+    private static List<String> constraints(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForList("""
+                SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass ORDER BY conname
+                """, String.class, table);
+    }
+}
@@ -0,0 +1,46 @@
+package com.issuetracker.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter(
+            new MockEnvironment()
+                    .withProperty("concurrency.adaptive.write.initial-limit", "1")
+                    .withProperty("concurrency.adaptive.write.min-limit", "1"),
+            meterRegistry, new ObjectMapper());
+
+    @Test
+    void testShedsRequestsOverTheLimitPerClass() throws Exception {
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        AtomicInteger admitted = new AtomicInteger();
+
+        // The single write slot is held; another write is shed while reads are still admitted
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/issues"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    assertEquals(1.0, meterRegistry.get("http.server.concurrency.in.flight")
+                            .tag("class", "write").gauge().value());
+                    filter.doFilter(new MockHttpServletRequest("PUT", "/api/issues/1"), shed,
+                            (innerRequest, innerResponse) -> fail("Second write should be shed"));
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/issues/1"), new MockHttpServletResponse(),
+                            (innerRequest, innerResponse) -> admitted.incrementAndGet());
+                });
+
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertEquals(1, admitted.get());
+        assertEquals(1.0, meterRegistry.get("http.server.concurrency.rejected").tag("class", "write").counter().count());
+        assertEquals(0.0, meterRegistry.get("http.server.concurrency.in.flight").tag("class", "write").gauge().value());
+        assertEquals(1.0, meterRegistry.get("http.server.concurrency.limit").tag("class", "write").gauge().value());
+    }
+}
@@ -0,0 +1,54 @@
+package com.issuetracker.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbConcurrencyLimitFilterTest {
+
+    private final DbConcurrencyLimitFilter filter =
+            new DbConcurrencyLimitFilter(true, 1, 1, Duration.ZERO, new ObjectMapper());
+
+    @Test
+    void testRejectsWhenAllPermitsAreInUse() throws Exception {
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+
+        // The only permit is held while the outer request is in its filter chain
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/issues"), outer,
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/issues/1"), nested,
+                        (innerRequest, innerResponse) -> fail("Second request should not be admitted")));
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, nested.getStatus());
+        assertEquals("1", nested.getHeader("Retry-After"));
+        assertTrue(nested.getContentAsString().contains("\"status\":503"));
+
+        // Released afterwards
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        AtomicInteger admitted = new AtomicInteger();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/issues"), next,
+                (request, response) -> admitted.incrementAndGet());
+        assertEquals(1, admitted.get());
+    }
+
+    @Test
+    void testStreamingAndHealthEndpointsBypassTheLimit() throws Exception {
+        AtomicInteger admitted = new AtomicInteger();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/issues"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    for (String path : new String[]{"/api/health", "/api/attachments/7/download", "/api/issues/3/attachments.zip"}) {
+                        filter.doFilter(new MockHttpServletRequest("GET", path), new MockHttpServletResponse(),
+                                (innerRequest, innerResponse) -> admitted.incrementAndGet());
+                    }
+                });
+
+        assertEquals(3, admitted.get());
+    }
+}
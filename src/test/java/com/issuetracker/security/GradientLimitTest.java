@@ -0,0 +1,68 @@
+package com.issuetracker.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimitTest {
+
+    private static final long WINDOW = 100_000_000L;
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void testGrowsWhileSaturatedAtSteadyLatency() {
+        GradientLimit limit = new GradientLimit(10, 1, 100, 1.5, WINDOW);
+
+        feed(limit, 0, 20, 10, 10 * MS, 20);
+
+        assertTrue(limit.getLimit() > 10, "limit was " + limit.getLimit());
+        // Stops growing once the traffic no longer comes close to the limit
+        assertTrue(limit.getLimit() <= 2 * 10 + 5, "limit was " + limit.getLimit());
+    }
+
+    @Test
+    void testShrinksWhenLatencyRises() {
+        GradientLimit limit = new GradientLimit(40, 1, 100, 1.5, WINDOW);
+        long now = feed(limit, 0, 40, 40, 10 * MS, 5);
+        int before = limit.getLimit();
+
+        feed(limit, now, 40, 40, 50 * MS, 10);
+
+        assertTrue(limit.getLimit() < before * 2 / 3, "limit went from " + before + " to " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 1);
+    }
+
+    @Test
+    void testIgnoresLatencyWhenFarBelowLimit() {
+        GradientLimit limit = new GradientLimit(40, 1, 100, 1.5, WINDOW);
+        long now = feed(limit, 0, 2, 2, 10 * MS, 5);
+
+        feed(limit, now, 2, 2, 100 * MS, 10);
+
+        assertEquals(40, limit.getLimit());
+    }
+
+    @Test
+    void testRejectsAtLimit() {
+        GradientLimit limit = new GradientLimit(2, 1, 10, 1.5, WINDOW);
+
+        assertEquals(1, limit.tryAcquire());
+        assertEquals(2, limit.tryAcquire());
+        assertEquals(-1, limit.tryAcquire());
+
+        limit.release(2, MS, 0);
+        assertEquals(1, limit.getInFlight());
+        assertEquals(2, limit.tryAcquire());
+    }
+
+    /** Records {@code windows} full windows of samples and returns the time after the last one. */
+    private long feed(GradientLimit limit, long now, int samplesPerWindow, int inFlight, long rtt, int windows) {
+        for (int w = 0; w < windows; w++) {
+            for (int i = 0; i < samplesPerWindow; i++) {
+                now += WINDOW / samplesPerWindow;
+                limit.onSample(inFlight, rtt, now);
+            }
+        }
+        return now;
+    }
+}
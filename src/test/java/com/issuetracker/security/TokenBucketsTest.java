@@ -0,0 +1,73 @@
+package com.issuetracker.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketsTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final TokenBuckets buckets = new TokenBuckets(1024, 3, 6, clock::get);
+
+    @Test
+    void testBurstThenRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire("alice"));
+        }
+        // 6 per minute: the next token arrives in 10 seconds
+        assertEquals(10_000_000_000L, buckets.tryAcquire("alice"));
+
+        clock.addAndGet(10_000_000_000L);
+        assertEquals(0, buckets.tryAcquire("alice"));
+        assertTrue(buckets.tryAcquire("alice") > 0);
+    }
+
+    @Test
+    void testRefundRestoresToken() {
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("bob");
+        }
+        buckets.refund("bob");
+
+        assertEquals(0, buckets.tryAcquire("bob"));
+    }
+
+    @Test
+    void testRefillIsCappedAtCapacity() {
+        clock.addAndGet(3_600_000_000_000L);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire("carol"));
+        }
+        assertTrue(buckets.tryAcquire("carol") > 0);
+    }
+
+    @Test
+    void testKeysHaveBucketsOfTheirOwn() {
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("dave");
+        }
+        assertTrue(buckets.tryAcquire("dave") > 0);
+
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(0, buckets.tryAcquire("key-" + i));
+        }
+        assertEquals(0, buckets.tryAcquire("erin"));
+    }
+
+    @Test
+    void testIdleBucketIsDroppedOnceFull() {
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("frank");
+        }
+        // Refilled after 30 seconds, and a fresh bucket after that is just as full
+        clock.addAndGet(31_000_000_000L);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire("frank"));
+        }
+        assertTrue(buckets.tryAcquire("frank") > 0);
+    }
+}
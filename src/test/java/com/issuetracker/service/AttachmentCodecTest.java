@@ -0,0 +1,90 @@
+package com.issuetracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttachmentCodecTest {
+
+    @TempDir
+    Path storageDir;
+
+    private AttachmentCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new AttachmentCodec();
+        ReflectionTestUtils.setField(codec, "enabled", true);
+        ReflectionTestUtils.setField(codec, "minSize", 1024L);
+    }
+
+    @Test
+    void testShouldCompress_TextLikeTypesOnly() {
+        assertTrue(codec.shouldCompress("text/plain", 4096));
+        assertTrue(codec.shouldCompress("text/x-log; charset=UTF-8", 4096));
+        assertTrue(codec.shouldCompress("application/json", 4096));
+        assertTrue(codec.shouldCompress("application/problem+json", 4096));
+        assertFalse(codec.shouldCompress("text/plain", 100));
+        assertFalse(codec.shouldCompress("image/png", 4096));
+        assertFalse(codec.shouldCompress("application/zip", 4096));
+        assertFalse(codec.shouldCompress(null, 4096));
+    }
+
+    @Test
+    void testCompress_RoundTrip() throws Exception {
+        byte[] corpus = logCorpus(256 * 1024);
+        Path target = storageDir.resolve("roundtrip.log.gz");
+
+        long storedSize = codec.compress(new ByteArrayInputStream(corpus), target);
+
+        assertEquals(Files.size(target), storedSize);
+        try (InputStream in = codec.open(target, AttachmentCodec.GZIP)) {
+            assertArrayEquals(corpus, in.readAllBytes());
+        }
+        // Throughput is measured by AttachmentCodecBenchmark; this only guards the ratio
+        assertTrue(corpus.length > storedSize * 5, "Expected log corpus to compress at least 5x");
+    }
+
+    static byte[] logCorpus(int size) {
+        String[] levels = {"INFO", "INFO", "INFO", "DEBUG", "WARN", "ERROR"};
+        String[] loggers = {"c.i.service.IssueService", "c.i.security.AuthTokenFilter",
+                "o.h.engine.jdbc.spi.SqlExceptionHelper", "c.i.service.AttachmentService"};
+        String[] messages = {"Request completed in %d ms", "Loaded issue %d for user %d",
+                "Connection pool stats total=%d active=%d", "Upload of attachment %d finished"};
+        String stackTrace = """
+                java.lang.RuntimeException: Issue not found
+                \tat com.issuetracker.service.IssueService.getIssue(IssueService.java:98)
+                \tat org.springframework.aop.framework.ReflectiveMethodInvocation.proceed(ReflectiveMethodInvocation.java:184)
+                \tat org.springframework.transaction.interceptor.TransactionInterceptor.invoke(TransactionInterceptor.java:119)
+                \tat org.apache.catalina.core.ApplicationFilterChain.doFilter(ApplicationFilterChain.java:174)
+                """;
+
+        Random random = new Random(42);
+        StringBuilder log = new StringBuilder(size + 1024);
+        long timestamp = 1_700_000_000_000L;
+        while (log.length() < size) {
+            timestamp += random.nextInt(50);
+            String level = levels[random.nextInt(levels.length)];
+            log.append(java.time.Instant.ofEpochMilli(timestamp)).append(' ')
+                    .append(level).append(" [http-nio-8080-exec-").append(random.nextInt(200)).append("] ")
+                    .append(loggers[random.nextInt(loggers.length)]).append(" - ")
+                    .append(String.format(messages[random.nextInt(messages.length)],
+                            random.nextInt(5000), random.nextInt(500)))
+                    .append('\n');
+            if (level.equals("ERROR")) {
+                log.append(stackTrace);
+            }
+        }
+        return log.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
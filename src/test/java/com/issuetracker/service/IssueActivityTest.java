@@ -0,0 +1,197 @@
+package com.issuetracker.service;
+
+import com.issuetracker.dto.CommentRequest;
+import com.issuetracker.dto.CommentResponse;
+import com.issuetracker.dto.InboxResponse;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.CommentRepository;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.security.UserDetailsImpl;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IssueActivityTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private IssueService issueService;
+
+    @Autowired
+    private IssueActivityRepairJob repairJob;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Issue quiet;
+    private Issue busy;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = new User();
+        newUser.setUsername("commenter");
+        newUser.setEmail("commenter@example.com");
+        newUser.setPassword("not-used");
+        newUser.setFullName("Commenter");
+        newUser.setRoles(Set.of("USER"));
+        user = userRepository.save(newUser);
+
+        busy = saveIssue("Busy issue");
+        quiet = saveIssue("Quiet issue");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        commentRepository.deleteAll();
+        issueRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentCommentsAreAllCounted() throws Exception {
+        int comments = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CommentResponse>> results = new ArrayList<>();
+            for (int i = 0; i < comments; i++) {
+                int n = i;
+                results.add(executor.submit(() -> {
+                    authenticate();
+                    try {
+                        return commentService.createComment(busy.getId(), comment("Comment " + n));
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            for (Future<CommentResponse> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        IssueResponse response = issueService.getIssue(busy.getId());
+        assertEquals(comments, response.getCommentCount());
+        assertEquals(0, response.getAttachmentCount());
+        assertTrue(response.getLastActivityAt().isAfter(busy.getLastActivityAt()));
+    }
+
+    @Test
+    void testDeleteDecrementsAndCommentsMoveIssueUpInActivitySort() {
+        authenticate();
+        CommentResponse comment = commentService.createComment(busy.getId(), comment("First"));
+
+        List<IssueResponse> mostActive = issueService.getAllIssuesPaginated(0, 10, "lastActivityAt", "desc", null).getContent();
+        assertEquals(List.of(busy.getId(), quiet.getId()), mostActive.stream().map(IssueResponse::getId).toList());
+        assertEquals(1, mostActive.get(0).getCommentCount());
+
+        commentService.deleteComment(comment.getId());
+        assertEquals(0, issueService.getIssue(busy.getId()).getCommentCount());
+    }
+
+    @Test
+    void testCounterUpdateEvictsOnlyTheTouchedIssue() {
+        authenticate();
+        issueRepository.findById(busy.getId()).orElseThrow();
+        issueRepository.findById(quiet.getId()).orElseThrow();
+        Cache cache = entityManagerFactory.getCache();
+        assertTrue(cache.contains(Issue.class, busy.getId()));
+        assertTrue(cache.contains(Issue.class, quiet.getId()));
+
+        commentService.createComment(busy.getId(), comment("Counted"));
+
+        assertFalse(cache.contains(Issue.class, busy.getId()));
+        assertTrue(cache.contains(Issue.class, quiet.getId()));
+        assertEquals(1, issueService.getIssue(busy.getId()).getCommentCount());
+    }
+
+    @Test
+    void testCommentRefreshesCachedInbox() {
+        authenticate();
+        InboxResponse before = issueService.getInbox(false, null, null, 10);
+        assertSame(before, issueService.getInbox(false, null, null, 10));
+
+        commentService.createComment(busy.getId(), comment("Counted"));
+
+        InboxResponse after = issueService.getInbox(false, null, null, 10);
+        assertNotSame(before, after);
+        assertEquals(1, after.getContent().stream()
+                .filter(issue -> issue.getId().equals(busy.getId()))
+                .findFirst().orElseThrow().getCommentCount());
+    }
+
+    @Test
+    void testRepairJobFixesDriftedCounters() {
+        authenticate();
+        commentService.createComment(busy.getId(), comment("Counted"));
+        assertEquals(0, repairJob.repairAll());
+
+        // Written around the services, e.g. by a manual fix in SQL
+        jdbcTemplate.update("UPDATE issues SET comment_count = 7, attachment_count = 3 WHERE id = ?", quiet.getId());
+        jdbcTemplate.update("DELETE FROM comments WHERE issue_id = ?", busy.getId());
+        entityManagerFactory.getCache().evictAll();
+
+        assertEquals(2, repairJob.repairAll());
+        assertEquals(0, issueService.getIssue(busy.getId()).getCommentCount());
+        assertEquals(0, issueService.getIssue(quiet.getId()).getCommentCount());
+        assertEquals(0, issueService.getIssue(quiet.getId()).getAttachmentCount());
+    }
+
+    private Issue saveIssue(String title) {
+        Issue issue = new Issue();
+        issue.setTitle(title);
+        issue.setReporter(user);
+        return issueRepository.save(issue);
+    }
+
+    private static CommentRequest comment(String content) {
+        CommentRequest request = new CommentRequest();
+        request.setContent(content);
+        return request;
+    }
+
+    private void authenticate() {
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,190 @@
+package com.issuetracker.service;
+
+import com.issuetracker.cache.FacetCache;
+import com.issuetracker.dto.IssueFacets;
+import com.issuetracker.dto.IssueFacets.UserCount;
+import com.issuetracker.dto.IssueQueryRequest;
+import com.issuetracker.dto.IssueRequest;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.model.Issue.IssuePriority;
+import com.issuetracker.model.Issue.IssueStatus;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.LabelRepository;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.security.UserDetailsImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"issues.facets.sample-above=40", "issues.facets.sample-size=20"})
+@ActiveProfiles("test")
+class IssueFacetTest {
+
+    @Autowired
+    private IssueService issueService;
+
+    @Autowired
+    private FacetCache facetCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = createUser("alice");
+        bob = createUser("bob");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM issue_labels");
+        jdbcTemplate.update("DELETE FROM issues");
+        labelRepository.deleteAll();
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        facetCache.clear();
+    }
+
+    @Test
+    void testExactFacets() {
+        authenticate(alice);
+        createIssue("Login fails", IssueStatus.OPEN, IssuePriority.HIGH, bob, "backend");
+        createIssue("Login slow", IssueStatus.OPEN, IssuePriority.LOW, null, "backend");
+        createIssue("Login page typo", IssueStatus.CLOSED, IssuePriority.LOW, bob);
+        authenticate(bob);
+        createIssue("Login button", IssueStatus.IN_PROGRESS, IssuePriority.CRITICAL, alice, "backend");
+        createIssue("Unrelated", IssueStatus.OPEN, IssuePriority.HIGH, alice);
+
+        IssueQueryRequest query = new IssueQueryRequest();
+        query.setQ("login");
+        query.setSize(1);
+        query.setFacets(true);
+        var page = issueService.queryIssues(query);
+        assertEquals(4, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+
+        IssueFacets facets = page.getFacets();
+        assertFalse(facets.isApproximate());
+        assertEquals(4, facets.getTotal());
+        assertEquals(Map.of("OPEN", 2L, "IN_PROGRESS", 1L, "RESOLVED", 0L, "CLOSED", 1L, "REOPENED", 0L),
+                facets.getStatus());
+        assertEquals(List.of("OPEN", "IN_PROGRESS", "RESOLVED", "CLOSED", "REOPENED"),
+                new ArrayList<>(facets.getStatus().keySet()));
+        assertEquals(Map.of("LOW", 2L, "MEDIUM", 0L, "HIGH", 1L, "CRITICAL", 1L), facets.getPriority());
+        assertEquals(List.of(new UserCount(bob.getId(), "bob", 2), new UserCount(null, null, 1),
+                new UserCount(alice.getId(), "alice", 1)), facets.getAssignee());
+        assertEquals(List.of(new UserCount(alice.getId(), "alice", 3), new UserCount(bob.getId(), "bob", 1)),
+                facets.getReporter());
+
+        // Label filters and the plain search endpoint aggregate over the same matches as their page
+        query.setLabels("backend");
+        assertEquals(Map.of("LOW", 1L, "MEDIUM", 0L, "HIGH", 1L, "CRITICAL", 1L),
+                issueService.queryIssues(query).getFacets().getPriority());
+        var search = issueService.searchIssues("LOGIN", 0, 20, true, null);
+        assertEquals(4, search.getFacets().getTotal());
+        assertEquals(facets.getStatus(), search.getFacets().getStatus());
+
+        assertNull(issueService.searchIssues("login", 0, 20, false, null).getFacets());
+    }
+
+    @Test
+    void testFacetsCachedUntilIssueWrite() {
+        authenticate(alice);
+        IssueResponse issue = createIssue("Cached", IssueStatus.OPEN, IssuePriority.HIGH, null);
+        IssueQueryRequest query = new IssueQueryRequest();
+        query.setStatus(List.of(IssueStatus.OPEN, IssueStatus.CLOSED));
+        query.setFacets(true);
+        assertEquals(1L, issueService.queryIssues(query).getFacets().getStatus().get("OPEN"));
+
+        // Behind the service's back: the cached counts are served, for any equivalent query
+        jdbcTemplate.update("UPDATE issues SET status = 'CLOSED'");
+        IssueQueryRequest equivalent = new IssueQueryRequest();
+        equivalent.setStatus(List.of(IssueStatus.CLOSED, IssueStatus.OPEN));
+        equivalent.setSortBy("id");
+        equivalent.setPage(3);
+        equivalent.setFacets(true);
+        assertEquals(1L, issueService.queryIssues(equivalent).getFacets().getStatus().get("OPEN"));
+
+        IssueRequest update = new IssueRequest();
+        update.setStatus(IssueStatus.CLOSED);
+        issueService.updateIssue(issue.getId(), update);
+        IssueFacets facets = issueService.queryIssues(query).getFacets();
+        assertEquals(0L, facets.getStatus().get("OPEN"));
+        assertEquals(1L, facets.getStatus().get("CLOSED"));
+    }
+
+    @Test
+    void testLargeMatchesAreSampled() {
+        authenticate(alice);
+        for (int i = 0; i < 60; i++) {
+            createIssue("Bulk " + i, i % 2 == 0 ? IssueStatus.OPEN : IssueStatus.CLOSED, IssuePriority.MEDIUM, null);
+        }
+        IssueQueryRequest query = new IssueQueryRequest();
+        query.setFacets(true);
+        IssueFacets facets = issueService.queryIssues(query).getFacets();
+
+        // 60 matches against a sample size of 20: 16 one-id ranges three ids apart, alternately
+        // open and closed, each standing for 60 / 16 issues
+        assertTrue(facets.isApproximate());
+        assertEquals(60, facets.getTotal());
+        assertEquals(30L, facets.getStatus().get("OPEN"));
+        assertEquals(30L, facets.getStatus().get("CLOSED"));
+        assertEquals(60L, facets.getPriority().get("MEDIUM"));
+        assertEquals(List.of(new UserCount(null, null, 60)), facets.getAssignee());
+        assertEquals(List.of(new UserCount(alice.getId(), "alice", 60)), facets.getReporter());
+    }
+
+    private IssueResponse createIssue(String title, IssueStatus status, IssuePriority priority, User assignee,
+                                      String... labels) {
+        IssueRequest request = new IssueRequest();
+        request.setTitle(title);
+        request.setStatus(status);
+        request.setPriority(priority);
+        request.setAssigneeId(assignee != null ? assignee.getId() : null);
+        request.setLabels(List.of(labels));
+        return issueService.createIssue(request);
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("not-used");
+        user.setFullName(username);
+        user.setRoles(Set.of("USER"));
+        return userRepository.save(user);
+    }
+
+    private void authenticate(User user) {
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,146 @@
+package com.issuetracker.service;
+
+import com.issuetracker.model.Attachment;
+import com.issuetracker.model.Comment;
+import com.issuetracker.model.Issue;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.AttachmentRepository;
+import com.issuetracker.repository.CommentRepository;
+import com.issuetracker.repository.IssueRepository;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.security.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"issues.purge.batch-size=2", "file.upload.dir=target/test-uploads"})
+@ActiveProfiles("test")
+class IssuePurgerTest {
+
+    @Autowired
+    private IssuePurger issuePurger;
+
+    @Autowired
+    private IssueService issueService;
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = new User();
+        newUser.setUsername("purger");
+        newUser.setEmail("purger@example.com");
+        newUser.setPassword("not-used");
+        newUser.setFullName("Purger");
+        newUser.setRoles(Set.of("USER"));
+        user = userRepository.save(newUser);
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        issuePurger.purgeDeletedBefore(LocalDateTime.now().plusDays(1));
+        attachmentRepository.deleteAll();
+        commentRepository.deleteAll();
+        issueRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testPurgeRemovesIssueChildrenAndFilesInBatches() throws Exception {
+        Issue deleted = saveIssue("Deleted");
+        Issue kept = saveIssue("Kept");
+        for (int i = 0; i < 5; i++) {
+            saveComment(deleted);
+        }
+        saveComment(kept);
+        Path file = Files.createTempFile("purged", ".txt");
+        saveAttachment(deleted, file);
+        saveAttachment(deleted, Files.createTempFile("purged", ".txt"));
+        saveAttachment(deleted, Files.createTempFile("purged", ".txt"));
+
+        issueService.deleteIssue(deleted.getId());
+        // Still within the grace period
+        assertEquals(0, issuePurger.purgeDeletedBefore(LocalDateTime.now().minusMinutes(1)));
+        assertEquals(5, commentRepository.countByIssueId(deleted.getId()));
+
+        assertEquals(1, issuePurger.purgeDeletedBefore(LocalDateTime.now().plusMinutes(1)));
+
+        assertEquals(0, commentRepository.countByIssueId(deleted.getId()));
+        assertEquals(1, commentRepository.countByIssueId(kept.getId()));
+        assertTrue(attachmentRepository.findByIssueIdOrderByUploadedAtDesc(deleted.getId()).isEmpty());
+        assertFalse(Files.exists(file));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM issues WHERE id = ?", Integer.class, deleted.getId()));
+        assertTrue(issueRepository.findById(kept.getId()).isPresent());
+    }
+
+    @Test
+    void testExpiredDeleteCannotBeRestored() {
+        Issue issue = saveIssue("Long gone");
+        issueService.deleteIssue(issue.getId());
+        jdbcTemplate.update("UPDATE issues SET deleted_at = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(30), issue.getId());
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> issueService.restoreIssue(issue.getId()));
+        assertEquals("Issue not found or no longer restorable", e.getMessage());
+    }
+
+    private Issue saveIssue(String title) {
+        Issue issue = new Issue();
+        issue.setTitle(title);
+        issue.setReporter(user);
+        return issueRepository.save(issue);
+    }
+
+    private void saveComment(Issue issue) {
+        Comment comment = new Comment();
+        comment.setContent("Comment");
+        comment.setIssue(issue);
+        comment.setAuthor(user);
+        commentRepository.save(comment);
+    }
+
+    private void saveAttachment(Issue issue, Path file) {
+        Attachment attachment = new Attachment();
+        attachment.setFilename(file.getFileName().toString());
+        attachment.setOriginalFilename("log.txt");
+        attachment.setContentType("text/plain");
+        attachment.setFileSize(1L);
+        attachment.setFilePath(file.toString());
+        attachment.setIssue(issue);
+        attachment.setUploadedBy(user);
+        attachmentRepository.save(attachment);
+    }
+}
@@ -1,24 +1,30 @@
 package com.issuetracker.service;
 
+import com.issuetracker.cache.CacheInvalidationBroadcaster;
+import com.issuetracker.cache.InboxCache;
 import com.issuetracker.dto.IssueRequest;
 import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.index.IssueBitmapIndex;
 import com.issuetracker.model.Issue;
 import com.issuetracker.model.User;
 import com.issuetracker.repository.IssueRepository;
 import com.issuetracker.repository.UserRepository;
 import com.issuetracker.security.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Optional;
@@ -37,6 +43,27 @@ class IssueServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private InboxCache inboxCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheInvalidationBroadcaster cacheInvalidation;
+
+    @Mock
+    private LabelService labelService;
+
+    @Mock
+    private IssueBitmapIndex issueIndex;
+
+    @Mock
+    private IssueFacetService issueFacetService;
+
+    @Mock
+    private IssueProjector issueProjector;
+
     @InjectMocks
     private IssueService issueService;
 
@@ -74,6 +101,11 @@ class IssueServiceTest {
         SecurityContextHolder.setContext(securityContext);
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     void testCreateIssue_Success() {
         IssueRequest request = new IssueRequest();
@@ -128,10 +160,11 @@ class IssueServiceTest {
     @Test
     void testDeleteIssue_Success() {
         when(issueRepository.findById(1L)).thenReturn(Optional.of(testIssue));
-        doNothing().when(issueRepository).delete(any(Issue.class));
+        when(issueRepository.markDeleted(eq(1L), any(LocalDateTime.class))).thenReturn(1);
 
         issueService.deleteIssue(1L);
 
-        verify(issueRepository, times(1)).delete(testIssue);
+        verify(issueRepository, times(1)).markDeleted(eq(1L), any(LocalDateTime.class));
+        verify(issueRepository, never()).delete(any(Issue.class));
     }
 }
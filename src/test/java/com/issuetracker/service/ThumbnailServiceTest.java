@@ -0,0 +1,90 @@
+package com.issuetracker.service;
+
+import com.issuetracker.repository.AttachmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ThumbnailServiceTest {
+
+    @Mock
+    private AttachmentRepository attachmentRepository;
+
+    @TempDir
+    Path uploadDir;
+
+    private ThumbnailService thumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        thumbnailService = new ThumbnailService(attachmentRepository, new SyncTaskExecutor());
+        ReflectionTestUtils.setField(thumbnailService, "thumbnailSize", 200);
+        ReflectionTestUtils.setField(thumbnailService, "previewSize", 1024);
+    }
+
+    @Test
+    void testSupports_ImageTypesOnly() {
+        assertTrue(thumbnailService.supports("image/png"));
+        assertTrue(thumbnailService.supports("image/jpeg"));
+        assertFalse(thumbnailService.supports("text/plain"));
+        assertFalse(thumbnailService.supports(null));
+    }
+
+    @Test
+    void testEnqueue_WritesThumbnailAndPreview() throws Exception {
+        Path source = uploadDir.resolve("screenshot.png");
+        ImageIO.write(new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_ARGB), "png", source.toFile());
+        when(attachmentRepository.updateDerivatives(eq(1L), anyString(), anyString())).thenReturn(1);
+
+        thumbnailService.enqueue(1L, source);
+
+        Path thumbnail = ThumbnailService.derivativePath(source, "thumb");
+        Path preview = ThumbnailService.derivativePath(source, "preview");
+        BufferedImage thumbnailImage = ImageIO.read(thumbnail.toFile());
+        BufferedImage previewImage = ImageIO.read(preview.toFile());
+
+        assertEquals(200, thumbnailImage.getWidth());
+        assertEquals(200, thumbnailImage.getHeight());
+        assertEquals(1024, previewImage.getWidth());
+        assertEquals(512, previewImage.getHeight());
+        verify(attachmentRepository).updateDerivatives(1L, thumbnail.toString(), preview.toString());
+    }
+
+    @Test
+    void testEnqueue_AttachmentDeletedMeanwhile() throws Exception {
+        Path source = uploadDir.resolve("small.png");
+        ImageIO.write(new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+        when(attachmentRepository.updateDerivatives(eq(2L), anyString(), anyString())).thenReturn(0);
+
+        thumbnailService.enqueue(2L, source);
+
+        assertFalse(Files.exists(ThumbnailService.derivativePath(source, "thumb")));
+        assertFalse(Files.exists(ThumbnailService.derivativePath(source, "preview")));
+    }
+
+    @Test
+    void testEnqueue_NotAnImage() throws Exception {
+        Path source = uploadDir.resolve("fake.png");
+        Files.writeString(source, "definitely not a png");
+
+        thumbnailService.enqueue(3L, source);
+
+        verifyNoInteractions(attachmentRepository);
+    }
+}
@@ -0,0 +1,45 @@
+package com.issuetracker.webhook;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookAddressPolicyTest {
+
+    private final WebhookAddressPolicy policy = new WebhookAddressPolicy(false);
+
+    @Test
+    void testRejectsNonPublicAddresses() {
+        List<String> urls = List.of(
+                "http://127.0.0.1:8080/hook",
+                "http://localhost/hook",
+                "http://169.254.169.254/latest/meta-data",
+                "http://10.1.2.3/hook",
+                "http://172.16.0.1/hook",
+                "http://192.168.1.1/hook",
+                "http://100.64.0.1/hook",
+                "http://0.0.0.0/hook",
+                "http://[::1]/hook",
+                "http://[fd00::1]/hook",
+                "http://[fe80::1]/hook",
+                "http://[::ffff:127.0.0.1]/hook",
+                "http://[64:ff9b::a00:1]/hook");
+        for (String url : urls) {
+            assertThrows(RuntimeException.class, () -> policy.check(URI.create(url)), url);
+        }
+    }
+
+    @Test
+    void testAcceptsPublicAddresses() {
+        policy.check(URI.create("https://93.184.215.14/hook"));
+        policy.check(URI.create("https://[2606:4700:4700::1111]/hook"));
+    }
+
+    @Test
+    void testCanBeSwitchedOff() {
+        new WebhookAddressPolicy(true).check(URI.create("http://127.0.0.1:8080/hook"));
+    }
+}
@@ -0,0 +1,283 @@
+package com.issuetracker.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issuetracker.dto.CommentRequest;
+import com.issuetracker.dto.IssueRequest;
+import com.issuetracker.dto.IssueResponse;
+import com.issuetracker.dto.WebhookRequest;
+import com.issuetracker.dto.WebhookResponse;
+import com.issuetracker.model.Issue.IssueStatus;
+import com.issuetracker.model.User;
+import com.issuetracker.repository.UserRepository;
+import com.issuetracker.security.UserDetailsImpl;
+import com.issuetracker.service.CommentService;
+import com.issuetracker.service.IssueService;
+import com.issuetracker.service.WebhookService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "webhooks.enabled=true",
+        "webhooks.poll-interval-ms=100",
+        "webhooks.timeout=1s",
+        "webhooks.max-attempts=3",
+        "webhooks.backoff.initial=100ms",
+        "webhooks.backoff.max=200ms",
+        "webhooks.allow-private-addresses=true"
+})
+@ActiveProfiles("test")
+class WebhookDispatcherTest {
+
+    @Autowired
+    private WebhookService webhookService;
+
+    @Autowired
+    private WebhookDispatcher dispatcher;
+
+    @Autowired
+    private IssueService issueService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final List<Received> received = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean failing = new AtomicBoolean(true);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        User user = new User();
+        user.setUsername("integrator");
+        user.setEmail("integrator@example.com");
+        user.setPassword("not-used");
+        user.setFullName("Integrator");
+        user.setRoles(Set.of("USER"));
+        UserDetailsImpl principal = UserDetailsImpl.build(userRepository.save(user));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // A local receiver: /ok accepts, /fail answers 500 until told otherwise, /slow outlasts the timeout
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/ok", exchange -> respond(exchange, 204));
+        server.createContext("/fail", exchange -> respond(exchange, failing.get() ? 500 : 200));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(3000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200);
+        });
+        server.start();
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // Idle first: a poll or a late delivery outcome racing the deletes deadlocks H2
+        dispatcher.pause();
+        if (server != null) {
+            server.stop(0);
+        }
+        if (serverExecutor != null) {
+            serverExecutor.shutdownNow();
+        }
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM webhook_deliveries");
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM webhooks");
+        jdbcTemplate.update("DELETE FROM comments");
+        jdbcTemplate.update("DELETE FROM issue_labels");
+        jdbcTemplate.update("DELETE FROM issues");
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        dispatcher.refreshSubscriptions();
+    }
+
+    @Test
+    void testDeliversSignedBatches() throws Exception {
+        WebhookResponse webhook = register("/ok", 10, List.of());
+        assertEquals(64, webhook.getSecret().length());
+
+        // Three events committed together go out in one POST
+        Long issueId = new TransactionTemplate(transactionManager).execute(status -> {
+            IssueResponse issue = createIssue("Build broken");
+            IssueRequest update = new IssueRequest();
+            update.setTitle("Build broken");
+            update.setStatus(IssueStatus.IN_PROGRESS);
+            issueService.updateIssue(issue.getId(), update);
+            CommentRequest comment = new CommentRequest();
+            comment.setContent("Looking into it");
+            commentService.createComment(issue.getId(), comment);
+            return issue.getId();
+        });
+
+        await(() -> received.size() == 1);
+        Received request = received.get(0);
+        assertEquals("/ok", request.path);
+        assertEquals(webhook.getId().toString(), request.webhookId);
+        assertEquals(WebhookSigner.sign(webhook.getSecret(), request.timestamp, request.body), request.signature);
+
+        JsonNode events = objectMapper.readTree(request.body);
+        assertEquals(List.of("issue.created", "issue.updated", "comment.created"),
+                List.of(events.get(0).get("type").asText(), events.get(1).get("type").asText(),
+                        events.get(2).get("type").asText()));
+        assertEquals(issueId, events.get(1).get("data").get("issueId").asLong());
+        assertEquals("IN_PROGRESS", events.get(1).get("data").get("status").asText());
+        assertEquals("OPEN", events.get(1).get("data").get("previousStatus").asText());
+        assertEquals(1, events.get(2).get("attempt").asInt());
+
+        await(() -> count("SELECT COUNT(*) FROM webhook_deliveries WHERE status = 'DELIVERED'") == 3);
+        Thread.sleep(300);
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void testFailingAndSlowReceiversAreIsolated() throws Exception {
+        WebhookResponse slow = register("/slow", 1, List.of());
+        WebhookResponse failing = register("/fail", 1, List.of());
+        WebhookResponse healthy = register("/ok", 1, List.of());
+
+        createIssue("First");
+        await(() -> received(healthy) == 1);
+        // The slow receiver is still busy with its request; meanwhile nothing else waits for it
+        assertEquals(0, count("SELECT COUNT(*) FROM webhook_deliveries WHERE webhook_id = " + slow.getId()
+                + " AND attempts > 0"));
+        createIssue("Second");
+        await(() -> received(healthy) == 2);
+
+        // Three attempts each, then both events are dead letters
+        await(() -> webhookService.getWebhooks().get(1).getDeadDeliveries() == 2);
+        var deadLetters = webhookService.getDeadLetters(failing.getId(), 0, 20);
+        assertEquals(2, deadLetters.getTotalElements());
+        assertEquals(3, deadLetters.getContent().get(0).getAttempts());
+        assertEquals("HTTP 500", deadLetters.getContent().get(0).getLastError());
+        assertEquals("issue.created", deadLetters.getContent().get(0).getType());
+
+        // Once the receiver is fixed, dead letters can be sent again
+        this.failing.set(false);
+        assertEquals(2, webhookService.redeliverDeadLetters(failing.getId()).getPendingDeliveries());
+        await(() -> count("SELECT COUNT(*) FROM webhook_deliveries WHERE webhook_id = " + failing.getId()
+                + " AND status = 'DELIVERED'") == 2);
+        assertEquals(0, webhookService.getWebhooks().get(1).getDeadDeliveries());
+
+        // The slow receiver times out like any failure
+        await(() -> count("SELECT COUNT(*) FROM webhook_deliveries WHERE webhook_id = " + slow.getId()
+                + " AND last_error LIKE 'HttpTimeoutException%'") > 0);
+    }
+
+    @Test
+    void testOnlySubscribedEventsAreRecorded() throws Exception {
+        IssueResponse issue = createIssue("Before any webhook");
+        assertEquals(0, count("SELECT COUNT(*) FROM outbox_events"));
+
+        register("/ok", 1, List.of("comment.created"));
+        createIssue("Not subscribed");
+        CommentRequest comment = new CommentRequest();
+        comment.setContent("Subscribed");
+        commentService.createComment(issue.getId(), comment);
+
+        await(() -> received.size() == 1);
+        assertEquals("comment.created", objectMapper.readTree(received.get(0).body).get(0).get("type").asText());
+        assertEquals(1, count("SELECT COUNT(*) FROM outbox_events"));
+
+        WebhookRequest invalid = new WebhookRequest();
+        invalid.setUrl("ftp://example.com/hook");
+        assertThrows(RuntimeException.class, () -> webhookService.createWebhook(invalid));
+        invalid.setUrl("http://example.com/hook");
+        invalid.setEvents(List.of("issue.exploded"));
+        assertThrows(RuntimeException.class, () -> webhookService.createWebhook(invalid));
+    }
+
+    private WebhookResponse register(String path, int batchSize, List<String> events) {
+        WebhookRequest request = new WebhookRequest();
+        request.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        request.setBatchSize(batchSize);
+        request.setEvents(events);
+        return webhookService.createWebhook(request);
+    }
+
+    private IssueResponse createIssue(String title) {
+        IssueRequest request = new IssueRequest();
+        request.setTitle(title);
+        return issueService.createIssue(request);
+    }
+
+    private long received(WebhookResponse webhook) {
+        return received.stream().filter(request -> request.webhookId.equals(webhook.getId().toString())).count();
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private void respond(HttpExchange exchange, int status) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (status / 100 == 2) {
+            received.add(new Received(exchange.getRequestURI().getPath(),
+                    exchange.getRequestHeaders().getFirst(WebhookSigner.WEBHOOK_ID_HEADER),
+                    exchange.getRequestHeaders().getFirst(WebhookSigner.TIMESTAMP_HEADER),
+                    exchange.getRequestHeaders().getFirst(WebhookSigner.SIGNATURE_HEADER), body));
+        }
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 10 seconds");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private record Received(String path, String webhookId, String timestamp, String signature, String body) {
+    }
+}
@@ -0,0 +1,74 @@
+-- Schema of the last release before Flyway, as ddl-auto: update created it. The unique
+-- constraints carry Hibernate's generated names, not the users_<column>_key names of V1.
+
+create table users (
+    active boolean not null,
+    created_at timestamp(6) not null,
+    id bigserial not null,
+    updated_at timestamp(6) not null,
+    email varchar(255) not null,
+    full_name varchar(255) not null,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role varchar(255)
+);
+
+create table issues (
+    assignee_id bigint,
+    created_at timestamp(6) not null,
+    id bigserial not null,
+    reporter_id bigint not null,
+    resolved_at timestamp(6),
+    updated_at timestamp(6) not null,
+    description TEXT,
+    priority varchar(255) not null check (priority in ('LOW','MEDIUM','HIGH','CRITICAL')),
+    status varchar(255) not null check (status in ('OPEN','IN_PROGRESS','RESOLVED','CLOSED','REOPENED')),
+    title varchar(255) not null,
+    primary key (id)
+);
+
+create table comments (
+    author_id bigint not null,
+    created_at timestamp(6) not null,
+    id bigserial not null,
+    issue_id bigint not null,
+    updated_at timestamp(6) not null,
+    content TEXT not null,
+    primary key (id)
+);
+
+create table attachments (
+    file_size bigint not null,
+    id bigserial not null,
+    issue_id bigint not null,
+    uploaded_at timestamp(6) not null,
+    uploaded_by bigint not null,
+    content_type varchar(255) not null,
+    file_path varchar(255) not null,
+    filename varchar(255) not null,
+    original_filename varchar(255) not null,
+    primary key (id)
+);
+
+alter table if exists users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table if exists users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+alter table if exists attachments add constraint FKaqkq8g30hyvvfvd19n00qs7k4 foreign key (issue_id) references issues;
+alter table if exists attachments add constraint FKl3qeaqe1mykgrd4ltgmqthdkp foreign key (uploaded_by) references users;
+alter table if exists comments add constraint FKn2na60ukhs76ibtpt9burkm27 foreign key (author_id) references users;
+alter table if exists comments add constraint FK287j1dpionjmfs2yycfjmy5j2 foreign key (issue_id) references issues;
+alter table if exists issues add constraint FK6tkde1c2odhrtreahor01p5fb foreign key (assignee_id) references users;
+alter table if exists issues add constraint FKk6y4w2thufjijfu9ixo7njd9b foreign key (reporter_id) references users;
+alter table if exists user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users;
+
+insert into users (username, email, password, full_name, active, created_at, updated_at)
+values ('old', 'old@example.com', 'x', 'Old User', true, now(), now());
+insert into user_roles (user_id, role) select id, 'USER' from users;
+insert into issues (title, status, priority, reporter_id, created_at, updated_at)
+select 'Old issue', 'OPEN', 'MEDIUM', id, now(), now() from users;
+insert into attachments (filename, original_filename, content_type, file_size, file_path, issue_id, uploaded_by, uploaded_at)
+select 'a.txt', 'a.txt', 'text/plain', 3, '/uploads/a.txt', i.id, i.reporter_id, now() from issues i;